@@ -0,0 +1,238 @@
+package com.civic.civicissuesystem.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Mergeable streaming quantile sketch with a relative-error guarantee (the DDSketch construction).
+// Positive values fall into logarithmic buckets of ratio gamma = (1 + a) / (1 - a), so any reported
+// quantile is within a relative error a of the true value. Buckets for one sketch are stored densely
+// between the lowest and highest index seen; for durations between one second and a few years that
+// is under a thousand longs. Two sketches with the same accuracy merge by adding bucket counts, which
+// makes them safe to combine across months, cities or nodes. Not thread-safe.
+public class QuantileSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    // Upper bound on the bucket span accepted from a serialized sketch. At 1% accuracy it covers values
+    // hundreds of orders of magnitude apart, so only a forged payload gets near it
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Sketch values must be finite and non-negative");
+        }
+        if (value == 0) {
+            zeroCount++;
+        } else {
+            int index = indexOf(value);
+            ensureIndex(index);
+            counts[index - offset]++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (other.counts.length > 0) {
+            ensureIndex(other.offset);
+            ensureIndex(other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Midpoint of the bucket in the relative sense, clamped to what was actually observed
+                double estimate = 2 * Math.pow(gamma, i + offset) / (gamma + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() { return count; }
+    public double getSum() { return sum; }
+    public double getMin() { return count == 0 ? Double.NaN : min; }
+    public double getMax() { return count == 0 ? Double.NaN : max; }
+    public double getMean() { return count == 0 ? Double.NaN : sum / count; }
+    public double getRelativeAccuracy() { return relativeAccuracy; }
+
+    // Layout: version, accuracy, zeroCount, count, sum, min, max, bucket count, then per non-empty
+    // bucket a varint index delta (zigzag for the first) and a varint count
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long c : counts) {
+            if (c > 0) nonEmpty++;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 * 4 + 10 * (3 + nonEmpty * 2));
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(relativeAccuracy);
+        writeVarLong(buffer, zeroCount);
+        writeVarLong(buffer, count);
+        buffer.putDouble(sum);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        writeVarLong(buffer, nonEmpty);
+        int previous = 0;
+        boolean first = true;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            int index = i + offset;
+            writeVarLong(buffer, first ? zigzag(index) : index - previous);
+            writeVarLong(buffer, counts[i]);
+            previous = index;
+            first = false;
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public static QuantileSketch fromBytes(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sketch format version " + version);
+        }
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble());
+        sketch.zeroCount = readVarLong(buffer);
+        sketch.count = readVarLong(buffer);
+        sketch.sum = buffer.getDouble();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        long nonEmpty = readVarLong(buffer);
+        // Each bucket takes at least two bytes, so a count the payload cannot hold is rejected up front
+        if (nonEmpty < 0 || nonEmpty > buffer.remaining() / 2) {
+            throw new IllegalArgumentException("Sketch bucket count exceeds its payload");
+        }
+        long total = sketch.zeroCount;
+        if (nonEmpty > 0) {
+            if (!(sketch.min >= 0 && sketch.min <= sketch.max && sketch.max <= Double.MAX_VALUE)) {
+                throw new IllegalArgumentException("Sketch bounds are invalid");
+            }
+            // Buckets can only lie between those of the recorded min and max, which sizes the array exactly
+            int lowest = sketch.indexOf(sketch.min > 0 ? sketch.min : Double.MIN_VALUE);
+            int highest = sketch.indexOf(sketch.max);
+            if ((long) highest - lowest >= MAX_BUCKETS) {
+                throw new IllegalArgumentException("Sketch spans too many buckets");
+            }
+            sketch.counts = new long[highest - lowest + 1];
+            sketch.offset = lowest;
+            long index = 0;
+            for (long i = 0; i < nonEmpty; i++) {
+                long delta = readVarLong(buffer);
+                if (i > 0 && delta <= 0) {
+                    throw new IllegalArgumentException("Sketch buckets are out of order");
+                }
+                index = i == 0 ? unzigzag(delta) : index + delta;
+                long bucketCount = readVarLong(buffer);
+                if (index < lowest || index > highest || bucketCount <= 0) {
+                    throw new IllegalArgumentException("Sketch bucket " + index + " is outside its bounds");
+                }
+                sketch.counts[(int) (index - lowest)] = bucketCount;
+                total = Math.addExact(total, bucketCount);
+            }
+        }
+        if (total != sketch.count) {
+            throw new IllegalArgumentException("Sketch bucket counts do not add up to its count");
+        }
+        return sketch;
+    }
+
+    private int indexOf(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private void ensureIndex(int index) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = index - 8;
+            return;
+        }
+        if (index < offset) {
+            int grow = Math.max(offset - index, counts.length / 2);
+            long[] resized = new long[counts.length + grow];
+            System.arraycopy(counts, 0, resized, grow, counts.length);
+            counts = resized;
+            offset -= grow;
+        } else if (index >= offset + counts.length) {
+            int needed = index - offset + 1;
+            counts = Arrays.copyOf(counts, Math.max(needed, counts.length + counts.length / 2));
+        }
+    }
+
+    private static long zigzag(int value) {
+        return ((long) value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(long value) {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    private static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in sketch");
+    }
+}
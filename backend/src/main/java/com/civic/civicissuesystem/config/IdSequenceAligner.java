@@ -0,0 +1,52 @@
+package com.civic.civicissuesystem.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// The complaint tables used IDENTITY columns before they moved to pooled sequences. Schema update
+// creates the new sequences starting at 1, so on startup each one is restarted past the highest
+// id already in its table. Runs during context initialisation, before any request can insert.
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[][] SEQUENCES = {
+            { "complaints", "complaints_seq" },
+            { "complaint_images", "complaint_images_seq" },
+            { "complaint_updates", "complaint_updates_seq" }
+    };
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        for (String[] table : SEQUENCES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table[0], Long.class);
+            Long next = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(table[1]), Long.class);
+            // The pooled optimizer treats a sequence value as the top of a block, so keep a full
+            // block of headroom above the existing ids
+            if (maxId != null && next != null && next <= maxId + ALLOCATION_SIZE) {
+                long restart = maxId + ALLOCATION_SIZE + 1;
+                jdbcTemplate.execute("ALTER SEQUENCE " + table[1] + " RESTART WITH " + restart);
+                logger.info("Restarted sequence {} at {} (max id in {} is {})", table[1], restart, table[0], maxId);
+            }
+        }
+    }
+}
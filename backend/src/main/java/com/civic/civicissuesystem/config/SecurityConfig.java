@@ -1,13 +1,18 @@
 package com.civic.civicissuesystem.config;
 
 import com.civic.civicissuesystem.service.CustomUserDetailsService;
+import com.civic.civicissuesystem.service.TokenRevocationService;
 import com.civic.civicissuesystem.security.JwtAuthenticationEntryPoint;
 import com.civic.civicissuesystem.security.JwtAuthenticationFilter;
 import com.civic.civicissuesystem.security.JwtTokenProvider;
+import com.civic.civicissuesystem.security.PrincipalCache;
+import com.civic.civicissuesystem.timing.RequestTiming;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -35,9 +40,18 @@ public class SecurityConfig {
 
     @Autowired
     private JwtAuthenticationEntryPoint unauthorizedHandler;
+
+    @Autowired
+    private Environment environment;
     
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
@@ -45,7 +59,8 @@ public class SecurityConfig {
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
         JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
         filter.setTokenProvider(jwtTokenProvider);
-        filter.setCustomUserDetailsService(customUserDetailsService);
+        filter.setPrincipalCache(principalCache);
+        filter.setTokenRevocationService(tokenRevocationService);
         return filter;
     }
 
@@ -76,6 +91,11 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/signin", "/api/auth/signup").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
+                // Load balancer health checks carry no JWT
+                .requestMatchers("/livez", "/readyz", "/actuator/health/**").permitAll()
+                // Actuator is served only on the management port, which compose does not publish,
+                // so the Prometheus scraper on the internal network needs no credentials there
+                .requestMatchers(this::isManagementPort).permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/citizen/**").hasAnyRole("CITIZEN", "ADMIN")
                 .anyRequest().authenticated()
@@ -87,12 +107,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // The bound management port is only known once its server has started, so it is looked up per request
+    private boolean isManagementPort(HttpServletRequest request) {
+        String managementPort = environment.getProperty("local.management.port");
+        return managementPort != null && managementPort.equals(String.valueOf(request.getLocalPort()));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(RequestTiming.SERVER_TIMING));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
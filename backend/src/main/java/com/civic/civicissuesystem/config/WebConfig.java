@@ -1,6 +1,11 @@
 package com.civic.civicissuesystem.config;
 
+import com.civic.civicissuesystem.timing.TimedJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -10,10 +15,19 @@ import java.nio.file.Paths;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${upload.directory:uploads}")
+    private String uploadDirectory;
+
+    // Replaces Boot's default JSON converter (same ObjectMapper) so serialization is timed
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Serve uploaded files statically
-        Path uploadDir = Paths.get("uploads");
+        Path uploadDir = Paths.get(uploadDirectory);
         String uploadPath = uploadDir.toFile().getAbsolutePath();
         
         registry.addResourceHandler("/uploads/**")
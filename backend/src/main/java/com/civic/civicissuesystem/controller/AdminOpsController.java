@@ -0,0 +1,115 @@
+package com.civic.civicissuesystem.controller;
+
+import com.civic.civicissuesystem.entity.EmailOutbox;
+import com.civic.civicissuesystem.security.JwtTokenProvider;
+import com.civic.civicissuesystem.security.PrincipalCache;
+import com.civic.civicissuesystem.service.EmailOutboxDispatcher;
+import com.civic.civicissuesystem.service.TokenRevocationService;
+import com.civic.civicissuesystem.timing.RequestTimingSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin/ops")
+public class AdminOpsController {
+    
+    private static final int MAX_DEAD_LETTERS = 500;
+    
+    @Autowired
+    private EmailOutboxDispatcher outboxDispatcher;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private RequestTimingSettings timingSettings;
+    
+    @GetMapping("/outbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getOutboxMetrics() {
+        return ResponseEntity.ok(outboxDispatcher.getMetrics());
+    }
+    
+    @GetMapping("/outbox/dead")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EmailOutbox>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(outboxDispatcher.getDeadLetters(Math.max(1, Math.min(limit, MAX_DEAD_LETTERS))));
+    }
+    
+    @PostMapping("/outbox/{id}/retry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> retryDeadLetter(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(outboxDispatcher.retry(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid retry", "message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/principal-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPrincipalCacheMetrics() {
+        return ResponseEntity.ok(principalCache.getMetrics());
+    }
+    
+    @GetMapping("/token-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTokenCacheMetrics() {
+        return ResponseEntity.ok(tokenProvider.getVerifiedCacheMetrics());
+    }
+    
+    @GetMapping("/revocations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRevocationMetrics() {
+        return ResponseEntity.ok(tokenRevocationService.getMetrics());
+    }
+    
+    @GetMapping("/timing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTimingSettings() {
+        return ResponseEntity.ok(timingSettings.getSettings());
+    }
+    
+    // Only the parameters given are changed; takes effect from the next request
+    @PutMapping("/timing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateTimingSettings(@RequestParam(required = false) Boolean enabled,
+                                                  @RequestParam(required = false) Boolean serverTimingHeader,
+                                                  @RequestParam(required = false) Long slowThresholdMs,
+                                                  @RequestParam(required = false) Double slowLogSampleRate) {
+        try {
+            if (slowThresholdMs != null) {
+                timingSettings.setSlowThresholdMs(slowThresholdMs);
+            }
+            if (slowLogSampleRate != null) {
+                timingSettings.setSlowLogSampleRate(slowLogSampleRate);
+            }
+            if (enabled != null) {
+                timingSettings.setEnabled(enabled);
+            }
+            if (serverTimingHeader != null) {
+                timingSettings.setServerTimingHeader(serverTimingHeader);
+            }
+            return ResponseEntity.ok(timingSettings.getSettings());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid timing settings", "message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.civic.civicissuesystem.controller;
+
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.service.UserAccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+    
+    @Autowired
+    private UserAccountService userAccountService;
+    
+    @PutMapping("/{id}/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> setEnabled(@PathVariable Long id, @RequestParam boolean enabled,
+                                        Authentication authentication) {
+        User admin = (User) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(toResponse(userAccountService.setEnabled(id, enabled, admin)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid account change", "message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PutMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> changeRole(@PathVariable Long id, @RequestParam Role role,
+                                        Authentication authentication) {
+        User admin = (User) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(toResponse(userAccountService.changeRole(id, role, admin)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid account change", "message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    private static Map<String, Object> toResponse(User user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", user.getId());
+        response.put("email", user.getEmail());
+        response.put("role", user.getRole());
+        response.put("enabled", user.isEnabled());
+        return response;
+    }
+}
@@ -0,0 +1,91 @@
+package com.civic.civicissuesystem.controller;
+
+import com.civic.civicissuesystem.dto.TimeSeriesPoint;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.service.ComplaintSlaService;
+import com.civic.civicissuesystem.service.ComplaintTimeSeriesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin/analytics")
+public class AnalyticsController {
+    
+    @Autowired
+    private ComplaintTimeSeriesService timeSeriesService;
+    
+    @Autowired
+    private ComplaintSlaService slaService;
+    
+    @GetMapping("/timeseries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") ComplaintTimeSeriesService.Granularity granularity,
+            @RequestParam(required = false) ComplaintType type,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "false") boolean splitByCity) {
+        
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        try {
+            List<TimeSeriesPoint> points = timeSeriesService.query(start, end, granularity, type, city, splitByCity);
+            return ResponseEntity.ok(points);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid time series request", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/sla")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSlaPercentiles(
+            @RequestParam(defaultValue = "TIME_TO_RESOLVE") ComplaintSlaService.Metric metric,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) ComplaintType type,
+            @RequestParam(required = false) String city) {
+        
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid SLA request", "message", "'from' must not be after 'to'"));
+        }
+        return ResponseEntity.ok(slaService.getPercentiles(metric, start, end, type, city));
+    }
+    
+    @GetMapping("/sla/sketches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> exportSlaSketches() {
+        return ResponseEntity.ok(slaService.exportSketches());
+    }
+    
+    @PostMapping("/sla/sketches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> mergeSlaSketches(@RequestParam String source,
+                                              @RequestBody List<Map<String, String>> sketches) {
+        if (source.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid sketch payload", "message", "'source' must not be blank"));
+        }
+        int stored;
+        try {
+            stored = slaService.replaceImportedSketches(source, sketches);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid sketch payload", "message", String.valueOf(e.getMessage())));
+        }
+        return ResponseEntity.ok(Map.of("message", "Stored " + stored + " sketches from " + source));
+    }
+}
@@ -6,6 +6,8 @@ import com.civic.civicissuesystem.dto.SignupRequest;
 import com.civic.civicissuesystem.entity.User;
 import com.civic.civicissuesystem.repository.UserRepository;
 import com.civic.civicissuesystem.security.JwtTokenProvider;
+import com.civic.civicissuesystem.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -36,6 +38,9 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
@@ -87,6 +92,20 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("message", "User registered successfully!"));
     }
     
+    // Revokes the token the request was made with; other sessions of the same user stay signed in
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authorization, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        Claims claims = jwtTokenProvider.validate(authorization.substring("Bearer ".length()));
+        try {
+            tokenRevocationService.revoke(claims, user.getId());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Logout failed", "message", e.getMessage()));
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+    
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
@@ -1,25 +1,45 @@
 package com.civic.civicissuesystem.controller;
 
+import com.civic.civicissuesystem.dto.BulkStatusUpdateRequest;
+import com.civic.civicissuesystem.dto.BulkStatusUpdateResult;
+import com.civic.civicissuesystem.dto.ComplaintCursor;
+import com.civic.civicissuesystem.dto.ComplaintFilter;
+import com.civic.civicissuesystem.dto.ComplaintPoint;
 import com.civic.civicissuesystem.dto.ComplaintRequest;
 import com.civic.civicissuesystem.dto.ComplaintResponse;
+import com.civic.civicissuesystem.dto.CursorPage;
 import com.civic.civicissuesystem.entity.*;
+import com.civic.civicissuesystem.geo.BoundingBox;
+import com.civic.civicissuesystem.service.ComplaintClusterService;
+import com.civic.civicissuesystem.service.ComplaintExportService;
 import com.civic.civicissuesystem.service.ComplaintService;
+import com.civic.civicissuesystem.service.ComplaintSpatialIndex;
+import com.civic.civicissuesystem.service.ComplaintStatisticsService;
+import com.civic.civicissuesystem.service.HeatmapService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -27,9 +47,34 @@ import java.util.stream.Collectors;
 @RequestMapping("/api")
 public class ComplaintController {
     
+    public static final String HEATMAP_TILE_MEDIA_TYPE = "application/vnd.civic.heatmap-tile";
+    
+    private static final int MAX_POINTS = 20000;
+    private static final double MAX_RADIUS_METERS = 50000;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    
     @Autowired
     private ComplaintService complaintService;
     
+    @Autowired
+    private HeatmapService heatmapService;
+    
+    @Autowired
+    private ComplaintSpatialIndex spatialIndex;
+    
+    @Autowired
+    private ComplaintClusterService clusterService;
+    
+    @Autowired
+    private ComplaintStatisticsService statisticsService;
+    
+    @Autowired
+    private ComplaintExportService exportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @PostMapping("/citizen/complaints")
     @PreAuthorize("hasRole('CITIZEN') or hasRole('ADMIN')")
     public ResponseEntity<?> createComplaint(@Valid @RequestBody ComplaintRequest complaintRequest,
@@ -63,6 +108,22 @@ public class ComplaintController {
         return ResponseEntity.ok(complaintResponses);
     }
     
+    @GetMapping("/citizen/complaints/cursor")
+    @PreAuthorize("hasRole('CITIZEN') or hasRole('ADMIN')")
+    public ResponseEntity<?> getMyComplaintsByCursor(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        try {
+            CursorPage<Complaint> complaints = complaintService.getComplaintsByUserAfter(
+                    user, parseCursor(cursor), cursorPageSize(size));
+            return ResponseEntity.ok(toResponsePage(complaints));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid cursor request", "message", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/citizen/complaints/{id}")
     @PreAuthorize("hasRole('CITIZEN') or hasRole('ADMIN')")
     public ResponseEntity<?> getComplaintById(@PathVariable Long id, Authentication authentication) {
@@ -84,22 +145,104 @@ public class ComplaintController {
     
     @GetMapping("/admin/complaints")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<ComplaintResponse>> getAllComplaints(
+    public ResponseEntity<?> getAllComplaints(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) ComplaintStatus status,
             @RequestParam(required = false) ComplaintType type,
-            @RequestParam(required = false) String city) {
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String bbox) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Complaint> complaints = complaintService.getAllComplaints(pageable);
-        Page<ComplaintResponse> complaintResponses = complaints.map(ComplaintResponse::new);
-        return ResponseEntity.ok(complaintResponses);
+        try {
+            ComplaintFilter filter = buildFilter(status, type, city, from, to, bbox);
+            Page<Complaint> complaints = complaintService.getAllComplaints(filter, pageable);
+            Page<ComplaintResponse> complaintResponses = complaints.map(ComplaintResponse::new);
+            return ResponseEntity.ok(complaintResponses);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid filter", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/admin/complaints/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAllComplaintsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) ComplaintStatus status,
+            @RequestParam(required = false) ComplaintType type,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String bbox) {
+        try {
+            ComplaintFilter filter = buildFilter(status, type, city, from, to, bbox);
+            CursorPage<Complaint> complaints = complaintService.getComplaintsAfter(
+                    filter, parseCursor(cursor), cursorPageSize(size));
+            return ResponseEntity.ok(toResponsePage(complaints));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid cursor request", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/admin/complaints/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportComplaints(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) ComplaintStatus status,
+            @RequestParam(required = false) ComplaintType type,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String bbox) {
+        ComplaintExportService.Format exportFormat;
+        ComplaintFilter filter;
+        try {
+            exportFormat = ComplaintExportService.Format.valueOf(format.toUpperCase());
+            filter = buildFilter(status, type, city, from, to, bbox);
+        } catch (IllegalArgumentException e) {
+            // The handler only streams when the declared body type is StreamingResponseBody, so the
+            // error map is streamed as JSON too
+            Map<String, String> error = Map.of("error", "Invalid export request", "message", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+        
+        StreamingResponseBody body = out -> exportService.export(filter, exportFormat, out);
+        String filename = "complaints-" + LocalDate.now() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+    
+    @GetMapping("/admin/complaints/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchComplaints(@RequestParam String q,
+                                              @RequestParam(required = false) ComplaintStatus status,
+                                              @RequestParam(required = false) ComplaintType type,
+                                              @RequestParam(required = false) String city,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid search", "message", "Query must not be empty"));
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid search", "message", "Limit must be between 1 and " + MAX_SEARCH_RESULTS));
+        }
+        ComplaintFilter filter = buildFilter(status, type, city, null, null, null);
+        return ResponseEntity.ok(complaintService.searchComplaints(q, filter, limit));
     }
     
     @PutMapping("/admin/complaints/{id}/status")
@@ -119,6 +262,15 @@ public class ComplaintController {
         return ResponseEntity.ok(response);
     }
     
+    @PutMapping("/admin/complaints/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkStatusUpdateResult> bulkUpdateStatus(@Valid @RequestBody BulkStatusUpdateRequest request,
+                                                                   Authentication authentication) {
+        User admin = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(complaintService.bulkUpdateStatus(
+                request.getComplaintIds(), request.getStatus(), request.getAdminNotes(), admin));
+    }
+    
     @GetMapping("/public/complaints/heatmap")
     public ResponseEntity<List<ComplaintResponse>> getComplaintsForHeatmap() {
         List<Complaint> complaints = complaintService.getUnresolvedComplaintsWithLocation();
@@ -128,23 +280,142 @@ public class ComplaintController {
         return ResponseEntity.ok(complaintResponses);
     }
     
+    @GetMapping("/public/complaints/heatmap/grid")
+    public ResponseEntity<?> getHeatmapGrid(@RequestParam String bbox,
+                                            @RequestParam(required = false) Integer zoom,
+                                            @RequestParam(required = false) Double cellSize) {
+        try {
+            if (zoom == null && cellSize == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Invalid grid request", "message", "Either zoom or cellSize is required"));
+            }
+            double size = cellSize != null ? cellSize : HeatmapService.cellSizeForZoom(zoom);
+            return ResponseEntity.ok(heatmapService.aggregateGrid(BoundingBox.parse(bbox), size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid grid request", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/public/complaints/heatmap/tiles/{z}/{x}/{y}", produces = HEATMAP_TILE_MEDIA_TYPE)
+    public ResponseEntity<?> getHeatmapTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic())
+                    .contentType(MediaType.parseMediaType(HEATMAP_TILE_MEDIA_TYPE))
+                    .body(heatmapService.encodeTile(z, x, y));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        }
+    }
+    
+    @GetMapping(value = "/public/complaints/heatmap/tiles/{z}/{x}/{y}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getHeatmapTileJson(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic())
+                    .body(heatmapService.getTilePoints(z, x, y, MAX_POINTS));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid tile", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/public/complaints/clusters")
+    public ResponseEntity<?> getComplaintClusters(@RequestParam String bbox, @RequestParam int zoom) {
+        try {
+            return ResponseEntity.ok(clusterService.getClusters(BoundingBox.parse(bbox), zoom));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid cluster request", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/public/complaints/within")
+    public ResponseEntity<?> getComplaintsWithin(@RequestParam String bbox,
+                                                 @RequestParam(defaultValue = "false") boolean includeResolved,
+                                                 @RequestParam(defaultValue = "5000") int limit) {
+        try {
+            List<ComplaintPoint> points = spatialIndex.findWithin(BoundingBox.parse(bbox), includeResolved,
+                    Math.min(Math.max(limit, 1), MAX_POINTS));
+            return ResponseEntity.ok(points);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid bounding box", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/public/complaints/nearby")
+    public ResponseEntity<?> getComplaintsNearby(@RequestParam double lat,
+                                                 @RequestParam double lon,
+                                                 @RequestParam(defaultValue = "1000") double radiusM,
+                                                 @RequestParam(defaultValue = "false") boolean includeResolved,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180 || radiusM <= 0 || radiusM > MAX_RADIUS_METERS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid nearby request",
+                            "message", "lat/lon must be valid coordinates and radiusM between 0 and " + MAX_RADIUS_METERS));
+        }
+        List<ComplaintPoint> points = spatialIndex.findNearby(lat, lon, radiusM, includeResolved,
+                Math.min(Math.max(limit, 1), MAX_POINTS));
+        return ResponseEntity.ok(points);
+    }
+    
     @GetMapping("/public/complaints/stats")
     public ResponseEntity<Map<String, Object>> getComplaintStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        stats.put("totalComplaints", complaintService.getComplaintCountByStatus(ComplaintStatus.PENDING) +
-                complaintService.getComplaintCountByStatus(ComplaintStatus.IN_PROGRESS) +
-                complaintService.getComplaintCountByStatus(ComplaintStatus.RESOLVED));
-        
-        stats.put("pendingComplaints", complaintService.getComplaintCountByStatus(ComplaintStatus.PENDING));
-        stats.put("inProgressComplaints", complaintService.getComplaintCountByStatus(ComplaintStatus.IN_PROGRESS));
-        stats.put("resolvedComplaints", complaintService.getComplaintCountByStatus(ComplaintStatus.RESOLVED));
+        stats.put("totalComplaints", statisticsService.getTotal());
+        stats.put("pendingComplaints", statisticsService.getCount(ComplaintStatus.PENDING));
+        stats.put("inProgressComplaints", statisticsService.getCount(ComplaintStatus.IN_PROGRESS));
+        stats.put("resolvedComplaints", statisticsService.getCount(ComplaintStatus.RESOLVED));
+        stats.put("rejectedComplaints", statisticsService.getCount(ComplaintStatus.REJECTED));
+        stats.put("byType", statisticsService.getCountsByType());
         
         return ResponseEntity.ok(stats);
     }
     
+    @GetMapping("/public/complaints/stats/cities")
+    public ResponseEntity<Map<String, Long>> getComplaintStatsByCity() {
+        return ResponseEntity.ok(statisticsService.getCountsByCity());
+    }
+    
     @GetMapping("/public/complaints/types")
     public ResponseEntity<ComplaintType[]> getComplaintTypes() {
         return ResponseEntity.ok(ComplaintType.values());
     }
+    
+    // from and to are whole days; to is inclusive, so the range ends at the start of the next day
+    private static ComplaintFilter buildFilter(ComplaintStatus status, ComplaintType type, String city,
+                                               LocalDate from, LocalDate to, String bbox) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setStatus(status);
+        filter.setType(type);
+        filter.setCity(city);
+        filter.setCreatedFrom(from != null ? from.atStartOfDay() : null);
+        filter.setCreatedTo(to != null ? to.plusDays(1).atStartOfDay() : null);
+        filter.setBbox(bbox != null && !bbox.isBlank() ? BoundingBox.parse(bbox) : null);
+        return filter;
+    }
+    
+    private static ComplaintCursor parseCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : ComplaintCursor.decode(cursor);
+    }
+    
+    private static int cursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return size;
+    }
+    
+    private static CursorPage<ComplaintResponse> toResponsePage(CursorPage<Complaint> complaints) {
+        List<ComplaintResponse> content = complaints.getContent().stream()
+                .map(ComplaintResponse::new)
+                .collect(Collectors.toList());
+        return new CursorPage<>(content, complaints.getNextCursor());
+    }
 }
@@ -1,67 +1,76 @@
 package com.civic.civicissuesystem.controller;
 
+import com.civic.civicissuesystem.service.FileUploadService;
+import com.civic.civicissuesystem.upload.MalformedMultipartException;
+import com.civic.civicissuesystem.upload.StoredUpload;
+import com.civic.civicissuesystem.upload.UploadRejectedException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000")
 public class FileUploadController {
 
-    private static final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private FileUploadService fileUploadService;
     
+    // Takes the multipart body straight from the request, as a form with a single "file" field;
+    // see FileUploadService for the limits
     @PostMapping("/upload")
     @PreAuthorize("hasRole('CITIZEN') or hasRole('ADMIN')")
-    public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadFile(HttpServletRequest request) {
         try {
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body("File is empty");
-            }
-
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-            // Save file
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return file URL (for now, return a placeholder URL)
-            // In a real application, you would upload to cloud storage (AWS S3, Google Cloud Storage, etc.)
-            String fileUrl = "http://localhost:8080/uploads/" + uniqueFilename;
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("fileUrl", fileUrl);
-            response.put("fileName", uniqueFilename);
-            response.put("originalFilename", originalFilename);
-            response.put("fileSize", file.getSize());
-            response.put("message", "File uploaded successfully");
-
-            return ResponseEntity.ok(response);
+            StoredUpload upload = fileUploadService.store(request.getInputStream(),
+                    request.getContentType(), request.getContentLengthLong());
+            return ResponseEntity.ok(toResponse(upload));
 
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(Map.of("error", "Upload rejected", "message", e.getMessage()));
+        } catch (MalformedMultipartException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Malformed upload", "message", e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body("Failed to upload file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    // Clients hash the file first and only upload it when this returns 404
+    @GetMapping("/upload/{sha256}")
+    @PreAuthorize("hasRole('CITIZEN') or hasRole('ADMIN')")
+    public ResponseEntity<?> findUpload(@PathVariable String sha256) {
+        try {
+            return fileUploadService.findExisting(sha256)
+                    .<ResponseEntity<?>>map(upload -> ResponseEntity.ok(toResponse(upload)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid hash", "message", e.getMessage()));
+        }
+    }
+    
+    private static Map<String, Object> toResponse(StoredUpload upload) {
+        String fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(upload.getPath()).toUriString();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileUrl", fileUrl);
+        response.put("fileName", upload.getFileName());
+        response.put("originalFilename", upload.getOriginalFilename());
+        response.put("fileSize", upload.getSize());
+        response.put("contentType", upload.getType().getMimeType());
+        response.put("sha256", upload.getHash());
+        response.put("duplicate", upload.isDuplicate());
+        response.put("message", upload.isDuplicate() ? "File already uploaded" : "File uploaded successfully");
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package com.civic.civicissuesystem.controller;
+
+import com.civic.civicissuesystem.entity.ImportJob;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.importer.ImportFormat;
+import com.civic.civicissuesystem.service.ComplaintImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin/imports")
+public class ImportController {
+    
+    @Autowired
+    private ComplaintImportService importService;
+    
+    // The file is sent as the raw request body (not multipart) so exports of any size can be
+    // uploaded without buffering, e.g. curl --data-binary @legacy.csv
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startImport(@RequestParam String fileName,
+                                         @RequestParam(required = false) ImportFormat format,
+                                         HttpServletRequest request,
+                                         Authentication authentication) {
+        try {
+            ImportFormat importFormat = format != null ? format : ImportFormat.fromFileName(fileName);
+            User admin = (User) authentication.getPrincipal();
+            ImportJob job = importService.startImport(request.getInputStream(), fileName, importFormat, admin);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid import", "message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Import upload failed", "message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ImportJob>> getJobs() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(importService.getJob(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> resumeJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.resume(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Cannot resume import", "message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
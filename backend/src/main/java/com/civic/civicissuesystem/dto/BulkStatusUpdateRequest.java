@@ -0,0 +1,50 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkStatusUpdateRequest {
+    
+    public static final int MAX_IDS = 1000;
+    
+    @NotEmpty(message = "At least one complaint id is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " complaints can be updated at once")
+    private List<@NotNull Long> complaintIds;
+    
+    @NotNull(message = "Status is required")
+    private ComplaintStatus status;
+    
+    private String adminNotes;
+    
+    // Constructors
+    public BulkStatusUpdateRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getComplaintIds() {
+        return complaintIds;
+    }
+    
+    public void setComplaintIds(List<Long> complaintIds) {
+        this.complaintIds = complaintIds;
+    }
+    
+    public ComplaintStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ComplaintStatus status) {
+        this.status = status;
+    }
+    
+    public String getAdminNotes() {
+        return adminNotes;
+    }
+    
+    public void setAdminNotes(String adminNotes) {
+        this.adminNotes = adminNotes;
+    }
+}
@@ -0,0 +1,55 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+
+import java.util.List;
+
+// Outcome of a bulk status change, one item per requested id in request order
+public class BulkStatusUpdateResult {
+    
+    public enum Outcome { UPDATED, UNCHANGED, NOT_FOUND }
+    
+    private final ComplaintStatus status;
+    private final List<Item> results;
+    private final int updated;
+    private final int unchanged;
+    private final int notFound;
+    
+    public BulkStatusUpdateResult(ComplaintStatus status, List<Item> results) {
+        this.status = status;
+        this.results = results;
+        int updated = 0, unchanged = 0, notFound = 0;
+        for (Item item : results) {
+            switch (item.getOutcome()) {
+                case UPDATED -> updated++;
+                case UNCHANGED -> unchanged++;
+                case NOT_FOUND -> notFound++;
+            }
+        }
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.notFound = notFound;
+    }
+    
+    public ComplaintStatus getStatus() { return status; }
+    public List<Item> getResults() { return results; }
+    public int getUpdated() { return updated; }
+    public int getUnchanged() { return unchanged; }
+    public int getNotFound() { return notFound; }
+    
+    public static class Item {
+        private final Long complaintId;
+        private final Outcome outcome;
+        private final ComplaintStatus previousStatus;
+        
+        public Item(Long complaintId, Outcome outcome, ComplaintStatus previousStatus) {
+            this.complaintId = complaintId;
+            this.outcome = outcome;
+            this.previousStatus = previousStatus;
+        }
+        
+        public Long getComplaintId() { return complaintId; }
+        public Outcome getOutcome() { return outcome; }
+        public ComplaintStatus getPreviousStatus() { return previousStatus; }
+    }
+}
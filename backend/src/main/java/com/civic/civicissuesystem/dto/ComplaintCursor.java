@@ -0,0 +1,48 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.Complaint;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in the (createdAt DESC, id DESC) ordering of complaints. The token handed to clients is
+// a URL-safe base64 of "<createdAt>|<id>" and should be treated as opaque.
+public class ComplaintCursor {
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    public ComplaintCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+    
+    public static ComplaintCursor after(Complaint complaint) {
+        return new ComplaintCursor(complaint.getCreatedAt(), complaint.getId());
+    }
+    
+    public static ComplaintCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ComplaintCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getId() { return id; }
+}
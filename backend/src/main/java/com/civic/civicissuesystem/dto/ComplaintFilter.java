@@ -0,0 +1,39 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.geo.BoundingBox;
+
+import java.time.LocalDateTime;
+
+// Optional criteria for the admin complaint list. Unset fields do not restrict the result.
+// createdFrom is inclusive and createdTo is exclusive.
+public class ComplaintFilter {
+    
+    private ComplaintStatus status;
+    private ComplaintType type;
+    private String city;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private BoundingBox bbox;
+    
+    public ComplaintFilter() {}
+    
+    public ComplaintStatus getStatus() { return status; }
+    public void setStatus(ComplaintStatus status) { this.status = status; }
+    
+    public ComplaintType getType() { return type; }
+    public void setType(ComplaintType type) { this.type = type; }
+    
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDateTime createdFrom) { this.createdFrom = createdFrom; }
+    
+    public LocalDateTime getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDateTime createdTo) { this.createdTo = createdTo; }
+    
+    public BoundingBox getBbox() { return bbox; }
+    public void setBbox(BoundingBox bbox) { this.bbox = bbox; }
+}
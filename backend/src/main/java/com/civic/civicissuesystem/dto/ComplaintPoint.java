@@ -0,0 +1,38 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Minimal located view of a complaint, selected by constructor expression so no entity is hydrated
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ComplaintPoint {
+    
+    private final Long id;
+    private final Double latitude;
+    private final Double longitude;
+    private final ComplaintType type;
+    private final ComplaintStatus status;
+    private final Double distanceMeters;
+    
+    public ComplaintPoint(Long id, Double latitude, Double longitude, ComplaintType type, ComplaintStatus status) {
+        this(id, latitude, longitude, type, status, null);
+    }
+    
+    public ComplaintPoint(Long id, Double latitude, Double longitude, ComplaintType type, ComplaintStatus status,
+                          Double distanceMeters) {
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.type = type;
+        this.status = status;
+        this.distanceMeters = distanceMeters;
+    }
+    
+    public Long getId() { return id; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public ComplaintType getType() { return type; }
+    public ComplaintStatus getStatus() { return status; }
+    public Double getDistanceMeters() { return distanceMeters; }
+}
@@ -4,6 +4,7 @@ import com.civic.civicissuesystem.entity.Complaint;
 import com.civic.civicissuesystem.entity.ComplaintStatus;
 import com.civic.civicissuesystem.entity.ComplaintType;
 import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.timing.RequestTiming;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +34,7 @@ public class ComplaintResponse {
     public ComplaintResponse() {}
     
     public ComplaintResponse(Complaint complaint) {
+        long started = RequestTiming.begin();
         this.id = complaint.getId();
         this.title = complaint.getTitle();
         this.description = complaint.getDescription();
@@ -62,6 +64,7 @@ public class ComplaintResponse {
                 .map(ComplaintUpdateResponse::new)
                 .toList();
         }
+        RequestTiming.end(RequestTiming.Stage.MAPPING, started);
     }
     
     // Inner class for user info
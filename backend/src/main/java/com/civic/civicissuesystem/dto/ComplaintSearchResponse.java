@@ -0,0 +1,37 @@
+package com.civic.civicissuesystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class ComplaintSearchResponse {
+    
+    private final String query;
+    private final long totalMatches;
+    private final List<Hit> results;
+    
+    public ComplaintSearchResponse(String query, long totalMatches, List<Hit> results) {
+        this.query = query;
+        this.totalMatches = totalMatches;
+        this.results = results;
+    }
+    
+    public String getQuery() { return query; }
+    public long getTotalMatches() { return totalMatches; }
+    public List<Hit> getResults() { return results; }
+    
+    // score is absent when the search index was still loading and a plain substring match was used
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Hit {
+        private final Double score;
+        private final ComplaintResponse complaint;
+        
+        public Hit(Double score, ComplaintResponse complaint) {
+            this.score = score;
+            this.complaint = complaint;
+        }
+        
+        public Double getScore() { return score; }
+        public ComplaintResponse getComplaint() { return complaint; }
+    }
+}
@@ -0,0 +1,22 @@
+package com.civic.civicissuesystem.dto;
+
+import java.util.List;
+
+// One slice of a keyset-paginated list. nextCursor is opaque to clients and is null on the last slice.
+public class CursorPage<T> {
+    
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasMore;
+    
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+    
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public int getSize() { return content.size(); }
+}
@@ -0,0 +1,65 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+
+import java.util.List;
+import java.util.Map;
+
+public class HeatmapGridResponse {
+    
+    private String bbox;
+    private double cellSize;
+    private long totalCount;
+    private List<Cell> cells;
+    
+    // Constructors
+    public HeatmapGridResponse() {}
+    
+    public HeatmapGridResponse(String bbox, double cellSize, long totalCount, List<Cell> cells) {
+        this.bbox = bbox;
+        this.cellSize = cellSize;
+        this.totalCount = totalCount;
+        this.cells = cells;
+    }
+    
+    // Inner class for a single aggregated grid cell
+    public static class Cell {
+        private double latitude;
+        private double longitude;
+        private int count;
+        private Map<ComplaintType, Integer> byType;
+        private Map<ComplaintStatus, Integer> byStatus;
+        
+        public Cell(double latitude, double longitude, int count,
+                    Map<ComplaintType, Integer> byType, Map<ComplaintStatus, Integer> byStatus) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.count = count;
+            this.byType = byType;
+            this.byStatus = byStatus;
+        }
+        
+        // Getters and setters
+        public double getLatitude() { return latitude; }
+        public void setLatitude(double latitude) { this.latitude = latitude; }
+        public double getLongitude() { return longitude; }
+        public void setLongitude(double longitude) { this.longitude = longitude; }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public Map<ComplaintType, Integer> getByType() { return byType; }
+        public void setByType(Map<ComplaintType, Integer> byType) { this.byType = byType; }
+        public Map<ComplaintStatus, Integer> getByStatus() { return byStatus; }
+        public void setByStatus(Map<ComplaintStatus, Integer> byStatus) { this.byStatus = byStatus; }
+    }
+    
+    // Getters and Setters
+    public String getBbox() { return bbox; }
+    public void setBbox(String bbox) { this.bbox = bbox; }
+    public double getCellSize() { return cellSize; }
+    public void setCellSize(double cellSize) { this.cellSize = cellSize; }
+    public long getTotalCount() { return totalCount; }
+    public void setTotalCount(long totalCount) { this.totalCount = totalCount; }
+    public List<Cell> getCells() { return cells; }
+    public void setCells(List<Cell> cells) { this.cells = cells; }
+}
@@ -0,0 +1,35 @@
+package com.civic.civicissuesystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MapCluster {
+    
+    private final Long id;
+    private final double latitude;
+    private final double longitude;
+    private final int count;
+    private final boolean cluster;
+    
+    private MapCluster(Long id, double latitude, double longitude, int count, boolean cluster) {
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.count = count;
+        this.cluster = cluster;
+    }
+    
+    public static MapCluster ofCluster(double latitude, double longitude, int count) {
+        return new MapCluster(null, latitude, longitude, count, true);
+    }
+    
+    public static MapCluster ofPoint(long id, double latitude, double longitude) {
+        return new MapCluster(id, latitude, longitude, 1, false);
+    }
+    
+    public Long getId() { return id; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public int getCount() { return count; }
+    public boolean isCluster() { return cluster; }
+}
@@ -0,0 +1,33 @@
+package com.civic.civicissuesystem.dto;
+
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimeSeriesPoint {
+    
+    private final LocalDate period;
+    private final ComplaintType type;
+    private final String city;
+    private long created;
+    private long resolved;
+    
+    public TimeSeriesPoint(LocalDate period, ComplaintType type, String city) {
+        this.period = period;
+        this.type = type;
+        this.city = city;
+    }
+    
+    public void add(long created, long resolved) {
+        this.created += created;
+        this.resolved += resolved;
+    }
+    
+    public LocalDate getPeriod() { return period; }
+    public ComplaintType getType() { return type; }
+    public String getCity() { return city; }
+    public long getCreated() { return created; }
+    public long getResolved() { return resolved; }
+}
@@ -10,11 +10,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "complaints")
+@Table(name = "complaints", indexes = {
+    @Index(name = "idx_complaints_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_complaints_user_created_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_complaints_status_created", columnList = "status, created_at"),
+    @Index(name = "idx_complaints_type_created", columnList = "type, created_at"),
+    @Index(name = "idx_complaints_city_created", columnList = "city, created_at"),
+    @Index(name = "idx_complaints_lat_lon", columnList = "latitude, longitude")
+})
 public class Complaint {
     
+    // Sequence ids handed out in blocks of 50 let Hibernate batch inserts, which IDENTITY prevents.
+    // IdSequenceAligner moves the sequences past ids issued before the switch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaints_seq")
+    @SequenceGenerator(name = "complaints_seq", sequenceName = "complaints_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -75,10 +85,15 @@ public class Complaint {
     @OneToMany(mappedBy = "complaint", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ComplaintUpdate> updates = new ArrayList<>();
     
+    // Imported legacy complaints arrive with their original timestamps, which must be kept
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
     }
     
     @PreUpdate
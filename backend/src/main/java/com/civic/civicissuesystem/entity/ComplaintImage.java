@@ -6,11 +6,14 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "complaint_images")
+@Table(name = "complaint_images", indexes = {
+    @Index(name = "idx_complaint_images_blob_hash", columnList = "blob_hash")
+})
 public class ComplaintImage {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaint_images_seq")
+    @SequenceGenerator(name = "complaint_images_seq", sequenceName = "complaint_images_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Image URL is required")
@@ -23,6 +26,11 @@ public class ComplaintImage {
     @Column(name = "file_size")
     private Long fileSize;
     
+    // SHA-256 of the StoredBlob behind imageUrl; null for images stored before content addressing
+    // and for external URLs
+    @Column(name = "blob_hash", length = 64)
+    private String blobHash;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "complaint_id", nullable = false)
     private Complaint complaint;
@@ -77,6 +85,14 @@ public class ComplaintImage {
         this.fileSize = fileSize;
     }
     
+    public String getBlobHash() {
+        return blobHash;
+    }
+    
+    public void setBlobHash(String blobHash) {
+        this.blobHash = blobHash;
+    }
+    
     public Complaint getComplaint() {
         return complaint;
     }
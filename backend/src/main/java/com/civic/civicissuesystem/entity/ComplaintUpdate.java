@@ -6,11 +6,14 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "complaint_updates")
+@Table(name = "complaint_updates", indexes = {
+    @Index(name = "idx_complaint_updates_complaint_created", columnList = "complaint_id, created_at")
+})
 public class ComplaintUpdate {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaint_updates_seq")
+    @SequenceGenerator(name = "complaint_updates_seq", sequenceName = "complaint_updates_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Update message is required")
@@ -38,7 +41,9 @@ public class ComplaintUpdate {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
     
     // Constructors
@@ -0,0 +1,120 @@
+package com.civic.civicissuesystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// An email waiting to be delivered. Rows are written in the same transaction as the change that
+// caused them and delivered later by EmailOutboxDispatcher, possibly merged with other rows for
+// the same recipient into one digest. nextAttemptAt doubles as the claim lease while a row is
+// SENDING, so rows held by a crashed worker become due again on their own.
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_recipient_status", columnList = "recipient, status"),
+    @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token")
+})
+public class EmailOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    @Column(nullable = false)
+    private String subject;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+    
+    // HTML fragment sent as the alternative part, wrapped in the layout at send time
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+    
+    @Column(name = "complaint_id")
+    private Long complaintId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    // Identifies the rows taken by one claim, so they can be read back and sent together
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+    
+    // Constructors
+    public EmailOutbox() {}
+    
+    public EmailOutbox(String recipient, String subject, String body, Long complaintId) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.complaintId = complaintId;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    
+    public String getHtmlBody() { return htmlBody; }
+    public void setHtmlBody(String htmlBody) { this.htmlBody = htmlBody; }
+    
+    public Long getComplaintId() { return complaintId; }
+    public void setComplaintId(Long complaintId) { this.complaintId = complaintId; }
+    
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+}
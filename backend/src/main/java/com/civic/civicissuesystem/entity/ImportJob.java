@@ -0,0 +1,115 @@
+package com.civic.civicissuesystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A bulk import of legacy complaints. processedRecords is advanced in the same transaction as
+// each written batch, so an interrupted job resumes right after the last committed record.
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "stored_path", nullable = false)
+    private String storedPath;
+    
+    @Column(nullable = false)
+    private String format;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportJobStatus status = ImportJobStatus.RUNNING;
+    
+    // Complaints without a known reporter email are owned by this user
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    
+    @Column(name = "processed_records")
+    private long processedRecords;
+    
+    @Column(name = "imported_count")
+    private long importedCount;
+    
+    @Column(name = "rejected_count")
+    private long rejectedCount;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public ImportJob() {}
+    
+    public ImportJob(String fileName, String storedPath, String format, Long ownerId) {
+        this.fileName = fileName;
+        this.storedPath = storedPath;
+        this.format = format;
+        this.ownerId = ownerId;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    
+    public String getStoredPath() { return storedPath; }
+    public void setStoredPath(String storedPath) { this.storedPath = storedPath; }
+    
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+    
+    public ImportJobStatus getStatus() { return status; }
+    public void setStatus(ImportJobStatus status) { this.status = status; }
+    
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+    
+    public long getProcessedRecords() { return processedRecords; }
+    public void setProcessedRecords(long processedRecords) { this.processedRecords = processedRecords; }
+    
+    public long getImportedCount() { return importedCount; }
+    public void setImportedCount(long importedCount) { this.importedCount = importedCount; }
+    
+    public long getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(long rejectedCount) { this.rejectedCount = rejectedCount; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,8 @@
+package com.civic.civicissuesystem.entity;
+
+public enum ImportJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    INTERRUPTED
+}
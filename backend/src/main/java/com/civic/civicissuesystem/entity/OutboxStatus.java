@@ -0,0 +1,8 @@
+package com.civic.civicissuesystem.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
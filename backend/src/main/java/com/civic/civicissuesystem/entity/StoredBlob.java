@@ -0,0 +1,74 @@
+package com.civic.civicissuesystem.entity;
+
+import com.civic.civicissuesystem.upload.ImageType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// An uploaded image, stored once per distinct content under its SHA-256 (see
+// ContentAddressedStore). refCount is the number of ComplaintImage rows pointing at it; blobs
+// that are still unreferenced a while after their last upload are swept by FileUploadService.
+@Entity
+@Table(name = "stored_blobs", indexes = {
+    @Index(name = "idx_stored_blobs_unreferenced", columnList = "ref_count, last_uploaded_at")
+})
+public class StoredBlob {
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ImageType type;
+    
+    @Column(nullable = false)
+    private Long size;
+    
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "last_uploaded_at", nullable = false)
+    private LocalDateTime lastUploadedAt;
+    
+    public StoredBlob() {}
+    
+    public StoredBlob(String hash, ImageType type, long size) {
+        this.hash = hash;
+        this.type = type;
+        this.size = size;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        lastUploadedAt = createdAt;
+    }
+    
+    public String getHash() {
+        return hash;
+    }
+    
+    public ImageType getType() {
+        return type;
+    }
+    
+    public Long getSize() {
+        return size;
+    }
+    
+    public int getRefCount() {
+        return refCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getLastUploadedAt() {
+        return lastUploadedAt;
+    }
+}
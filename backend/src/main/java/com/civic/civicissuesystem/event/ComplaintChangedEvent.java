@@ -0,0 +1,105 @@
+package com.civic.civicissuesystem.event;
+
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+
+import java.time.LocalDateTime;
+
+// Immutable snapshot of a complaint taken when it is created or changes status. Listeners run
+// after commit, so they must only rely on these copied values and never on the managed entity.
+public class ComplaintChangedEvent {
+    
+    private final Long complaintId;
+    private final String title;
+    private final String description;
+    private final String address;
+    private final String adminNotes;
+    private final String reporterName;
+    private final String reporterEmail;
+    private final ComplaintType type;
+    private final ComplaintStatus previousStatus;
+    private final ComplaintStatus status;
+    private final String city;
+    private final Double latitude;
+    private final Double longitude;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime changedAt;
+    private final LocalDateTime resolvedAt;
+    private final LocalDateTime previousStatusSince;
+    private final boolean notifyReporter;
+    
+    private ComplaintChangedEvent(Complaint complaint, ComplaintStatus previousStatus, LocalDateTime changedAt,
+                                  LocalDateTime previousStatusSince, boolean notifyReporter) {
+        this.complaintId = complaint.getId();
+        this.title = complaint.getTitle();
+        this.description = complaint.getDescription();
+        this.address = complaint.getAddress();
+        this.adminNotes = complaint.getAdminNotes();
+        this.reporterName = notifyReporter ? complaint.getUser().getName() : null;
+        this.reporterEmail = notifyReporter ? complaint.getUser().getEmail() : null;
+        this.type = complaint.getType();
+        this.previousStatus = previousStatus;
+        this.status = complaint.getStatus();
+        this.city = complaint.getCity();
+        this.latitude = complaint.getLatitude();
+        this.longitude = complaint.getLongitude();
+        this.createdAt = complaint.getCreatedAt();
+        this.changedAt = changedAt;
+        this.resolvedAt = complaint.getResolvedAt();
+        this.previousStatusSince = previousStatusSince;
+        this.notifyReporter = notifyReporter;
+    }
+    
+    public static ComplaintChangedEvent created(Complaint complaint) {
+        return new ComplaintChangedEvent(complaint, null, complaint.getCreatedAt(), null, true);
+    }
+    
+    // Legacy complaints loaded in bulk; their reporters are not emailed
+    public static ComplaintChangedEvent imported(Complaint complaint) {
+        return new ComplaintChangedEvent(complaint, null, complaint.getCreatedAt(), null, false);
+    }
+    
+    // previousStatusSince is when the complaint entered previousStatus, used for time-in-status metrics
+    public static ComplaintChangedEvent statusChanged(Complaint complaint, ComplaintStatus previousStatus,
+                                                      LocalDateTime previousStatusSince, LocalDateTime changedAt) {
+        return new ComplaintChangedEvent(complaint, previousStatus, changedAt, previousStatusSince, true);
+    }
+    
+    public boolean isCreation() {
+        return previousStatus == null;
+    }
+    
+    // resolvedAt keeps the first resolution when a complaint is reopened and resolved again, and the
+    // analytics rebuilds count that one, so only the change that set it counts as a resolution
+    public boolean isFirstResolution() {
+        return !isCreation() && status == ComplaintStatus.RESOLVED && previousStatus != ComplaintStatus.RESOLVED
+                && resolvedAt != null && resolvedAt.equals(changedAt);
+    }
+    
+    public boolean isNotifyReporter() {
+        return notifyReporter;
+    }
+    
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+    
+    public Long getComplaintId() { return complaintId; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getAddress() { return address; }
+    public String getAdminNotes() { return adminNotes; }
+    public String getReporterName() { return reporterName; }
+    public String getReporterEmail() { return reporterEmail; }
+    public ComplaintType getType() { return type; }
+    public ComplaintStatus getPreviousStatus() { return previousStatus; }
+    public ComplaintStatus getStatus() { return status; }
+    public String getCity() { return city; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public LocalDateTime getResolvedAt() { return resolvedAt; }
+    public LocalDateTime getPreviousStatusSince() { return previousStatusSince; }
+}
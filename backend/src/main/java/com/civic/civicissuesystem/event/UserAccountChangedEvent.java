@@ -0,0 +1,37 @@
+package com.civic.civicissuesystem.event;
+
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+
+// Published when an account is enabled, disabled or given a different role. Anything that caches
+// a user's identity must drop its copy once the change has committed.
+public class UserAccountChangedEvent {
+    
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final boolean enabled;
+    
+    public UserAccountChangedEvent(User user) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.enabled = user.isEnabled();
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,71 @@
+package com.civic.civicissuesystem.geo;
+
+public class BoundingBox {
+    
+    private final double minLat;
+    private final double minLon;
+    private final double maxLat;
+    private final double maxLon;
+    
+    public BoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box minimum must not exceed maximum");
+        }
+        if (minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+            throw new IllegalArgumentException("Bounding box is outside valid coordinate range");
+        }
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.maxLat = maxLat;
+        this.maxLon = maxLon;
+    }
+    
+    // Parses "minLon,minLat,maxLon,maxLat" (the west,south,east,north order map libraries emit)
+    public static BoundingBox parse(String bbox) {
+        if (bbox == null) {
+            throw new IllegalArgumentException("Bounding box is required");
+        }
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Bounding box must be minLon,minLat,maxLon,maxLat");
+        }
+        try {
+            return new BoundingBox(
+                    Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[3].trim()),
+                    Double.parseDouble(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bounding box contains an invalid number: " + bbox);
+        }
+    }
+    
+    public static BoundingBox world() {
+        return new BoundingBox(-90, -180, 90, 180);
+    }
+    
+    public boolean contains(double lat, double lon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+    
+    public double getMinLat() {
+        return minLat;
+    }
+    
+    public double getMinLon() {
+        return minLon;
+    }
+    
+    public double getMaxLat() {
+        return maxLat;
+    }
+    
+    public double getMaxLon() {
+        return maxLon;
+    }
+    
+    @Override
+    public String toString() {
+        return minLon + "," + minLat + "," + maxLon + "," + maxLat;
+    }
+}
@@ -0,0 +1,151 @@
+package com.civic.civicissuesystem.geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Grid-based cluster pyramid in the spirit of supercluster: for every zoom level each point lands in
+// one cell roughly CELL_PIXELS wide on screen, and the cell keeps a running count, coordinate sum and
+// id sum. Because all three are plain sums, inserting or removing a point only touches one cell per
+// level instead of re-clustering. Not thread-safe; callers guard it with a lock.
+public class ClusterHierarchy {
+
+    public interface ClusterVisitor {
+        // id is only meaningful when count == 1, where the id sum is the id of the single member
+        void visit(double latitude, double longitude, int count, long id);
+    }
+
+    private static final int TILE_PIXELS = 256;
+    private static final int CELL_PIXELS = 64;
+    private static final int CELLS_PER_TILE = TILE_PIXELS / CELL_PIXELS;
+
+    private final int maxZoom;
+    private final List<Map<Long, Cluster>> levels;
+    private final Map<Long, double[]> positions = new HashMap<>();
+
+    public ClusterHierarchy(int maxZoom) {
+        if (maxZoom < 0 || maxZoom > 24) {
+            throw new IllegalArgumentException("Max zoom must be between 0 and 24");
+        }
+        this.maxZoom = maxZoom;
+        this.levels = new ArrayList<>(maxZoom + 1);
+        for (int z = 0; z <= maxZoom; z++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public boolean contains(long id) {
+        return positions.containsKey(id);
+    }
+
+    public void put(long id, double latitude, double longitude) {
+        remove(id);
+        double x = WebMercator.lonToX(longitude);
+        double y = WebMercator.latToY(latitude);
+        positions.put(id, new double[]{x, y});
+        for (int z = 0; z <= maxZoom; z++) {
+            levels.get(z).computeIfAbsent(cellKey(x, y, z), k -> new Cluster()).add(id, x, y);
+        }
+    }
+
+    public boolean remove(long id) {
+        double[] position = positions.remove(id);
+        if (position == null) {
+            return false;
+        }
+        for (int z = 0; z <= maxZoom; z++) {
+            long key = cellKey(position[0], position[1], z);
+            Cluster cluster = levels.get(z).get(key);
+            if (cluster != null && cluster.remove(id, position[0], position[1]) == 0) {
+                levels.get(z).remove(key);
+            }
+        }
+        return true;
+    }
+
+    public void forEachCluster(BoundingBox bbox, int zoom, ClusterVisitor visitor) {
+        int z = Math.max(0, Math.min(zoom, maxZoom));
+        Map<Long, Cluster> level = levels.get(z);
+        long cells = cellsAcross(z);
+
+        long minCellX = clampCell(WebMercator.lonToX(bbox.getMinLon()), cells);
+        long maxCellX = clampCell(WebMercator.lonToX(bbox.getMaxLon()), cells);
+        // y grows southwards, so the northern edge gives the smaller cell index
+        long minCellY = clampCell(WebMercator.latToY(bbox.getMaxLat()), cells);
+        long maxCellY = clampCell(WebMercator.latToY(bbox.getMinLat()), cells);
+        long cellsInBox = (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+
+        if (cellsInBox > level.size()) {
+            for (Map.Entry<Long, Cluster> entry : level.entrySet()) {
+                long key = entry.getKey();
+                long cellX = key >>> 32;
+                long cellY = key & 0xffffffffL;
+                if (cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY) {
+                    emit(entry.getValue(), visitor);
+                }
+            }
+            return;
+        }
+
+        for (long cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (long cellX = minCellX; cellX <= maxCellX; cellX++) {
+                Cluster cluster = level.get((cellX << 32) | cellY);
+                if (cluster != null) {
+                    emit(cluster, visitor);
+                }
+            }
+        }
+    }
+
+    private static void emit(Cluster cluster, ClusterVisitor visitor) {
+        visitor.visit(
+                WebMercator.yToLat(cluster.sumY / cluster.count),
+                WebMercator.xToLon(cluster.sumX / cluster.count),
+                cluster.count,
+                cluster.idSum);
+    }
+
+    private static long cellsAcross(int z) {
+        return (1L << z) * CELLS_PER_TILE;
+    }
+
+    private static long clampCell(double normalized, long cells) {
+        return Math.max(0, Math.min(cells - 1, (long) Math.floor(normalized * cells)));
+    }
+
+    private static long cellKey(double x, double y, int z) {
+        long cells = cellsAcross(z);
+        return (clampCell(x, cells) << 32) | clampCell(y, cells);
+    }
+
+    private static class Cluster {
+        int count;
+        double sumX;
+        double sumY;
+        long idSum;
+
+        void add(long id, double x, double y) {
+            count++;
+            sumX += x;
+            sumY += y;
+            idSum += id;
+        }
+
+        int remove(long id, double x, double y) {
+            count--;
+            sumX -= x;
+            sumY -= y;
+            idSum -= id;
+            return count;
+        }
+    }
+}
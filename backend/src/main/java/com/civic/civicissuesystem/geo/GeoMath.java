@@ -0,0 +1,30 @@
+package com.civic.civicissuesystem.geo;
+
+public final class GeoMath {
+    
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE_LAT = 111_320.0;
+    
+    private GeoMath() {}
+    
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+    
+    // Smallest box containing the circle; longitude span widens towards the poles
+    public static BoundingBox boundsAround(double lat, double lon, double radiusMeters) {
+        double dLat = radiusMeters / METERS_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(lat));
+        double dLon = cosLat < 1e-6 ? 180 : Math.min(180, dLat / cosLat);
+        return new BoundingBox(
+                Math.max(-90, lat - dLat),
+                Math.max(-180, lon - dLon),
+                Math.min(90, lat + dLat),
+                Math.min(180, lon + dLon));
+    }
+}
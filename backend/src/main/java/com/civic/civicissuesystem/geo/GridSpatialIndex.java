@@ -0,0 +1,191 @@
+package com.civic.civicissuesystem.geo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Uniform-grid bucket index over located points. Point data lives in parallel primitive arrays
+// addressed by slot, and each non-empty grid cell holds an int array of slots, so a bounding box
+// query only touches the cells it overlaps. Not thread-safe; callers guard it with a lock.
+public class GridSpatialIndex {
+
+    public interface PointVisitor {
+        void visit(long id, double latitude, double longitude, int typeOrdinal, int statusOrdinal);
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final double cellSize;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int highWaterMark;
+
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    public GridSpatialIndex(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    public int size() {
+        return slotById.size();
+    }
+
+    public boolean contains(long id) {
+        return slotById.containsKey(id);
+    }
+
+    public void put(long id, double latitude, double longitude, int typeOrdinal, int statusOrdinal) {
+        Integer existing = slotById.get(id);
+        if (existing != null) {
+            int slot = existing;
+            long oldCell = cellKey(latitudes[slot], longitudes[slot]);
+            long newCell = cellKey(latitude, longitude);
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+            types[slot] = (byte) typeOrdinal;
+            statuses[slot] = (byte) statusOrdinal;
+            if (oldCell != newCell) {
+                removeFromBucket(oldCell, slot);
+                addToBucket(newCell, slot);
+            }
+            return;
+        }
+
+        int slot = allocateSlot();
+        ids[slot] = id;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        types[slot] = (byte) typeOrdinal;
+        statuses[slot] = (byte) statusOrdinal;
+        slotById.put(id, slot);
+        addToBucket(cellKey(latitude, longitude), slot);
+    }
+
+    public boolean remove(long id) {
+        Integer existing = slotById.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        int slot = existing;
+        removeFromBucket(cellKey(latitudes[slot], longitudes[slot]), slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    public void forEachWithin(BoundingBox bbox, PointVisitor visitor) {
+        long minLatIndex = index(bbox.getMinLat());
+        long maxLatIndex = index(bbox.getMaxLat());
+        long minLonIndex = index(bbox.getMinLon());
+        long maxLonIndex = index(bbox.getMaxLon());
+        long cellsInBox = (maxLatIndex - minLatIndex + 1) * (maxLonIndex - minLonIndex + 1);
+
+        if (cellsInBox > buckets.size()) {
+            // Zoomed far out: walking the occupied buckets is cheaper than probing empty cells
+            for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+                long key = entry.getKey();
+                long latIndex = key >> 32;
+                long lonIndex = (int) key;
+                if (latIndex >= minLatIndex && latIndex <= maxLatIndex
+                        && lonIndex >= minLonIndex && lonIndex <= maxLonIndex) {
+                    visitBucket(entry.getValue(), bbox, visitor);
+                }
+            }
+            return;
+        }
+
+        for (long latIndex = minLatIndex; latIndex <= maxLatIndex; latIndex++) {
+            for (long lonIndex = minLonIndex; lonIndex <= maxLonIndex; lonIndex++) {
+                Bucket bucket = buckets.get(key(latIndex, lonIndex));
+                if (bucket != null) {
+                    visitBucket(bucket, bbox, visitor);
+                }
+            }
+        }
+    }
+
+    private void visitBucket(Bucket bucket, BoundingBox bbox, PointVisitor visitor) {
+        for (int i = 0; i < bucket.size; i++) {
+            int slot = bucket.slots[i];
+            double lat = latitudes[slot];
+            double lon = longitudes[slot];
+            if (bbox.contains(lat, lon)) {
+                visitor.visit(ids[slot], lat, lon, types[slot], statuses[slot]);
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWaterMark == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            types = Arrays.copyOf(types, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        return highWaterMark++;
+    }
+
+    private void addToBucket(long cell, int slot) {
+        buckets.computeIfAbsent(cell, k -> new Bucket()).add(slot);
+    }
+
+    private void removeFromBucket(long cell, int slot) {
+        Bucket bucket = buckets.get(cell);
+        if (bucket != null && bucket.remove(slot) && bucket.size == 0) {
+            buckets.remove(cell);
+        }
+    }
+
+    private long index(double degrees) {
+        return (long) Math.floor(degrees / cellSize);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private static long key(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private static class Bucket {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        // Order inside a bucket does not matter, so removal swaps the last slot into the hole
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.civic.civicissuesystem.geo;
+
+import java.util.Arrays;
+
+// Compact binary encoding for one z/x/y heatmap tile.
+//
+// Layout (all integers are unsigned LEB128 varints unless noted):
+//   'C' 'H' version(byte)
+//   z x y count
+//   count x { zigzag(dx) zigzag(dy) typeAndStatus(byte) }
+//
+// Coordinates are quantized to a TILE_EXTENT x TILE_EXTENT grid inside the tile and points are sorted
+// by (qy, qx), so consecutive deltas are small and usually fit in one or two bytes. The trailing byte
+// packs the ComplaintType ordinal in the high nibble and the ComplaintStatus ordinal in the low one.
+public final class HeatmapTileCodec {
+
+    public static final int TILE_EXTENT = 4096;
+    public static final byte VERSION = 1;
+
+    private HeatmapTileCodec() {}
+
+    public static class Tile {
+        private final int z;
+        private final int x;
+        private final int y;
+        private final int[] qx;
+        private final int[] qy;
+        private final int[] types;
+        private final int[] statuses;
+
+        public Tile(int z, int x, int y, int[] qx, int[] qy, int[] types, int[] statuses) {
+            this.z = z;
+            this.x = x;
+            this.y = y;
+            this.qx = qx;
+            this.qy = qy;
+            this.types = types;
+            this.statuses = statuses;
+        }
+
+        public int getZ() { return z; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int size() { return qx.length; }
+        public int getQx(int i) { return qx[i]; }
+        public int getQy(int i) { return qy[i]; }
+        public int getType(int i) { return types[i]; }
+        public int getStatus(int i) { return statuses[i]; }
+    }
+
+    // Collects points for one tile, quantizing as they arrive so no per-point objects are created
+    public static class Builder {
+        private final int z;
+        private final int x;
+        private final int y;
+        private final double scale;
+        private long[] keys = new long[256];
+        private int size;
+
+        public Builder(int z, int x, int y) {
+            this.z = z;
+            this.x = x;
+            this.y = y;
+            this.scale = (double) (1L << z);
+        }
+
+        public void add(double latitude, double longitude, int typeOrdinal, int statusOrdinal) {
+            int qx = quantize(WebMercator.lonToX(longitude) * scale - x);
+            int qy = quantize(WebMercator.latToY(latitude) * scale - y);
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            // Sort key (qy, qx) in the high bits, the attribute byte in the low ones
+            keys[size++] = ((long) qy << 32) | ((long) qx << 8) | ((typeOrdinal & 0x0f) << 4) | (statusOrdinal & 0x0f);
+        }
+
+        public byte[] encode() {
+            Arrays.sort(keys, 0, size);
+            Writer out = new Writer(16 + size * 4);
+            out.writeByte('C');
+            out.writeByte('H');
+            out.writeByte(VERSION);
+            out.writeVarint(z);
+            out.writeVarint(x);
+            out.writeVarint(y);
+            out.writeVarint(size);
+
+            int previousX = 0;
+            int previousY = 0;
+            for (int i = 0; i < size; i++) {
+                long key = keys[i];
+                int qy = (int) (key >>> 32);
+                int qx = (int) ((key >>> 8) & 0xffffff);
+                out.writeVarint(zigzag(qx - previousX));
+                out.writeVarint(zigzag(qy - previousY));
+                out.writeByte((int) (key & 0xff));
+                previousX = qx;
+                previousY = qy;
+            }
+            return out.toByteArray();
+        }
+
+        private static int quantize(double offsetInTile) {
+            int q = (int) Math.floor(offsetInTile * TILE_EXTENT);
+            return Math.max(0, Math.min(TILE_EXTENT - 1, q));
+        }
+    }
+
+    public static Tile decode(byte[] data) {
+        Reader in = new Reader(data);
+        if (in.readByte() != 'C' || in.readByte() != 'H') {
+            throw new IllegalArgumentException("Not a heatmap tile");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported heatmap tile version " + version);
+        }
+        int z = in.readVarint();
+        int x = in.readVarint();
+        int y = in.readVarint();
+        int count = in.readVarint();
+
+        int[] qx = new int[count];
+        int[] qy = new int[count];
+        int[] types = new int[count];
+        int[] statuses = new int[count];
+        int previousX = 0;
+        int previousY = 0;
+        for (int i = 0; i < count; i++) {
+            previousX += unzigzag(in.readVarint());
+            previousY += unzigzag(in.readVarint());
+            int attributes = in.readByte();
+            qx[i] = previousX;
+            qy[i] = previousY;
+            types[i] = attributes >>> 4;
+            statuses[i] = attributes & 0x0f;
+        }
+        return new Tile(z, x, y, qx, qy, types, statuses);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7f) != 0) {
+                buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated heatmap tile");
+            }
+            return data[position++] & 0xff;
+        }
+
+        int readVarint() {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in heatmap tile");
+        }
+    }
+}
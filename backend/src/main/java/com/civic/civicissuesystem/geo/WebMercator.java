@@ -0,0 +1,40 @@
+package com.civic.civicissuesystem.geo;
+
+// Spherical Web Mercator helpers working in normalized world coordinates, where x and y both run
+// from 0 to 1 across the map (x eastwards from -180, y southwards from the top edge)
+public final class WebMercator {
+    
+    public static final double MAX_LATITUDE = 85.0511287798;
+    
+    private WebMercator() {}
+    
+    public static double lonToX(double lon) {
+        return lon / 360.0 + 0.5;
+    }
+    
+    public static double latToY(double lat) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat));
+        double sin = Math.sin(Math.toRadians(clamped));
+        double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+        return Math.max(0, Math.min(1, y));
+    }
+    
+    public static double xToLon(double x) {
+        return (x - 0.5) * 360.0;
+    }
+    
+    public static double yToLat(double y) {
+        double y2 = (180 - y * 360) * Math.PI / 180;
+        return 360 * Math.atan(Math.exp(y2)) / Math.PI - 90;
+    }
+    
+    // Geographic bounds of slippy-map tile z/x/y
+    public static BoundingBox tileBounds(int z, int x, int y) {
+        double n = 1L << z;
+        return new BoundingBox(
+                yToLat((y + 1) / n),
+                xToLon(x / n),
+                yToLat(y / n),
+                xToLon((x + 1) / n));
+    }
+}
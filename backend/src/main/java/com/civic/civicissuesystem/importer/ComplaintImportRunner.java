@@ -0,0 +1,68 @@
+package com.civic.civicissuesystem.importer;
+
+import com.civic.civicissuesystem.entity.ImportJob;
+import com.civic.civicissuesystem.entity.ImportJobStatus;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.UserRepository;
+import com.civic.civicissuesystem.service.ComplaintImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+// Command-line import, e.g.
+//   java -jar civic-issue-system.jar --import.file=/data/legacy.csv --import.owner-email=admin@city.gov
+// Add --import.resume-job=<id> to continue an interrupted job instead of starting a new one.
+// The application exits when the import finishes.
+@Component
+@ConditionalOnProperty(name = "import.file")
+public class ComplaintImportRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintImportRunner.class);
+
+    @Value("${import.file}")
+    private String file;
+
+    @Value("${import.format:}")
+    private String format;
+
+    @Value("${import.owner-email:}")
+    private String ownerEmail;
+
+    @Value("${import.resume-job:}")
+    private String resumeJob;
+
+    @Autowired
+    private ComplaintImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Override
+    public void run(String... args) {
+        ImportJob job;
+        if (!resumeJob.isBlank()) {
+            job = importService.prepareResume(Long.parseLong(resumeJob));
+        } else {
+            User owner = userRepository.findByEmail(ownerEmail)
+                    .orElseThrow(() -> new IllegalArgumentException("import.owner-email must name an existing user"));
+            ImportFormat importFormat = format.isBlank() ? ImportFormat.fromFileName(file) : ImportFormat.valueOf(format.toUpperCase());
+            job = importService.createJob(Paths.get(file), importFormat, owner);
+        }
+
+        logger.info("Running import job {} from {}", job.getId(), job.getStoredPath());
+        ImportJob finished = importService.run(job.getId());
+        int exitCode = finished.getStatus() == ImportJobStatus.COMPLETED ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
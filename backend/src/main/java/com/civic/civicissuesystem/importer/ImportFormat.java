@@ -0,0 +1,26 @@
+package com.civic.civicissuesystem.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static ImportFormat fromFileName(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + fileName + "; pass format=CSV or format=NDJSON");
+    }
+
+    public RecordReader open(BufferedReader reader, ObjectMapper objectMapper) {
+        return this == CSV ? new CsvRecordReader(reader) : new NdjsonRecordReader(reader, objectMapper);
+    }
+}
@@ -0,0 +1,175 @@
+package com.civic.civicissuesystem.importer;
+
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintImage;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// A validated row from a legacy export. parse() does all checking up front, without touching
+// the database, so records can be validated in parallel before a batch is written.
+public class LegacyComplaintRecord {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private String title;
+    private String description;
+    private ComplaintType type;
+    private ComplaintStatus status;
+    private Double latitude;
+    private Double longitude;
+    private String address;
+    private String city;
+    private String state;
+    private String zipCode;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+    private String reporterEmail;
+    private String adminNotes;
+    private List<String> imageUrls;
+
+    public static LegacyComplaintRecord parse(Map<String, String> fields) {
+        LegacyComplaintRecord record = new LegacyComplaintRecord();
+        record.title = text(fields, "title", true);
+        record.description = trimmed(fields.get("description"));
+        if (record.description == null) {
+            throw new IllegalArgumentException("description is required");
+        }
+        record.type = enumValue(ComplaintType.class, fields, "type", null);
+        if (record.type == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        record.status = enumValue(ComplaintStatus.class, fields, "status", ComplaintStatus.PENDING);
+
+        record.latitude = coordinate(fields, "latitude", 90);
+        record.longitude = coordinate(fields, "longitude", 180);
+        if ((record.latitude == null) != (record.longitude == null)) {
+            throw new IllegalArgumentException("latitude and longitude must be given together");
+        }
+
+        record.address = text(fields, "address", false);
+        record.city = text(fields, "city", false);
+        record.state = text(fields, "state", false);
+        record.zipCode = text(fields, "zipCode", false);
+        record.createdAt = timestamp(fields, "createdAt");
+        record.resolvedAt = timestamp(fields, "resolvedAt");
+        if (record.status != ComplaintStatus.RESOLVED) {
+            record.resolvedAt = null;
+        } else if (record.resolvedAt == null) {
+            throw new IllegalArgumentException("resolvedAt is required for resolved complaints");
+        } else if (record.createdAt == null) {
+            // Without it the complaint would be stamped as created now, after its own resolution
+            throw new IllegalArgumentException("createdAt is required for resolved complaints");
+        } else if (record.resolvedAt.isBefore(record.createdAt)) {
+            throw new IllegalArgumentException("resolvedAt is before createdAt");
+        }
+        record.reporterEmail = text(fields, "reporterEmail", false);
+        record.adminNotes = trimmed(fields.get("adminNotes"));
+
+        record.imageUrls = new ArrayList<>();
+        String images = trimmed(fields.get("imageUrls"));
+        if (images != null) {
+            for (String url : images.split("\\|")) {
+                if (!url.isBlank()) {
+                    if (url.trim().length() > MAX_TEXT_LENGTH) {
+                        throw new IllegalArgumentException("image URL is longer than " + MAX_TEXT_LENGTH + " characters");
+                    }
+                    record.imageUrls.add(url.trim());
+                }
+            }
+        }
+        return record;
+    }
+
+    public Complaint toComplaint(User owner) {
+        Complaint complaint = new Complaint(title, description, type, owner);
+        complaint.setStatus(status);
+        complaint.setLatitude(latitude);
+        complaint.setLongitude(longitude);
+        complaint.setAddress(address);
+        complaint.setCity(city);
+        complaint.setState(state);
+        complaint.setZipCode(zipCode);
+        complaint.setCreatedAt(createdAt);
+        complaint.setUpdatedAt(resolvedAt != null ? resolvedAt : createdAt);
+        complaint.setResolvedAt(resolvedAt);
+        complaint.setAdminNotes(adminNotes);
+        for (String url : imageUrls) {
+            String name = url.substring(url.lastIndexOf('/') + 1);
+            complaint.getImages().add(new ComplaintImage(url, name.isEmpty() ? null : name, complaint));
+        }
+        return complaint;
+    }
+
+    public String getReporterEmail() {
+        return reporterEmail;
+    }
+
+    private static String trimmed(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String text(Map<String, String> fields, String name, boolean required) {
+        String value = trimmed(fields.get(name));
+        if (value == null && required) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(name + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, Map<String, String> fields, String name, E fallback) {
+        String value = trimmed(fields.get(name));
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + name + " '" + value + "'");
+        }
+    }
+
+    private static Double coordinate(Map<String, String> fields, String name, double limit) {
+        String value = trimmed(fields.get(name));
+        if (value == null) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (Double.isNaN(parsed) || parsed < -limit || parsed > limit) {
+                throw new IllegalArgumentException(name + " is out of range");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number");
+        }
+    }
+
+    // Accepts ISO date-times (2019-03-04T10:15:00) and plain dates, which become midnight
+    private static LocalDateTime timestamp(Map<String, String> fields, String name) {
+        String value = trimmed(fields.get(name));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " is not an ISO date or date-time");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.civic.civicissuesystem.importer;
+
+import java.io.IOException;
+
+// A single record could not be read, but the reader is positioned at the next one
+public class MalformedRecordException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public MalformedRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.civic.civicissuesystem.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// One JSON object per line. Array values (such as imageUrls) are joined with '|' so both formats
+// hand the same flat record to LegacyComplaintRecord.
+class NdjsonRecordReader implements RecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    NdjsonRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new MalformedRecordException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new MalformedRecordException("Expected a JSON object per line");
+        }
+        Map<String, String> record = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isNull()) {
+                continue;
+            }
+            if (value.isArray()) {
+                StringBuilder joined = new StringBuilder();
+                for (JsonNode element : value) {
+                    if (joined.length() > 0) {
+                        joined.append('|');
+                    }
+                    joined.append(element.asText());
+                }
+                record.put(field.getKey(), joined.toString());
+            } else {
+                record.put(field.getKey(), value.asText());
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
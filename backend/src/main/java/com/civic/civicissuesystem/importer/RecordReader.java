@@ -0,0 +1,12 @@
+package com.civic.civicissuesystem.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+// Reads an import file one record at a time as field name -> raw value
+public interface RecordReader extends Closeable {
+
+    // Returns null once the input is exhausted. A MalformedRecordException skips only the bad record.
+    Map<String, String> next() throws IOException;
+}
@@ -0,0 +1,63 @@
+package com.civic.civicissuesystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caps DEBUG and TRACE events from loggers under loggerPrefix at maxPerSecond, so per-request
+// tracing can stay switched on under load without flooding the appender queue. The decision is
+// taken before the event is created, and INFO and above always pass. isDebugEnabled() checks are
+// not counted; only events that are actually logged use up the allowance.
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private int maxPerSecond = 50;
+
+    // Upper 32 bits: the current second, lower 32 bits: events let through in it
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level == null || level.isGreaterOrEqual(Level.INFO)
+                || !logger.getName().startsWith(loggerPrefix) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        while (true) {
+            long current = window.get();
+            long count = (current >>> 32) == (second & 0xffffffffL) ? current & 0xffffffffL : 0;
+            if (count >= maxPerSecond) {
+                dropped.incrementAndGet();
+                return FilterReply.DENY;
+            }
+            if (window.compareAndSet(current, (second << 32) | (count + 1))) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public String getLoggerPrefix() {
+        return loggerPrefix;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix != null ? loggerPrefix : "";
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
@@ -1,24 +1,36 @@
 package com.civic.civicissuesystem.repository;
 
+import com.civic.civicissuesystem.dto.ComplaintPoint;
 import com.civic.civicissuesystem.entity.Complaint;
 import com.civic.civicissuesystem.entity.ComplaintStatus;
 import com.civic.civicissuesystem.entity.ComplaintType;
 import com.civic.civicissuesystem.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
+public interface ComplaintRepository extends JpaRepository<Complaint, Long>, JpaSpecificationExecutor<Complaint> {
     
     List<Complaint> findByUser(User user);
     
+    @EntityGraph(attributePaths = "user")
     Page<Complaint> findByUser(User user, Pageable pageable);
     
     List<Complaint> findByStatus(ComplaintStatus status);
@@ -46,15 +58,79 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     @Query("SELECT c FROM Complaint c WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
     List<Complaint> findComplaintsWithLocation();
     
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT c FROM Complaint c WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL AND c.status != 'RESOLVED'")
     List<Complaint> findUnresolvedComplaintsWithLocation();
-    
+
+    @Query("SELECT new com.civic.civicissuesystem.dto.ComplaintPoint(c.id, c.latitude, c.longitude, c.type, c.status) " +
+           "FROM Complaint c WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
+    List<ComplaintPoint> findLocatedPoints();
+    
+    @Query("SELECT new com.civic.civicissuesystem.dto.ComplaintPoint(c.id, c.latitude, c.longitude, c.type, c.status) " +
+           "FROM Complaint c WHERE c.status != 'RESOLVED' " +
+           "AND c.latitude BETWEEN :minLat AND :maxLat AND c.longitude BETWEEN :minLon AND :maxLon")
+    List<ComplaintPoint> findUnresolvedPointsWithin(@Param("minLat") Double minLat, @Param("minLon") Double minLon,
+                                                    @Param("maxLat") Double maxLat, @Param("maxLon") Double maxLon);
+
     @Query("SELECT COUNT(c) FROM Complaint c WHERE c.status = :status")
     Long countByStatus(@Param("status") ComplaintStatus status);
     
     @Query("SELECT COUNT(c) FROM Complaint c WHERE c.type = :type")
     Long countByType(@Param("type") ComplaintType type);
     
+    @Query("SELECT c.status, COUNT(c) FROM Complaint c GROUP BY c.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Query("SELECT c.type, COUNT(c) FROM Complaint c GROUP BY c.type")
+    List<Object[]> countGroupedByType();
+    
+    @Query("SELECT c.city, COUNT(c) FROM Complaint c WHERE c.city IS NOT NULL GROUP BY c.city")
+    List<Object[]> countGroupedByCity();
+    
+    @Query("SELECT cast(c.createdAt as LocalDate), c.type, c.city, COUNT(c) FROM Complaint c " +
+           "WHERE c.createdAt < :before GROUP BY cast(c.createdAt as LocalDate), c.type, c.city")
+    List<Object[]> countCreatedPerDay(@Param("before") LocalDateTime before);
+    
+    @Query("SELECT cast(c.resolvedAt as LocalDate), c.type, c.city, COUNT(c) FROM Complaint c " +
+           "WHERE c.resolvedAt < :before GROUP BY cast(c.resolvedAt as LocalDate), c.type, c.city")
+    List<Object[]> countResolvedPerDay(@Param("before") LocalDateTime before);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.type, c.city, c.createdAt, c.resolvedAt FROM Complaint c " +
+           "WHERE c.createdAt IS NOT NULL AND c.resolvedAt < :before")
+    Stream<Object[]> streamResolutionTimes(@Param("before") LocalDateTime before);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.title, c.description, c.address, c.city, c.type, c.status FROM Complaint c")
+    Stream<Object[]> streamSearchDocuments();
+    
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT c FROM Complaint c WHERE c.id IN :ids")
+    List<Complaint> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Moves every listed complaint that is not already in the target status in one statement.
+    // resolvedAt is only stamped the first time a complaint is resolved, as in Complaint.onUpdate.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Complaint c SET c.status = :status, c.adminNotes = :adminNotes, c.updatedAt = :now, " +
+           "c.resolvedAt = COALESCE(c.resolvedAt, :resolvedAt) WHERE c.id IN :ids AND c.status <> :status")
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids, @Param("status") ComplaintStatus status,
+                         @Param("adminNotes") String adminNotes, @Param("now") LocalDateTime now,
+                         @Param("resolvedAt") LocalDateTime resolvedAt);
+    
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT c FROM Complaint c ORDER BY c.createdAt DESC")
     Page<Complaint> findAllOrderByCreatedAtDesc(Pageable pageable);
+    
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Complaint> findAll(Specification<Complaint> spec, Pageable pageable);
+    
+    // Initialise the collections of already loaded complaints in one statement each, instead of
+    // one lazy load per complaint. They are fetched separately because joining both bags at once
+    // would multiply the rows.
+    @Query("SELECT DISTINCT c FROM Complaint c LEFT JOIN FETCH c.images WHERE c IN :complaints")
+    List<Complaint> fetchImages(@Param("complaints") Collection<Complaint> complaints);
+    
+    @Query("SELECT DISTINCT c FROM Complaint c LEFT JOIN FETCH c.updates u LEFT JOIN FETCH u.updatedBy WHERE c IN :complaints")
+    List<Complaint> fetchUpdates(@Param("complaints") Collection<Complaint> complaints);
 }
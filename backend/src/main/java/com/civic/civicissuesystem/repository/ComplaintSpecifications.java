@@ -0,0 +1,117 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.dto.ComplaintCursor;
+import com.civic.civicissuesystem.dto.ComplaintFilter;
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.geo.BoundingBox;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+// Building blocks for dynamic complaint queries. Each predicate is a plain equality or range on
+// a column covered by one of the indexes declared on Complaint, so combining them keeps the
+// query index-backed.
+public final class ComplaintSpecifications {
+    
+    private ComplaintSpecifications() {}
+    
+    public static Specification<Complaint> matching(ComplaintFilter filter) {
+        Specification<Complaint> spec = matchingExceptCity(filter);
+        if (filter != null && filter.getCity() != null && !filter.getCity().isBlank()) {
+            spec = spec.and(inCity(filter.getCity().trim()));
+        }
+        return spec;
+    }
+    
+    // Unranked stand-in for the search index while it is still loading. Cities are compared the
+    // way the index compares them, trimmed and case-insensitively, so results don't change once
+    // it is ready.
+    public static Specification<Complaint> matchingSearch(ComplaintFilter filter, String text) {
+        Specification<Complaint> spec = matchingExceptCity(filter).and(textContains(text));
+        if (filter != null && filter.getCity() != null && !filter.getCity().isBlank()) {
+            spec = spec.and(inCityIgnoringCase(filter.getCity()));
+        }
+        return spec;
+    }
+    
+    private static Specification<Complaint> matchingExceptCity(ComplaintFilter filter) {
+        Specification<Complaint> spec = Specification.where(null);
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getStatus() != null) {
+            spec = spec.and(hasStatus(filter.getStatus()));
+        }
+        if (filter.getType() != null) {
+            spec = spec.and(hasType(filter.getType()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            spec = spec.and(createdFrom(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            spec = spec.and(createdBefore(filter.getCreatedTo()));
+        }
+        if (filter.getBbox() != null) {
+            spec = spec.and(within(filter.getBbox()));
+        }
+        return spec;
+    }
+    
+    public static Specification<Complaint> hasStatus(ComplaintStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Complaint> hasType(ComplaintType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+    
+    public static Specification<Complaint> inCity(String city) {
+        return (root, query, cb) -> cb.equal(root.get("city"), city);
+    }
+    
+    // Not index-backed; only used by the search fallback
+    public static Specification<Complaint> inCityIgnoringCase(String city) {
+        return (root, query, cb) -> cb.equal(cb.lower(cb.trim(root.get("city"))), city.trim().toLowerCase(Locale.ROOT));
+    }
+    
+    public static Specification<Complaint> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+    
+    public static Specification<Complaint> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+    
+    public static Specification<Complaint> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+    
+    public static Specification<Complaint> within(BoundingBox bbox) {
+        return (root, query, cb) -> cb.and(
+                cb.between(root.get("latitude"), bbox.getMinLat(), bbox.getMaxLat()),
+                cb.between(root.get("longitude"), bbox.getMinLon(), bbox.getMaxLon()));
+    }
+    
+    // Case-insensitive substring match; only used while the search index is still loading
+    public static Specification<Complaint> textContains(String text) {
+        return (root, query, cb) -> {
+            String pattern = "%" + text.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("description")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("address")), pattern, '\\'));
+        };
+    }
+    
+    // Rows strictly after the cursor in (createdAt DESC, id DESC) order
+    public static Specification<Complaint> after(ComplaintCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -0,0 +1,41 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintUpdate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface ComplaintUpdateRepository extends JpaRepository<ComplaintUpdate, Long> {
+    
+    // When the complaint last moved into the given status (same-status updates are not transitions)
+    @Query("SELECT MAX(u.createdAt) FROM ComplaintUpdate u WHERE u.complaint.id = :complaintId " +
+           "AND u.newStatus = :status AND u.previousStatus <> u.newStatus")
+    LocalDateTime findLastTransitionInto(@Param("complaintId") Long complaintId, @Param("status") ComplaintStatus status);
+    
+    // Batch form of findLastTransitionInto: rows of (complaint id, status entered, last time entered)
+    @Query("SELECT u.complaint.id, u.newStatus, MAX(u.createdAt) FROM ComplaintUpdate u " +
+           "WHERE u.complaint.id IN :complaintIds AND u.previousStatus <> u.newStatus " +
+           "GROUP BY u.complaint.id, u.newStatus")
+    List<Object[]> findLastTransitions(@Param("complaintIds") Collection<Long> complaintIds);
+    
+    // Every transition into or out of IN_PROGRESS made before the cutoff, ordered so enter/exit pairs are adjacent per complaint
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.complaint.id, c.type, c.city, u.previousStatus, u.newStatus, u.createdAt " +
+           "FROM ComplaintUpdate u JOIN u.complaint c WHERE u.previousStatus <> u.newStatus " +
+           "AND (u.newStatus = com.civic.civicissuesystem.entity.ComplaintStatus.IN_PROGRESS " +
+           "OR u.previousStatus = com.civic.civicissuesystem.entity.ComplaintStatus.IN_PROGRESS) " +
+           "AND u.createdAt < :before ORDER BY u.complaint.id, u.createdAt")
+    Stream<Object[]> streamInProgressTransitions(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,45 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.entity.EmailOutbox;
+import com.civic.civicissuesystem.entity.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    
+    // Recipients with at least one PENDING row whose delay has elapsed, or a SENDING row whose
+    // claim lease has expired
+    @Query("SELECT o.recipient FROM EmailOutbox o WHERE o.status IN (com.civic.civicissuesystem.entity.OutboxStatus.PENDING, " +
+           "com.civic.civicissuesystem.entity.OutboxStatus.SENDING) AND o.nextAttemptAt <= :now " +
+           "GROUP BY o.recipient ORDER BY MIN(o.nextAttemptAt)")
+    List<String> findDueRecipients(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Takes everything queued for the recipient, including rows still inside their digest window
+    // or backoff, so they leave as one message. Rows another dispatcher holds under a live lease are skipped.
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = com.civic.civicissuesystem.entity.OutboxStatus.SENDING, " +
+           "o.claimToken = :token, o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.recipient = :recipient AND (o.status = com.civic.civicissuesystem.entity.OutboxStatus.PENDING " +
+           "OR (o.status = com.civic.civicissuesystem.entity.OutboxStatus.SENDING AND o.nextAttemptAt <= :now))")
+    int claimRecipient(@Param("recipient") String recipient, @Param("token") String token,
+                       @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    List<EmailOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+    
+    @Query("SELECT o.status, COUNT(o) FROM EmailOutbox o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+    
+    List<EmailOutbox> findByStatusOrderByNextAttemptAtDesc(OutboxStatus status, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = com.civic.civicissuesystem.entity.OutboxStatus.SENT AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
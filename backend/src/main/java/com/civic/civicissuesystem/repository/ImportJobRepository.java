@@ -0,0 +1,16 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.entity.ImportJob;
+import com.civic.civicissuesystem.entity.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    
+    List<ImportJob> findAllByOrderByCreatedAtDesc();
+    
+    List<ImportJob> findByStatus(ImportJobStatus status);
+}
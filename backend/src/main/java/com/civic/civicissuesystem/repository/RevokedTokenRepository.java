@@ -0,0 +1,28 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    
+    boolean existsByJti(String jti);
+    
+    @Query("SELECT r.jti, r.expiresAt FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<Object[]> findActive(@Param("now") LocalDateTime now);
+    
+    // jti and expiresAt of the still relevant revocations recorded since the given time
+    @Query("SELECT r.jti, r.expiresAt FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<Object[]> findActiveRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
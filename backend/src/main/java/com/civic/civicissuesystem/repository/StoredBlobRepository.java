@@ -0,0 +1,33 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.entity.StoredBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    
+    // Marks a blob as uploaded again, which restarts its grace period if it is unreferenced
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.lastUploadedAt = :now WHERE b.hash = :hash")
+    int touch(@Param("hash") String hash, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + :count WHERE b.hash = :hash")
+    int addReferences(@Param("hash") String hash, @Param("count") int count);
+    
+    @Query("SELECT b FROM StoredBlob b WHERE b.refCount = 0 AND b.lastUploadedAt < :cutoff ORDER BY b.lastUploadedAt")
+    List<StoredBlob> findUnreferenced(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Conditional, so a blob that was referenced or uploaded again since it was selected is kept
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.hash = :hash AND b.refCount = 0 AND b.lastUploadedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("hash") String hash, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,355 @@
+package com.civic.civicissuesystem.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+// In-memory inverted index over complaint text with BM25 ranking. Each complaint occupies a slot;
+// per-slot metadata (type, status, city) lives in primitive arrays so filters are checked while
+// walking postings. Terms are kept in a sorted map so a query word also matches every indexed
+// term it is a prefix of. Removed complaints leave tombstones that are compacted away once they
+// make up a quarter of the slots. Not thread-safe; callers guard it with a lock.
+public class InvertedIndex {
+
+    public static final int ANY = -1;
+
+    // Matches in the title count more than in the address, which counts more than in the description
+    private static final int TITLE_WEIGHT = 3;
+    private static final int ADDRESS_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_COMPACT_TOMBSTONES = 1024;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int[] cities = new int[INITIAL_CAPACITY];
+    private final BitSet live = new BitSet();
+    private int highWaterMark;
+    private int tombstones;
+    private long totalLength;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<String, Integer> cityIds = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    public static class Hit {
+        private final long id;
+        private final double score;
+
+        Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() { return id; }
+        public double getScore() { return score; }
+    }
+
+    public static class Result {
+        private final List<Hit> hits;
+        private final int totalMatches;
+
+        Result(List<Hit> hits, int totalMatches) {
+            this.hits = hits;
+            this.totalMatches = totalMatches;
+        }
+
+        public List<Hit> getHits() { return hits; }
+        public int getTotalMatches() { return totalMatches; }
+    }
+
+    public int size() {
+        return slotById.size();
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    public boolean contains(long id) {
+        return slotById.containsKey(id);
+    }
+
+    public void put(long id, String title, String description, String address, String city,
+                    int typeOrdinal, int statusOrdinal) {
+        remove(id);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, title, TITLE_WEIGHT)
+                + addTerms(frequencies, address, ADDRESS_WEIGHT)
+                + addTerms(frequencies, description, DESCRIPTION_WEIGHT);
+
+        int slot = allocateSlot();
+        ids[slot] = id;
+        lengths[slot] = length;
+        types[slot] = (byte) typeOrdinal;
+        statuses[slot] = (byte) statusOrdinal;
+        cities[slot] = cityId(city, true);
+        live.set(slot);
+        slotById.put(id, slot);
+        totalLength += length;
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new Postings()).add(slot, entry.getValue());
+        }
+    }
+
+    public boolean updateStatus(long id, int statusOrdinal) {
+        Integer slot = slotById.get(id);
+        if (slot == null) {
+            return false;
+        }
+        statuses[slot] = (byte) statusOrdinal;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        Integer existing = slotById.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        int slot = existing;
+        live.clear(slot);
+        totalLength -= lengths[slot];
+        tombstones++;
+        if (tombstones >= MIN_COMPACT_TOMBSTONES && tombstones * 4 >= highWaterMark) {
+            compact();
+        }
+        return true;
+    }
+
+    // Every query term (or a term it is a prefix of) must occur in a complaint for it to match.
+    // Pass ANY for typeOrdinal/statusOrdinal and null for city to leave them unfiltered.
+    public Result search(String query, int typeOrdinal, int statusOrdinal, String city, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        int cityFilter = city == null ? ANY : cityId(city, false);
+        if (queryTerms.isEmpty() || slotById.isEmpty() || (city != null && cityFilter == ANY)) {
+            return new Result(Collections.emptyList(), 0);
+        }
+
+        List<List<WeightedPostings>> expansions = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            List<WeightedPostings> expanded = expand(term);
+            if (expanded.isEmpty()) {
+                return new Result(Collections.emptyList(), 0);
+            }
+            expansions.add(expanded);
+        }
+        // Starting from the rarest term keeps the candidate set small for the following ones
+        expansions.sort((a, b) -> Long.compare(documentFrequency(a), documentFrequency(b)));
+
+        double averageLength = Math.max(1.0, (double) totalLength / Math.max(1, slotById.size()));
+        Map<Integer, double[]> candidates = null;
+        for (List<WeightedPostings> expanded : expansions) {
+            Map<Integer, double[]> next = new HashMap<>();
+            for (WeightedPostings weighted : expanded) {
+                Postings list = weighted.postings;
+                double idf = Math.log(1 + (slotById.size() - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    double[] previous = null;
+                    if (candidates != null) {
+                        previous = candidates.get(slot);
+                        if (previous == null) {
+                            continue;
+                        }
+                    } else if (!live.get(slot) || !accepts(slot, typeOrdinal, statusOrdinal, cityFilter)) {
+                        continue;
+                    }
+                    double tf = list.frequencies[i];
+                    double score = weighted.weight * idf * tf * (K1 + 1)
+                            / (tf + K1 * (1 - B + B * lengths[slot] / averageLength));
+                    double[] accumulated = next.get(slot);
+                    if (accumulated == null) {
+                        next.put(slot, new double[] { (previous != null ? previous[0] : 0) + score });
+                    } else {
+                        accumulated[0] += score;
+                    }
+                }
+            }
+            candidates = next;
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+
+        return new Result(topHits(candidates, limit), candidates.size());
+    }
+
+    private List<Hit> topHits(Map<Integer, double[]> candidates, int limit) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(Math.max(1, limit), (a, b) -> a.score != b.score
+                ? Double.compare(a.score, b.score)
+                : Long.compare(a.id, b.id));
+        for (Map.Entry<Integer, double[]> entry : candidates.entrySet()) {
+            Hit hit = new Hit(ids[entry.getKey()], entry.getValue()[0]);
+            if (heap.size() < limit) {
+                heap.add(hit);
+            } else if (limit > 0 && heap.comparator().compare(hit, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        // Highest score first; newer complaints (higher ids) win ties
+        hits.sort((a, b) -> heap.comparator().compare(b, a));
+        return hits;
+    }
+
+    private List<WeightedPostings> expand(String term) {
+        List<WeightedPostings> expanded = new ArrayList<>();
+        Postings exact = postings.get(term);
+        if (exact != null) {
+            expanded.add(new WeightedPostings(exact, 1.0));
+        }
+        Iterator<Map.Entry<String, Postings>> longer =
+                postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet().iterator();
+        for (int i = 0; i < MAX_PREFIX_EXPANSIONS && longer.hasNext(); i++) {
+            expanded.add(new WeightedPostings(longer.next().getValue(), PREFIX_WEIGHT));
+        }
+        return expanded;
+    }
+
+    private static long documentFrequency(List<WeightedPostings> expanded) {
+        long total = 0;
+        for (WeightedPostings weighted : expanded) {
+            total += weighted.postings.size;
+        }
+        return total;
+    }
+
+    private boolean accepts(int slot, int typeOrdinal, int statusOrdinal, int cityFilter) {
+        return (typeOrdinal == ANY || types[slot] == typeOrdinal)
+                && (statusOrdinal == ANY || statuses[slot] == statusOrdinal)
+                && (cityFilter == ANY || cities[slot] == cityFilter);
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> terms = TextAnalyzer.terms(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    // Cities are matched case-insensitively and stored as small ints
+    private int cityId(String city, boolean create) {
+        if (city == null || city.isBlank()) {
+            return ANY;
+        }
+        String key = city.trim().toLowerCase(Locale.ROOT);
+        Integer id = cityIds.get(key);
+        if (id == null) {
+            if (!create) {
+                return ANY;
+            }
+            id = cityIds.size();
+            cityIds.put(key, id);
+        }
+        return id;
+    }
+
+    private int allocateSlot() {
+        if (highWaterMark == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            types = Arrays.copyOf(types, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            cities = Arrays.copyOf(cities, capacity);
+        }
+        return highWaterMark++;
+    }
+
+    // Renumbers live slots densely and drops tombstoned entries from every posting list. Slot
+    // order is preserved, so posting lists stay sorted.
+    void compact() {
+        int[] remap = new int[highWaterMark];
+        int next = 0;
+        for (int slot = 0; slot < highWaterMark; slot++) {
+            if (live.get(slot)) {
+                remap[slot] = next;
+                ids[next] = ids[slot];
+                lengths[next] = lengths[slot];
+                types[next] = types[slot];
+                statuses[next] = statuses[slot];
+                cities[next] = cities[slot];
+                next++;
+            } else {
+                remap[slot] = -1;
+            }
+        }
+
+        Iterator<Postings> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            Postings list = lists.next();
+            list.remap(remap);
+            if (list.size == 0) {
+                lists.remove();
+            }
+        }
+
+        live.clear();
+        live.set(0, next);
+        slotById.clear();
+        for (int slot = 0; slot < next; slot++) {
+            slotById.put(ids[slot], slot);
+        }
+        highWaterMark = next;
+        tombstones = 0;
+    }
+
+    private static class WeightedPostings {
+        final Postings postings;
+        final double weight;
+
+        WeightedPostings(Postings postings, double weight) {
+            this.postings = postings;
+            this.weight = weight;
+        }
+    }
+
+    private static class Postings {
+        int[] slots = new int[2];
+        int[] frequencies = new int[2];
+        int size;
+
+        void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = remap[slots[i]];
+                if (slot >= 0) {
+                    slots[kept] = slot;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -1,14 +1,15 @@
 package com.civic.civicissuesystem.security;
 
-import com.civic.civicissuesystem.service.CustomUserDetailsService;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.service.TokenRevocationService;
+import com.civic.civicissuesystem.timing.RequestTiming;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,55 +19,95 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private JwtTokenProvider tokenProvider;
-    private CustomUserDetailsService customUserDetailsService;
+    private PrincipalCache principalCache;
+    private TokenRevocationService tokenRevocationService;
     
     public void setTokenProvider(JwtTokenProvider tokenProvider) {
         this.tokenProvider = tokenProvider;
     }
     
-    public void setCustomUserDetailsService(CustomUserDetailsService customUserDetailsService) {
-        this.customUserDetailsService = customUserDetailsService;
+    public void setPrincipalCache(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+    
+    public void setTokenRevocationService(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
     }
 
+    // Runs on every request, so debug output is sampled (see logback-spring.xml) and never
+    // includes the token itself
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        try {
-            System.out.println("JwtAuthenticationFilter: Processing request to " + request.getRequestURI());
-            String jwt = getJwtFromRequest(request);
-            System.out.println("JwtAuthenticationFilter: JWT token from request: " + (jwt != null ? "present" : "null"));
+        // Without a token the request stays anonymous and the authorization rules decide
+        String jwt = getJwtFromRequest(request);
+        if (jwt != null) {
+            try {
+                authenticate(jwt, request);
+            } catch (Exception ex) {
+                logger.error("Could not set user authentication in security context", ex);
+            }
+        }
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                System.out.println("JwtAuthenticationFilter: JWT token valid for user: " + username);
+        filterChain.doFilter(request, response);
+    }
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    private void authenticate(String jwt, HttpServletRequest request) {
+        long started = RequestTiming.begin();
+        Claims claims = tokenProvider.validate(jwt);
+        boolean revoked = claims != null && tokenRevocationService.isRevoked(claims);
+        RequestTiming.end(RequestTiming.Stage.JWT, started);
+        if (claims == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("auth=invalid_token uri=" + request.getRequestURI());
+            }
+            return;
+        }
+        String username = claims.getSubject();
+        if (revoked) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("auth=revoked_token user=" + username + " uri=" + request.getRequestURI());
+            }
+            return;
+        }
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("JwtAuthenticationFilter: Authentication set for user: " + username + " with authorities: " + userDetails.getAuthorities());
-            } else {
-                System.out.println("JwtAuthenticationFilter: JWT token validation failed or token is empty");
+        started = RequestTiming.begin();
+        User user = principalCache.get(username);
+        RequestTiming.end(RequestTiming.Stage.PRINCIPAL, started);
+        if (user == null || !matchesClaims(user, claims)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("auth=stale_principal user=" + username + " uri=" + request.getRequestURI());
             }
-        } catch (Exception ex) {
-            System.err.println("JwtAuthenticationFilter: Could not set user authentication: " + ex.getMessage());
-            logger.error("Could not set user authentication in security context", ex);
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        UsernamePasswordAuthenticationToken authentication = 
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (logger.isDebugEnabled()) {
+            logger.debug("auth=ok user=" + username + " role=" + user.getRole() + " uri=" + request.getRequestURI());
+        }
+    }
+
+    // A token is only honoured for the account and role it was issued for, so recreating an
+    // account or changing a role takes effect immediately instead of when the token expires.
+    // Tokens issued without these claims are checked against the subject alone.
+    private static boolean matchesClaims(User user, Claims claims) {
+        Number userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class);
+        if (userId != null && userId.longValue() != user.getId()) {
+            return false;
+        }
+        String role = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        return role == null || role.equals(user.getRole().name());
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        System.out.println("JwtAuthenticationFilter: Authorization header: " + bearerToken);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             String jwt = bearerToken.substring(7);
-            System.out.println("JwtAuthenticationFilter: Extracted JWT: " + (jwt.length() > 20 ? jwt.substring(0, 20) + "..." : jwt));
-            return jwt;
+            return StringUtils.hasText(jwt) ? jwt : null;
         }
-        System.out.println("JwtAuthenticationFilter: No valid Bearer token found in Authorization header");
         return null;
     }
 }
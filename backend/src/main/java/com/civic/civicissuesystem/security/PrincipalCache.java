@@ -0,0 +1,137 @@
+package com.civic.civicissuesystem.security;
+
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.event.UserAccountChangedEvent;
+import com.civic.civicissuesystem.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded, time-limited cache of authenticated principals keyed by JWT subject (the email), so a
+// request with a valid token does not have to load its user from the database. Entries are
+// immutable snapshots without the password hash, and every lookup hands out a fresh detached User
+// so one request cannot leak changes into another. Anything that disables a user or changes their
+// role must publish a UserAccountChangedEvent; the TTL bounds how stale another instance's copy
+// can get.
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, Snapshot> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Returns null when no enabled user has this email. Misses are not cached, so a user that
+    // signs up right after a failed lookup is found on the next request.
+    public User get(String email) {
+        Snapshot snapshot = cache.get(email, this::load);
+        return snapshot != null ? snapshot.toUser() : null;
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    // After commit, so a request racing the change cannot reload and re-cache the old row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        invalidate(event.getEmail());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "principal");
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", cache.estimatedSize());
+        metrics.put("maxSize", maxSize);
+        metrics.put("ttlSeconds", ttlSeconds);
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return metrics;
+    }
+
+    private Snapshot load(String email) {
+        return userRepository.findActiveUserByEmail(email).map(Snapshot::new).orElse(null);
+    }
+
+    private static final class Snapshot {
+        private final Long id;
+        private final String name;
+        private final String email;
+        private final String phoneNumber;
+        private final Role role;
+        private final String address;
+        private final String city;
+        private final String state;
+        private final String zipCode;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+
+        Snapshot(User user) {
+            this.id = user.getId();
+            this.name = user.getName();
+            this.email = user.getEmail();
+            this.phoneNumber = user.getPhoneNumber();
+            this.role = user.getRole();
+            this.address = user.getAddress();
+            this.city = user.getCity();
+            this.state = user.getState();
+            this.zipCode = user.getZipCode();
+            this.createdAt = user.getCreatedAt();
+            this.updatedAt = user.getUpdatedAt();
+        }
+
+        User toUser() {
+            User user = new User(name, email, phoneNumber, null, role);
+            user.setId(id);
+            user.setAddress(address);
+            user.setCity(city);
+            user.setState(state);
+            user.setZipCode(zipCode);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            user.setEnabled(true);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.civic.civicissuesystem.security;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Revoked token ids grouped into buckets by the expiry time of the token. A lookup goes straight to
+// the one bucket the token's exp falls in, asks its Bloom filter first and only consults the exact
+// set when the filter reports a possible match, so a token that was never revoked costs a few bit
+// probes. A bucket is dropped as a whole once every token in it has expired: such tokens fail
+// signature validation anyway and no longer need to be remembered.
+public class TokenDenyList {
+
+    private final long bucketMillis;
+    private final int expectedPerBucket;
+    private final double falsePositiveRate;
+    private final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public TokenDenyList(long bucketMillis, int expectedPerBucket, double falsePositiveRate) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.expectedPerBucket = expectedPerBucket;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public void add(String tokenId, long expiresAtMillis) {
+        buckets.computeIfAbsent(bucketOf(expiresAtMillis), k -> new Bucket(expectedPerBucket, falsePositiveRate))
+                .add(tokenId);
+    }
+
+    public boolean contains(String tokenId, long expiresAtMillis) {
+        if (buckets.isEmpty()) {
+            return false;
+        }
+        Bucket bucket = buckets.get(bucketOf(expiresAtMillis));
+        if (bucket == null || !bucket.filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (bucket.tokenIds.contains(tokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    // Returns the number of token ids forgotten
+    public int evictExpired(long nowMillis) {
+        int evicted = 0;
+        for (var entry : buckets.entrySet()) {
+            if ((entry.getKey() + 1) * bucketMillis <= nowMillis && buckets.remove(entry.getKey(), entry.getValue())) {
+                evicted += entry.getValue().tokenIds.size();
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : buckets.values()) {
+            size += bucket.tokenIds.size();
+        }
+        return size;
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    public long falsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    private long bucketOf(long expiresAtMillis) {
+        return Math.floorDiv(expiresAtMillis, bucketMillis);
+    }
+
+    private static class Bucket {
+        final BloomFilter filter;
+        final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        Bucket(int expectedInsertions, double falsePositiveRate) {
+            this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        // The exact set is written first, so a reader that sees the filter bits also finds the id
+        void add(String tokenId) {
+            tokenIds.add(tokenId);
+            filter.add(tokenId);
+        }
+    }
+}
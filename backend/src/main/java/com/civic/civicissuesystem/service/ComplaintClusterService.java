@@ -0,0 +1,118 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintPoint;
+import com.civic.civicissuesystem.dto.MapCluster;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.geo.BoundingBox;
+import com.civic.civicissuesystem.geo.ClusterHierarchy;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Serves the heatmap's zoom-dependent view: pre-aggregated clusters up to MAX_CLUSTER_ZOOM and raw
+// unresolved points from the spatial index beyond it. The hierarchy only tracks unresolved
+// complaints and is maintained per event, one cell per zoom level.
+@Service
+public class ComplaintClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintClusterService.class);
+
+    // Past this zoom clusters are mostly single points, so leaves come straight from the spatial index
+    public static final int MAX_CLUSTER_ZOOM = 14;
+    private static final int MAX_LEAF_POINTS = 20000;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ComplaintSpatialIndex spatialIndex;
+
+    private final ClusterHierarchy hierarchy = new ClusterHierarchy(MAX_CLUSTER_ZOOM);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Latest change per complaint seen while the snapshot loads; the snapshot row may predate it
+    private final Map<Long, ComplaintChangedEvent> pendingChanges = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ComplaintPoint> points = complaintRepository.findLocatedPoints();
+        int loaded = 0;
+        lock.writeLock().lock();
+        try {
+            for (ComplaintPoint point : points) {
+                if (point.getStatus() != ComplaintStatus.RESOLVED && !hierarchy.contains(point.getId())) {
+                    hierarchy.put(point.getId(), point.getLatitude(), point.getLongitude());
+                    loaded++;
+                }
+            }
+            // Changes that committed after the snapshot query started win over its rows
+            Iterator<ComplaintChangedEvent> pending = pendingChanges.values().iterator();
+            while (pending.hasNext()) {
+                apply(pending.next());
+                pending.remove();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Cluster hierarchy loaded with {} unresolved complaints", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (!ready) {
+                pendingChanges.put(event.getComplaintId(), event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ComplaintChangedEvent event) {
+        if (event.hasLocation() && event.getStatus() != ComplaintStatus.RESOLVED) {
+            hierarchy.put(event.getComplaintId(), event.getLatitude(), event.getLongitude());
+        } else {
+            hierarchy.remove(event.getComplaintId());
+        }
+    }
+
+    public List<MapCluster> getClusters(BoundingBox bbox, int zoom) {
+        if (zoom < 0) {
+            throw new IllegalArgumentException("Zoom must not be negative");
+        }
+
+        List<MapCluster> result = new ArrayList<>();
+        if (zoom > MAX_CLUSTER_ZOOM) {
+            for (ComplaintPoint point : spatialIndex.findWithin(bbox, false, MAX_LEAF_POINTS)) {
+                result.add(MapCluster.ofPoint(point.getId(), point.getLatitude(), point.getLongitude()));
+            }
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            hierarchy.forEachCluster(bbox, zoom, (lat, lon, count, id) ->
+                    result.add(count == 1 ? MapCluster.ofPoint(id, lat, lon) : MapCluster.ofCluster(lat, lon, count)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+}
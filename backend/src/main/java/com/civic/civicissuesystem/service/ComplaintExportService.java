@@ -0,0 +1,192 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintFilter;
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.ComplaintSpecifications;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// Streams complaints matching the admin list filters as CSV or NDJSON. Rows are read as scalar
+// tuples through a server-side cursor and written out one at a time, so neither the persistence
+// context nor the response buffer grows with the size of the table.
+@Service
+public class ComplaintExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private static final int FETCH_SIZE = 1000;
+
+    // Complaint attributes in output order; the reporter's id, name and email follow them
+    private static final String[] COMPLAINT_COLUMNS = {
+            "id", "title", "description", "type", "status", "address", "city", "state", "zipCode",
+            "latitude", "longitude", "createdAt", "updatedAt", "resolvedAt", "adminNotes"
+    };
+    private static final String[] USER_COLUMNS = { "userId", "userName", "userEmail" };
+    private static final String[] USER_ATTRIBUTES = { "id", "name", "email" };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void export(ComplaintFilter filter, Format format, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Tuple> rows = streamRows(filter)) {
+                if (format == Format.CSV) {
+                    writeCsv(rows.iterator(), out);
+                } else {
+                    writeNdjson(rows.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Stream<Tuple> streamRows(ComplaintFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Complaint> root = query.from(Complaint.class);
+        Join<Complaint, User> user = root.join("user");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : COMPLAINT_COLUMNS) {
+            selections.add(root.get(column).alias(column));
+        }
+        for (int i = 0; i < USER_COLUMNS.length; i++) {
+            selections.add(user.get(USER_ATTRIBUTES[i]).alias(USER_COLUMNS[i]));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = ComplaintSpecifications.matching(filter).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void writeCsv(Iterator<Tuple> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, header());
+        long written = 0;
+        while (rows.hasNext()) {
+            Tuple row = rows.next();
+            Object[] values = new Object[COMPLAINT_COLUMNS.length + USER_COLUMNS.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row.get(i);
+            }
+            writeCsvLine(writer, values);
+            if (++written % FETCH_SIZE == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Iterator<Tuple> rows, OutputStream out) throws IOException {
+        String[] names = header();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long written = 0;
+            while (rows.hasNext()) {
+                Tuple row = rows.next();
+                json.writeStartObject();
+                for (int i = 0; i < names.length; i++) {
+                    json.writeFieldName(names[i]);
+                    objectMapper.writeValue(json, row.get(i));
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (++written % FETCH_SIZE == 0) {
+                    json.flush();
+                }
+            }
+        }
+    }
+
+    private static String[] header() {
+        String[] names = new String[COMPLAINT_COLUMNS.length + USER_COLUMNS.length];
+        System.arraycopy(COMPLAINT_COLUMNS, 0, names, 0, COMPLAINT_COLUMNS.length);
+        System.arraycopy(USER_COLUMNS, 0, names, COMPLAINT_COLUMNS.length, USER_COLUMNS.length);
+        return names;
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting. Text that a spreadsheet would evaluate as a formula is prefixed with a quote.
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
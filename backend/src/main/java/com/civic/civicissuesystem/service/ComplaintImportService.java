@@ -0,0 +1,326 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ImportJob;
+import com.civic.civicissuesystem.entity.ImportJobStatus;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.importer.ImportFormat;
+import com.civic.civicissuesystem.importer.LegacyComplaintRecord;
+import com.civic.civicissuesystem.importer.MalformedRecordException;
+import com.civic.civicissuesystem.importer.RecordReader;
+import com.civic.civicissuesystem.repository.ImportJobRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+// Bulk ingestion of legacy complaints from CSV or NDJSON. Records are read in batches, validated
+// in parallel, and written with one transaction per batch. Sequence ids plus JDBC batching turn
+// each batch into a handful of multi-row inserts. No notification emails are sent. Every batch
+// also advances the job's processedRecords, so a restarted job skips exactly the committed
+// records.
+@Service
+public class ComplaintImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintImportService.class);
+
+    private static final int MAX_ERRORS_KEPT = 20;
+    private static final long PROGRESS_LOG_INTERVAL = 50000;
+
+    @Value("${import.dir:imports}")
+    private String importDir;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ComplaintTimeSeriesService timeSeriesService;
+
+    @Autowired
+    private ComplaintSlaService slaService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Imports run one at a time; they compete for the same connection pool as user traffic
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "complaint-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    // Jobs still marked RUNNING were cut off when the previous process stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        for (ImportJob job : importJobRepository.findByStatus(ImportJobStatus.RUNNING)) {
+            job.setStatus(ImportJobStatus.INTERRUPTED);
+            importJobRepository.save(job);
+            logger.warn("Import job {} was interrupted after {} records; it can be resumed", job.getId(), job.getProcessedRecords());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Copies the uploaded body to the import directory and starts importing it in the background
+    public ImportJob startImport(InputStream content, String fileName, ImportFormat format, User owner) throws IOException {
+        Path directory = Paths.get(importDir);
+        Files.createDirectories(directory);
+        Path stored = directory.resolve(UUID.randomUUID() + "." + format.name().toLowerCase());
+        Files.copy(content, stored);
+
+        ImportJob job = importJobRepository.save(new ImportJob(fileName, stored.toString(), format.name(), owner.getId()));
+        submit(job.getId());
+        return job;
+    }
+
+    // Registers a file already on the server's disk; used by the command-line runner
+    public ImportJob createJob(Path source, ImportFormat format, User owner) {
+        if (!Files.isReadable(source)) {
+            throw new IllegalArgumentException("Cannot read " + source);
+        }
+        return importJobRepository.save(new ImportJob(source.getFileName().toString(),
+                source.toAbsolutePath().toString(), format.name(), owner.getId()));
+    }
+
+    public ImportJob resume(Long jobId) {
+        ImportJob job = prepareResume(jobId);
+        submit(job.getId());
+        return job;
+    }
+
+    public ImportJob prepareResume(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new NoSuchElementException("Import job not found: " + jobId));
+        if (runningJobs.contains(jobId) || job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new IllegalStateException("Import job " + jobId + " is " + job.getStatus() + " and cannot be resumed");
+        }
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setFinishedAt(null);
+        return importJobRepository.save(job);
+    }
+
+    public List<ImportJob> getJobs() {
+        return importJobRepository.findAllByOrderByCreatedAtDesc();
+    }
+
+    public ImportJob getJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new NoSuchElementException("Import job not found: " + jobId));
+    }
+
+    private void submit(Long jobId) {
+        executor.submit(() -> run(jobId));
+    }
+
+    // Runs the job on the calling thread until the input is exhausted or the thread is interrupted
+    public ImportJob run(Long jobId) {
+        if (!runningJobs.add(jobId)) {
+            throw new IllegalStateException("Import job " + jobId + " is already running");
+        }
+        ImportJob job = getJob(jobId);
+        Deque<String> errors = new ArrayDeque<>();
+        try (RecordReader reader = ImportFormat.valueOf(job.getFormat()).open(
+                Files.newBufferedReader(Paths.get(job.getStoredPath()), StandardCharsets.UTF_8), objectMapper)) {
+
+            long position = 0;
+            while (position < job.getProcessedRecords() && skip(reader)) {
+                position++;
+            }
+            if (position > 0) {
+                logger.info("Import job {} resuming after record {}", jobId, position);
+            }
+
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Map<String, String>> records = new ArrayList<>(batchSize);
+                List<String> readErrors = new ArrayList<>();
+                long firstRecord = position + 1;
+                boolean exhausted = false;
+                while (records.size() + readErrors.size() < batchSize) {
+                    try {
+                        Map<String, String> record = reader.next();
+                        if (record == null) {
+                            exhausted = true;
+                            break;
+                        }
+                        records.add(record);
+                    } catch (MalformedRecordException e) {
+                        readErrors.add("record " + (position + records.size() + readErrors.size() + 1) + ": " + e.getMessage());
+                    }
+                }
+                if (!records.isEmpty() || !readErrors.isEmpty()) {
+                    position += records.size() + readErrors.size();
+                    job = writeBatch(jobId, validate(records, firstRecord), readErrors, position, errors);
+                    if (position / PROGRESS_LOG_INTERVAL != (position - records.size() - readErrors.size()) / PROGRESS_LOG_INTERVAL) {
+                        logger.info("Import job {}: {} records processed, {} imported, {} rejected",
+                                jobId, position, job.getImportedCount(), job.getRejectedCount());
+                    }
+                }
+                if (exhausted) {
+                    return finish(jobId, ImportJobStatus.COMPLETED, null);
+                }
+            }
+            logger.warn("Import job {} interrupted after {} records", jobId, position);
+            return finish(jobId, ImportJobStatus.INTERRUPTED, null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Import job {} failed", jobId, e);
+            return finish(jobId, ImportJobStatus.FAILED, e.getMessage());
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private static boolean skip(RecordReader reader) throws IOException {
+        try {
+            return reader.next() != null;
+        } catch (MalformedRecordException e) {
+            return true;
+        }
+    }
+
+    // Validation is CPU-only, so it fans out across the common pool; results keep record order
+    private static List<Object> validate(List<Map<String, String>> records, long firstRecord) {
+        return IntStream.range(0, records.size()).parallel()
+                .mapToObj(i -> {
+                    try {
+                        return (Object) LegacyComplaintRecord.parse(records.get(i));
+                    } catch (IllegalArgumentException e) {
+                        return "record " + (firstRecord + i) + ": " + e.getMessage();
+                    }
+                })
+                .toList();
+    }
+
+    private ImportJob writeBatch(Long jobId, List<Object> validated, List<String> readErrors, long position,
+                                 Deque<String> errors) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+            Map<String, User> reporters = findReporters(validated);
+            User fallbackOwner = entityManager.getReference(User.class, job.getOwnerId());
+
+            long imported = 0;
+            List<String> rejected = new ArrayList<>(readErrors);
+            for (Object result : validated) {
+                if (result instanceof LegacyComplaintRecord record) {
+                    User owner = record.getReporterEmail() != null
+                            ? reporters.getOrDefault(record.getReporterEmail(), fallbackOwner)
+                            : fallbackOwner;
+                    Complaint complaint = record.toComplaint(owner);
+                    entityManager.persist(complaint);
+                    // Delivered after commit, so in-memory indexes and counters only see committed rows
+                    eventPublisher.publishEvent(ComplaintChangedEvent.imported(complaint));
+                    imported++;
+                } else {
+                    rejected.add((String) result);
+                }
+            }
+
+            for (String error : rejected) {
+                if (errors.size() == MAX_ERRORS_KEPT) {
+                    errors.removeFirst();
+                }
+                errors.addLast(error);
+            }
+            job.setProcessedRecords(position);
+            job.setImportedCount(job.getImportedCount() + imported);
+            job.setRejectedCount(job.getRejectedCount() + rejected.size());
+            if (!rejected.isEmpty()) {
+                job.setLastError(String.join("\n", errors));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return job;
+        });
+    }
+
+    private Map<String, User> findReporters(List<Object> validated) {
+        Set<String> emails = new HashSet<>();
+        for (Object result : validated) {
+            if (result instanceof LegacyComplaintRecord record && record.getReporterEmail() != null) {
+                emails.add(record.getReporterEmail());
+            }
+        }
+        Map<String, User> reporters = new HashMap<>();
+        if (!emails.isEmpty()) {
+            for (User user : userRepository.findByEmailIn(emails)) {
+                reporters.put(user.getEmail(), user);
+            }
+        }
+        return reporters;
+    }
+
+    private ImportJob finish(Long jobId, ImportJobStatus status, String error) {
+        ImportJob job = getJob(jobId);
+        job.setStatus(status);
+        if (error != null) {
+            job.setLastError(error);
+        }
+        if (status != ImportJobStatus.INTERRUPTED) {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        job = importJobRepository.save(job);
+        logger.info("Import job {} {}: {} records processed, {} imported, {} rejected", jobId, status,
+                job.getProcessedRecords(), job.getImportedCount(), job.getRejectedCount());
+
+        // Creation events cover counts, maps and search; imported resolution history is only
+        // picked up by rebuilding the aggregates that read it from the table
+        if (job.getImportedCount() > 0) {
+            timeSeriesService.rebuild();
+            slaService.rebuild();
+        }
+        return job;
+    }
+}
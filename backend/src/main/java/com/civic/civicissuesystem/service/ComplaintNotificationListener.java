@@ -0,0 +1,31 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Queues reporter emails. Runs synchronously inside the publishing transaction so the outbox rows
+// commit or roll back together with the change; nothing here talks to SMTP.
+@Component
+public class ComplaintNotificationListener {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        if (!event.isNotifyReporter()) {
+            return;
+        }
+        if (event.isCreation()) {
+            notificationService.queueComplaintSubmittedNotification(event);
+            return;
+        }
+        notificationService.queueStatusUpdateNotification(event);
+        if (event.getStatus() == ComplaintStatus.RESOLVED) {
+            notificationService.queueResolutionConfirmationRequest(event);
+        }
+    }
+}
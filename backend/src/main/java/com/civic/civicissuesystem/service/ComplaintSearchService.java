@@ -0,0 +1,135 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.search.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Full-text search over complaint titles, addresses and descriptions. The inverted index is
+// streamed from the database at startup and then kept current from ComplaintChangedEvents, so
+// searches never fall back to LIKE scans once it is ready.
+@Service
+public class ComplaintSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSearchService.class);
+
+    // The write lock is released between chunks so searches are not blocked for the whole load
+    private static final int LOAD_CHUNK_SIZE = 10000;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ComplaintStatus> pendingStatusChanges = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long[] loaded = new long[1];
+        List<Object[]> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        try (Stream<Object[]> rows = complaintRepository.streamSearchDocuments()) {
+            rows.forEach(row -> {
+                chunk.add(row);
+                if (chunk.size() == LOAD_CHUNK_SIZE) {
+                    loaded[0] += indexChunk(chunk);
+                    chunk.clear();
+                }
+            });
+        }
+        loaded[0] += indexChunk(chunk);
+
+        lock.writeLock().lock();
+        try {
+            // Status changes that committed after the snapshot query started
+            Iterator<Map.Entry<Long, ComplaintStatus>> pending = pendingStatusChanges.entrySet().iterator();
+            while (pending.hasNext()) {
+                Map.Entry<Long, ComplaintStatus> change = pending.next();
+                index.updateStatus(change.getKey(), change.getValue().ordinal());
+                pending.remove();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Search index loaded with {} complaints and {} terms", loaded[0], index.termCount());
+    }
+
+    private int indexChunk(List<Object[]> chunk) {
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : chunk) {
+                Long id = (Long) row[0];
+                // Complaints indexed from events while loading are newer than the snapshot
+                if (!index.contains(id)) {
+                    index.put(id, (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                            ((ComplaintType) row[5]).ordinal(), ((ComplaintStatus) row[6]).ordinal());
+                    added++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isCreation()) {
+                index.put(event.getComplaintId(), event.getTitle(), event.getDescription(), event.getAddress(),
+                        event.getCity(), event.getType().ordinal(), event.getStatus().ordinal());
+            } else if (!index.updateStatus(event.getComplaintId(), event.getStatus().ordinal()) && !ready) {
+                pendingStatusChanges.put(event.getComplaintId(), event.getStatus());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public InvertedIndex.Result search(String query, ComplaintStatus status, ComplaintType type, String city, int limit) {
+        int typeOrdinal = type != null ? type.ordinal() : InvertedIndex.ANY;
+        int statusOrdinal = status != null ? status.ordinal() : InvertedIndex.ANY;
+        String cityFilter = city != null && !city.isBlank() ? city : null;
+        lock.readLock().lock();
+        try {
+            return index.search(query, typeOrdinal, statusOrdinal, cityFilter, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
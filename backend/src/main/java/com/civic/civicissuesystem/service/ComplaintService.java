@@ -1,23 +1,49 @@
 package com.civic.civicissuesystem.service;
 
+import com.civic.civicissuesystem.dto.BulkStatusUpdateResult;
+import com.civic.civicissuesystem.dto.ComplaintCursor;
+import com.civic.civicissuesystem.dto.ComplaintFilter;
 import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.dto.ComplaintResponse;
+import com.civic.civicissuesystem.dto.ComplaintSearchResponse;
+import com.civic.civicissuesystem.dto.CursorPage;
 import com.civic.civicissuesystem.entity.*;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
 import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.ComplaintSpecifications;
+import com.civic.civicissuesystem.repository.ComplaintUpdateRepository;
+import com.civic.civicissuesystem.repository.StoredBlobRepository;
 import com.civic.civicissuesystem.repository.UserRepository;
+import com.civic.civicissuesystem.search.InvertedIndex;
+import com.civic.civicissuesystem.upload.ContentAddressedStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class ComplaintService {
     
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintService.class);
+    
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    
     @Autowired
     private ComplaintRepository complaintRepository;
     
@@ -25,7 +51,16 @@ public class ComplaintService {
     private UserRepository userRepository;
     
     @Autowired
-    private NotificationService notificationService;
+    private ComplaintUpdateRepository complaintUpdateRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private StoredBlobRepository blobRepository;
+    
+    @Autowired
+    private ComplaintSearchService searchService;
     
     public Complaint createComplaint(ComplaintRequest complaintRequest, User user) {
         Complaint complaint = new Complaint();
@@ -52,7 +87,6 @@ public class ComplaintService {
         
         // Handle image URLs if provided
         if (complaintRequest.getImageUrls() != null && !complaintRequest.getImageUrls().isEmpty()) {
-            System.out.println("Processing " + complaintRequest.getImageUrls().size() + " image URLs");
             for (String imageUrl : complaintRequest.getImageUrls()) {
                 if (imageUrl != null && !imageUrl.trim().isEmpty()) {
                     // Extract image name from URL (filename part)
@@ -62,29 +96,129 @@ public class ComplaintService {
                     }
                     
                     ComplaintImage complaintImage = new ComplaintImage(imageUrl.trim(), imageName, complaint);
+                    complaintImage.setBlobHash(ContentAddressedStore.hashFromUrl(imageUrl));
                     complaint.getImages().add(complaintImage);
-                    System.out.println("Added image: " + imageUrl + " with name: " + imageName);
                 }
             }
+            referenceBlobs(complaint.getImages());
         }
         
         Complaint savedComplaint = complaintRepository.save(complaint);
         
-        System.out.println("Complaint saved with ID: " + savedComplaint.getId());
-        System.out.println("Number of images in complaint: " + savedComplaint.getImages().size());
+        logger.debug("Complaint {} saved with {} images", savedComplaint.getId(), savedComplaint.getImages().size());
         
-        // Send notification email
-        notificationService.sendComplaintSubmittedNotification(savedComplaint);
+        // Also queues the submission email in the outbox, in this same transaction
+        eventPublisher.publishEvent(ComplaintChangedEvent.created(savedComplaint));
         
         return savedComplaint;
     }
     
-    public Page<Complaint> getAllComplaints(Pageable pageable) {
-        return complaintRepository.findAllOrderByCreatedAtDesc(pageable);
+    // Counts each image as a reference to its stored upload, in the same transaction as the
+    // complaint, so an attached image is never swept as unreferenced. URLs that do not name a
+    // stored upload are kept as plain links.
+    private void referenceBlobs(List<ComplaintImage> images) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (ComplaintImage image : images) {
+            if (image.getBlobHash() != null) {
+                counts.merge(image.getBlobHash(), 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        Map<String, StoredBlob> blobs = new HashMap<>();
+        for (StoredBlob blob : blobRepository.findAllById(counts.keySet())) {
+            blobs.put(blob.getHash(), blob);
+        }
+        for (ComplaintImage image : images) {
+            StoredBlob blob = image.getBlobHash() != null ? blobs.get(image.getBlobHash()) : null;
+            if (blob != null) {
+                image.setFileSize(blob.getSize());
+            } else {
+                image.setBlobHash(null);
+            }
+        }
+        counts.forEach((hash, count) -> {
+            if (blobs.containsKey(hash)) {
+                blobRepository.addReferences(hash, count);
+            }
+        });
+    }
+    
+    public Page<Complaint> getAllComplaints(ComplaintFilter filter, Pageable pageable) {
+        Page<Complaint> page = complaintRepository.findAll(ComplaintSpecifications.matching(filter), pageable);
+        fetchDetails(page.getContent());
+        return page;
     }
     
     public Page<Complaint> getComplaintsByUser(User user, Pageable pageable) {
-        return complaintRepository.findByUser(user, pageable);
+        Page<Complaint> page = complaintRepository.findByUser(user, pageable);
+        fetchDetails(page.getContent());
+        return page;
+    }
+    
+    public CursorPage<Complaint> getComplaintsAfter(ComplaintFilter filter, ComplaintCursor cursor, int size) {
+        return findSlice(ComplaintSpecifications.matching(filter), cursor, size);
+    }
+    
+    public CursorPage<Complaint> getComplaintsByUserAfter(User user, ComplaintCursor cursor, int size) {
+        return findSlice(ComplaintSpecifications.ownedBy(user), cursor, size);
+    }
+    
+    private CursorPage<Complaint> findSlice(Specification<Complaint> spec, ComplaintCursor cursor, int size) {
+        if (cursor != null) {
+            spec = spec.and(ComplaintSpecifications.after(cursor));
+        }
+        // One extra row tells whether another slice exists without a count query
+        List<Complaint> complaints = complaintRepository.findBy(spec, query -> query
+                .sortBy(KEYSET_ORDER)
+                .limit(size + 1)
+                .project("user")
+                .all());
+        return toCursorPage(complaints, size);
+    }
+    
+    private CursorPage<Complaint> toCursorPage(List<Complaint> complaints, int size) {
+        boolean hasMore = complaints.size() > size;
+        List<Complaint> slice = hasMore ? complaints.subList(0, size) : complaints;
+        fetchDetails(slice);
+        String nextCursor = hasMore ? ComplaintCursor.after(slice.get(slice.size() - 1)).encode() : null;
+        return new CursorPage<>(slice, nextCursor);
+    }
+    
+    // Ranked search through the in-memory index. Until the index has finished loading, falls back
+    // to an unranked substring match so search keeps working right after startup.
+    public ComplaintSearchResponse searchComplaints(String query, ComplaintFilter filter, int limit) {
+        if (!searchService.isReady()) {
+            Specification<Complaint> spec = ComplaintSpecifications.matchingSearch(filter, query.trim());
+            Page<Complaint> page = complaintRepository.findAll(spec,
+                    PageRequest.of(0, limit, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"))));
+            fetchDetails(page.getContent());
+            List<ComplaintSearchResponse.Hit> hits = page.getContent().stream()
+                    .map(complaint -> new ComplaintSearchResponse.Hit(null, new ComplaintResponse(complaint)))
+                    .toList();
+            return new ComplaintSearchResponse(query, page.getTotalElements(), hits);
+        }
+        
+        InvertedIndex.Result result = searchService.search(query, filter.getStatus(), filter.getType(), filter.getCity(), limit);
+        List<Long> ids = result.getHits().stream().map(InvertedIndex.Hit::getId).toList();
+        Map<Long, Complaint> complaints = new HashMap<>();
+        if (!ids.isEmpty()) {
+            List<Complaint> loaded = complaintRepository.findAllWithUserByIdIn(ids);
+            fetchDetails(loaded);
+            for (Complaint complaint : loaded) {
+                complaints.put(complaint.getId(), complaint);
+            }
+        }
+        
+        List<ComplaintSearchResponse.Hit> hits = new ArrayList<>(ids.size());
+        for (InvertedIndex.Hit hit : result.getHits()) {
+            Complaint complaint = complaints.get(hit.getId());
+            if (complaint != null) {
+                hits.add(new ComplaintSearchResponse.Hit(hit.getScore(), new ComplaintResponse(complaint)));
+            }
+        }
+        return new ComplaintSearchResponse(query, result.getTotalMatches(), hits);
     }
     
     public List<Complaint> getComplaintsByStatus(ComplaintStatus status) {
@@ -104,7 +238,19 @@ public class ComplaintService {
     }
     
     public List<Complaint> getUnresolvedComplaintsWithLocation() {
-        return complaintRepository.findUnresolvedComplaintsWithLocation();
+        List<Complaint> complaints = complaintRepository.findUnresolvedComplaintsWithLocation();
+        fetchDetails(complaints);
+        return complaints;
+    }
+    
+    // Loads images and updates for a whole page up front so that mapping to ComplaintResponse
+    // does not issue two extra queries per complaint
+    private void fetchDetails(List<Complaint> complaints) {
+        if (complaints.isEmpty()) {
+            return;
+        }
+        complaintRepository.fetchImages(complaints);
+        complaintRepository.fetchUpdates(complaints);
     }
     
     public Optional<Complaint> getComplaintById(Long id) {
@@ -117,8 +263,20 @@ public class ComplaintService {
                 .orElseThrow(() -> new RuntimeException("Complaint not found"));
         
         ComplaintStatus previousStatus = complaint.getStatus();
+        LocalDateTime previousStatusSince = null;
+        if (!previousStatus.equals(newStatus)) {
+            previousStatusSince = complaintUpdateRepository.findLastTransitionInto(complaintId, previousStatus);
+            if (previousStatusSince == null) {
+                previousStatusSince = complaint.getCreatedAt();
+            }
+        }
         complaint.setStatus(newStatus);
         complaint.setAdminNotes(adminNotes);
+        // Stamped here rather than in @PreUpdate so the event carries the same instant as the rows
+        LocalDateTime now = LocalDateTime.now();
+        if (newStatus == ComplaintStatus.RESOLVED && complaint.getResolvedAt() == null) {
+            complaint.setResolvedAt(now);
+        }
         
         // Create status update record
         ComplaintUpdate update = new ComplaintUpdate(
@@ -128,21 +286,106 @@ public class ComplaintService {
             complaint,
             admin
         );
+        update.setCreatedAt(now);
         complaint.getUpdates().add(update);
         
         Complaint savedComplaint = complaintRepository.save(complaint);
         
-        // Send notification email if status changed
+        // ComplaintNotificationListener queues the notification emails in the outbox within this
+        // transaction; EmailOutboxDispatcher sends them after commit
         if (!previousStatus.equals(newStatus)) {
-            notificationService.sendStatusUpdateNotification(savedComplaint, previousStatus, newStatus);
+            eventPublisher.publishEvent(ComplaintChangedEvent.statusChanged(savedComplaint, previousStatus, previousStatusSince, now));
+        }
+        
+        return savedComplaint;
+    }
+    
+    // Moves many complaints to one status with a fixed number of statements regardless of how
+    // many ids are given: one select, one history lookup, one UPDATE and batched audit inserts.
+    // Complaints already in the target status are reported as unchanged and left untouched.
+    public BulkStatusUpdateResult bulkUpdateStatus(List<Long> complaintIds, ComplaintStatus newStatus,
+                                                   String adminNotes, User admin) {
+        long started = System.nanoTime();
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(complaintIds);
+        
+        Map<Long, Complaint> found = new HashMap<>();
+        for (Complaint complaint : complaintRepository.findAllWithUserByIdIn(ids)) {
+            found.put(complaint.getId(), complaint);
+        }
+        
+        List<Complaint> changing = new ArrayList<>();
+        List<Long> changingIds = new ArrayList<>();
+        Map<Long, ComplaintStatus> previousStatuses = new HashMap<>();
+        for (Complaint complaint : found.values()) {
+            previousStatuses.put(complaint.getId(), complaint.getStatus());
+            if (complaint.getStatus() != newStatus) {
+                changing.add(complaint);
+                changingIds.add(complaint.getId());
+            }
+        }
+        
+        if (!changing.isEmpty()) {
+            Map<Long, LocalDateTime> statusSince = new HashMap<>();
+            for (Object[] row : complaintUpdateRepository.findLastTransitions(changingIds)) {
+                Long id = (Long) row[0];
+                if (row[1] == previousStatuses.get(id)) {
+                    statusSince.put(id, (LocalDateTime) row[2]);
+                }
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime resolvedAt = newStatus == ComplaintStatus.RESOLVED ? now : null;
+            complaintRepository.bulkUpdateStatus(changingIds, newStatus, adminNotes, now, resolvedAt);
             
-            // Send resolution confirmation request if marked as resolved
-            if (newStatus == ComplaintStatus.RESOLVED) {
-                notificationService.sendResolutionConfirmationRequest(savedComplaint);
+            // The UPDATE cleared the persistence context, so the loaded complaints are detached
+            // and only mirror the new values for the events below
+            List<ComplaintUpdate> updates = new ArrayList<>(changing.size());
+            for (Complaint complaint : changing) {
+                ComplaintStatus previousStatus = complaint.getStatus();
+                complaint.setStatus(newStatus);
+                complaint.setAdminNotes(adminNotes);
+                complaint.setUpdatedAt(now);
+                if (resolvedAt != null && complaint.getResolvedAt() == null) {
+                    complaint.setResolvedAt(resolvedAt);
+                }
+                ComplaintUpdate update = new ComplaintUpdate(
+                    "Status updated from " + previousStatus + " to " + newStatus,
+                    previousStatus,
+                    newStatus,
+                    complaint,
+                    admin
+                );
+                update.setCreatedAt(now);
+                updates.add(update);
+            }
+            complaintUpdateRepository.saveAll(updates);
+            
+            for (Complaint complaint : changing) {
+                ComplaintStatus previousStatus = previousStatuses.get(complaint.getId());
+                LocalDateTime since = statusSince.getOrDefault(complaint.getId(), complaint.getCreatedAt());
+                eventPublisher.publishEvent(ComplaintChangedEvent.statusChanged(complaint, previousStatus, since, now));
             }
         }
         
-        return savedComplaint;
+        List<BulkStatusUpdateResult.Item> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ComplaintStatus previousStatus = previousStatuses.get(id);
+            BulkStatusUpdateResult.Outcome outcome;
+            if (previousStatus == null) {
+                outcome = BulkStatusUpdateResult.Outcome.NOT_FOUND;
+            } else if (previousStatus == newStatus) {
+                outcome = BulkStatusUpdateResult.Outcome.UNCHANGED;
+            } else {
+                outcome = BulkStatusUpdateResult.Outcome.UPDATED;
+            }
+            results.add(new BulkStatusUpdateResult.Item(id, outcome, previousStatus));
+        }
+        
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        logger.info("Bulk status update to {}: {} of {} complaints in {} ms ({}/s)", newStatus, changing.size(), ids.size(),
+                elapsedMillis, changing.size() * 1000L / elapsedMillis);
+        
+        return new BulkStatusUpdateResult(newStatus, results);
     }
     
     public Long getComplaintCountByStatus(ComplaintStatus status) {
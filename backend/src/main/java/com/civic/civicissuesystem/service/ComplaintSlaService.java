@@ -0,0 +1,299 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.analytics.QuantileSketch;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.ComplaintUpdateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Resolution-time SLA analytics. Durations are folded into one QuantileSketch per
+// (metric, type, city, month) as status transitions commit, so p50/p90/p99 for any slice are
+// answered by merging a handful of sketches instead of sorting the complaint_updates history.
+@Service
+public class ComplaintSlaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSlaService.class);
+
+    // 1% relative error keeps a year-long range of durations under ~1000 buckets per sketch
+    private static final double RELATIVE_ACCURACY = 0.01;
+
+    public enum Metric {
+        TIME_TO_RESOLVE,
+        TIME_IN_PROGRESS
+    }
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ComplaintUpdateRepository complaintUpdateRepository;
+
+    private volatile Map<SketchKey, QuantileSketch> sketches = new ConcurrentHashMap<>();
+    // Events that arrive while a rebuild is running. The rebuild streams only rows stamped before its
+    // cutoff and replays only the buffered changes stamped at or after it, as the time series does,
+    // so nothing recorded during the stream is lost when fresh sketches replace the live ones.
+    private Queue<ComplaintChangedEvent> pending;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // Snapshots posted by other nodes, keyed by the source that sent them. Kept apart from the local
+    // sketches so rebuild() does not drop them, and replaced per source so a re-post is not counted
+    // twice. Held in memory only: sources post their snapshot again after a restart.
+    private final Map<String, Map<SketchKey, QuantileSketch>> imported = new ConcurrentHashMap<>();
+
+    // Also called by imports while the application is live
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        LocalDateTime cutoff;
+        swapLock.writeLock().lock();
+        try {
+            cutoff = LocalDateTime.now();
+            pending = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Map<SketchKey, QuantileSketch> fresh = new ConcurrentHashMap<>();
+        long[] observations = new long[1];
+        try {
+            try (Stream<Object[]> rows = complaintRepository.streamResolutionTimes(cutoff)) {
+                rows.forEach(row -> {
+                    LocalDateTime createdAt = (LocalDateTime) row[2];
+                    LocalDateTime resolvedAt = (LocalDateTime) row[3];
+                    record(fresh, Metric.TIME_TO_RESOLVE, (ComplaintType) row[0], (String) row[1], createdAt, resolvedAt);
+                    observations[0]++;
+                });
+            }
+
+            // Rows arrive ordered by complaint and time, so each exit from IN_PROGRESS follows its entry
+            try (Stream<Object[]> rows = complaintUpdateRepository.streamInProgressTransitions(cutoff)) {
+                Object[] enteredAt = new Object[2];
+                rows.forEach(row -> {
+                    Long complaintId = (Long) row[0];
+                    ComplaintStatus newStatus = (ComplaintStatus) row[4];
+                    LocalDateTime at = (LocalDateTime) row[5];
+                    if (newStatus == ComplaintStatus.IN_PROGRESS) {
+                        enteredAt[0] = complaintId;
+                        enteredAt[1] = at;
+                    } else if (complaintId.equals(enteredAt[0])) {
+                        record(fresh, Metric.TIME_IN_PROGRESS, (ComplaintType) row[1], (String) row[2],
+                                (LocalDateTime) enteredAt[1], at);
+                        enteredAt[0] = null;
+                        observations[0]++;
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            for (ComplaintChangedEvent event : pending) {
+                record(fresh, event, cutoff);
+            }
+            sketches = fresh;
+            pending = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        logger.info("SLA sketches rebuilt from {} observations into {} sketches", observations[0], fresh.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            record(sketches, event, null);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Samples what the rebuild streams: one time to resolve per complaint, ending at its first
+    // resolvedAt, and one time in progress per exit. With a cutoff, only changes at or after it count.
+    private static void record(Map<SketchKey, QuantileSketch> target, ComplaintChangedEvent event, LocalDateTime cutoff) {
+        if (event.isFirstResolution() && (cutoff == null || !event.getResolvedAt().isBefore(cutoff))) {
+            record(target, Metric.TIME_TO_RESOLVE, event.getType(), event.getCity(),
+                    event.getCreatedAt(), event.getResolvedAt());
+        }
+        if (event.getPreviousStatus() == ComplaintStatus.IN_PROGRESS && event.getStatus() != ComplaintStatus.IN_PROGRESS
+                && (cutoff == null || !event.getChangedAt().isBefore(cutoff))) {
+            record(target, Metric.TIME_IN_PROGRESS, event.getType(), event.getCity(),
+                    event.getPreviousStatusSince(), event.getChangedAt());
+        }
+    }
+
+    // Percentiles in seconds for the slice, overall and per month
+    public Map<String, Object> getPercentiles(Metric metric, YearMonth from, YearMonth to,
+                                              ComplaintType type, String city) {
+        QuantileSketch overall = new QuantileSketch(RELATIVE_ACCURACY);
+        Map<YearMonth, QuantileSketch> byMonth = new TreeMap<>();
+        collect(sketches, metric, from, to, type, city, overall, byMonth);
+        for (Map<SketchKey, QuantileSketch> snapshot : imported.values()) {
+            collect(snapshot, metric, from, to, type, city, overall, byMonth);
+        }
+
+        List<Map<String, Object>> months = new ArrayList<>();
+        byMonth.forEach((month, sketch) -> {
+            Map<String, Object> row = summarize(sketch);
+            row.put("month", month.toString());
+            months.add(row);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("metric", metric);
+        result.put("overall", summarize(overall));
+        result.put("months", months);
+        return result;
+    }
+
+    // Compact serialized sketches for persistence or merging into another node. Only local sketches are
+    // exported, so two nodes exchanging snapshots never send back what they received
+    public List<Map<String, Object>> exportSketches() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        sketches.forEach((key, sketch) -> {
+            byte[] bytes;
+            synchronized (sketch) {
+                bytes = sketch.toBytes();
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("metric", key.metric);
+            row.put("type", key.type);
+            row.put("city", key.city);
+            row.put("month", key.month.toString());
+            row.put("sketch", Base64.getEncoder().encodeToString(bytes));
+            result.add(row);
+        });
+        return result;
+    }
+
+    // Replaces the snapshot previously stored for the source. Every entry is decoded and validated
+    // before anything is stored, so a bad payload leaves the previous snapshot in place.
+    public int replaceImportedSketches(String source, List<Map<String, String>> payload) {
+        Map<SketchKey, QuantileSketch> snapshot = new ConcurrentHashMap<>();
+        for (Map<String, String> entry : payload) {
+            QuantileSketch incoming = QuantileSketch.fromBytes(Base64.getDecoder().decode(entry.get("sketch")));
+            SketchKey key = new SketchKey(
+                    Metric.valueOf(entry.get("metric")),
+                    ComplaintType.valueOf(entry.get("type")),
+                    entry.get("city"),
+                    YearMonth.parse(entry.get("month")));
+            snapshot.computeIfAbsent(key, k -> new QuantileSketch(RELATIVE_ACCURACY)).merge(incoming);
+        }
+        imported.put(source, snapshot);
+        logger.info("Stored {} SLA sketches from source {}", snapshot.size(), source);
+        return snapshot.size();
+    }
+
+    private static void collect(Map<SketchKey, QuantileSketch> source, Metric metric, YearMonth from, YearMonth to,
+                                ComplaintType type, String city,
+                                QuantileSketch overall, Map<YearMonth, QuantileSketch> byMonth) {
+        for (Map.Entry<SketchKey, QuantileSketch> entry : source.entrySet()) {
+            SketchKey key = entry.getKey();
+            if (key.matches(metric, from, to, type, city)) {
+                QuantileSketch sketch = entry.getValue();
+                synchronized (sketch) {
+                    overall.merge(sketch);
+                    byMonth.computeIfAbsent(key.month, m -> new QuantileSketch(RELATIVE_ACCURACY)).merge(sketch);
+                }
+            }
+        }
+    }
+
+    private static void record(Map<SketchKey, QuantileSketch> target, Metric metric, ComplaintType type, String city,
+                               LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            return;
+        }
+        double seconds = Duration.between(start, end).toMillis() / 1000.0;
+        QuantileSketch sketch = target.computeIfAbsent(new SketchKey(metric, type, city, YearMonth.from(end)),
+                k -> new QuantileSketch(RELATIVE_ACCURACY));
+        synchronized (sketch) {
+            sketch.add(seconds);
+        }
+    }
+
+    private static Map<String, Object> summarize(QuantileSketch sketch) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", sketch.getCount());
+        if (sketch.getCount() > 0) {
+            summary.put("p50Seconds", sketch.quantile(0.50));
+            summary.put("p90Seconds", sketch.quantile(0.90));
+            summary.put("p99Seconds", sketch.quantile(0.99));
+            summary.put("meanSeconds", sketch.getMean());
+            summary.put("maxSeconds", sketch.getMax());
+        }
+        return summary;
+    }
+
+    private static final class SketchKey {
+        private final Metric metric;
+        private final ComplaintType type;
+        private final String city;
+        private final YearMonth month;
+
+        SketchKey(Metric metric, ComplaintType type, String city, YearMonth month) {
+            this.metric = metric;
+            this.type = type;
+            this.city = city;
+            this.month = month;
+        }
+
+        boolean matches(Metric metric, YearMonth from, YearMonth to, ComplaintType type, String city) {
+            return this.metric == metric
+                    && !month.isBefore(from) && !month.isAfter(to)
+                    && (type == null || this.type == type)
+                    && (city == null || city.equalsIgnoreCase(this.city));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SketchKey)) return false;
+            SketchKey other = (SketchKey) o;
+            return metric == other.metric && type == other.type
+                    && Objects.equals(city, other.city) && month.equals(other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(metric, type, city, month);
+        }
+    }
+}
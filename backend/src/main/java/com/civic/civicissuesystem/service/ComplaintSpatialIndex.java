@@ -0,0 +1,126 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintPoint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.geo.BoundingBox;
+import com.civic.civicissuesystem.geo.GeoMath;
+import com.civic.civicissuesystem.geo.GridSpatialIndex;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory spatial index over every located complaint, loaded once at startup and then kept in
+// sync from ComplaintChangedEvents so bounding-box and radius lookups never scan the table.
+@Component
+public class ComplaintSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSpatialIndex.class);
+
+    // ~1.1 km at the equator; small enough that a city viewport touches a few hundred buckets
+    private static final double CELL_SIZE_DEGREES = 0.01;
+
+    private static final ComplaintType[] TYPES = ComplaintType.values();
+    private static final ComplaintStatus[] STATUSES = ComplaintStatus.values();
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    private final GridSpatialIndex index = new GridSpatialIndex(CELL_SIZE_DEGREES);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ComplaintPoint> points = complaintRepository.findLocatedPoints();
+        lock.writeLock().lock();
+        try {
+            for (ComplaintPoint point : points) {
+                // Events applied while the snapshot was loading are newer, so never overwrite them
+                if (!index.contains(point.getId())) {
+                    index.put(point.getId(), point.getLatitude(), point.getLongitude(),
+                            point.getType().ordinal(), point.getStatus().ordinal());
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Spatial index loaded with {} located complaints", points.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.hasLocation()) {
+                index.put(event.getComplaintId(), event.getLatitude(), event.getLongitude(),
+                        event.getType().ordinal(), event.getStatus().ordinal());
+            } else {
+                index.remove(event.getComplaintId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void forEachWithin(BoundingBox bbox, GridSpatialIndex.PointVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            index.forEachWithin(bbox, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ComplaintPoint> findWithin(BoundingBox bbox, boolean includeResolved, int limit) {
+        List<ComplaintPoint> result = new ArrayList<>();
+        forEachWithin(bbox, (id, lat, lon, type, status) -> {
+            if (result.size() < limit && (includeResolved || status != ComplaintStatus.RESOLVED.ordinal())) {
+                result.add(new ComplaintPoint(id, lat, lon, TYPES[type], STATUSES[status]));
+            }
+        });
+        return result;
+    }
+
+    public List<ComplaintPoint> findNearby(double latitude, double longitude, double radiusMeters,
+                                           boolean includeResolved, int limit) {
+        List<ComplaintPoint> result = new ArrayList<>();
+        forEachWithin(GeoMath.boundsAround(latitude, longitude, radiusMeters), (id, lat, lon, type, status) -> {
+            if (!includeResolved && status == ComplaintStatus.RESOLVED.ordinal()) {
+                return;
+            }
+            double distance = GeoMath.haversineMeters(latitude, longitude, lat, lon);
+            if (distance <= radiusMeters) {
+                result.add(new ComplaintPoint(id, lat, lon, TYPES[type], STATUSES[status], distance));
+            }
+        });
+        result.sort(Comparator.comparingDouble(ComplaintPoint::getDistanceMeters));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+}
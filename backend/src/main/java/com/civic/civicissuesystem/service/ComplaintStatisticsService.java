@@ -0,0 +1,113 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Materialized complaint counters per status, type and city. They are adjusted from each committed
+// ComplaintChangedEvent and periodically overwritten with GROUP BY counts, which also repairs any
+// drift from events that raced with a previous reconciliation.
+@Service
+public class ComplaintStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintStatisticsService.class);
+
+    private static final ComplaintStatus[] STATUSES = ComplaintStatus.values();
+    private static final ComplaintType[] TYPES = ComplaintType.values();
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    private final AtomicLongArray byStatus = new AtomicLongArray(STATUSES.length);
+    private final AtomicLongArray byType = new AtomicLongArray(TYPES.length);
+    private final Map<String, AtomicLong> byCity = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long[] statusCounts = new long[STATUSES.length];
+        for (Object[] row : complaintRepository.countGroupedByStatus()) {
+            statusCounts[((ComplaintStatus) row[0]).ordinal()] = (Long) row[1];
+        }
+        long[] typeCounts = new long[TYPES.length];
+        for (Object[] row : complaintRepository.countGroupedByType()) {
+            typeCounts[((ComplaintType) row[0]).ordinal()] = (Long) row[1];
+        }
+        Map<String, Long> cityCounts = new TreeMap<>();
+        for (Object[] row : complaintRepository.countGroupedByCity()) {
+            cityCounts.put((String) row[0], (Long) row[1]);
+        }
+
+        long drift = 0;
+        for (int i = 0; i < statusCounts.length; i++) {
+            drift += Math.abs(byStatus.getAndSet(i, statusCounts[i]) - statusCounts[i]);
+        }
+        for (int i = 0; i < typeCounts.length; i++) {
+            byType.set(i, typeCounts[i]);
+        }
+        byCity.keySet().retainAll(cityCounts.keySet());
+        cityCounts.forEach((city, count) -> byCity.computeIfAbsent(city, k -> new AtomicLong()).set(count));
+
+        if (drift > 0) {
+            logger.info("Complaint statistics reconciled, corrected drift of {}", drift);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        if (event.isCreation()) {
+            byStatus.incrementAndGet(event.getStatus().ordinal());
+            byType.incrementAndGet(event.getType().ordinal());
+            if (event.getCity() != null) {
+                byCity.computeIfAbsent(event.getCity(), k -> new AtomicLong()).incrementAndGet();
+            }
+        } else if (event.getPreviousStatus() != event.getStatus()) {
+            byStatus.decrementAndGet(event.getPreviousStatus().ordinal());
+            byStatus.incrementAndGet(event.getStatus().ordinal());
+        }
+    }
+
+    public long getCount(ComplaintStatus status) {
+        return byStatus.get(status.ordinal());
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < byStatus.length(); i++) {
+            total += byStatus.get(i);
+        }
+        return total;
+    }
+
+    public Map<ComplaintType, Long> getCountsByType() {
+        Map<ComplaintType, Long> counts = new EnumMap<>(ComplaintType.class);
+        for (ComplaintType type : TYPES) {
+            counts.put(type, byType.get(type.ordinal()));
+        }
+        return counts;
+    }
+
+    public Map<String, Long> getCountsByCity() {
+        Map<String, Long> counts = new TreeMap<>();
+        byCity.forEach((city, count) -> counts.put(city, count.get()));
+        return counts;
+    }
+}
@@ -0,0 +1,223 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.TimeSeriesPoint;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Daily rollups of complaint volume keyed by (type, city). Each day holds a small map of counters,
+// so a query walks at most one entry per day and series regardless of how many rows exist. Filled
+// from two GROUP BY queries at startup, maintained from ComplaintChangedEvents, and rebuilt nightly.
+@Service
+public class ComplaintTimeSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintTimeSeriesService.class);
+
+    private static final int CREATED = 0;
+    private static final int RESOLVED = 1;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        LocalDate periodStart(LocalDate day) {
+            switch (this) {
+                case WEEK:
+                    return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return day.withDayOfMonth(1);
+                default:
+                    return day;
+            }
+        }
+    }
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    private volatile ConcurrentSkipListMap<LocalDate, Map<SeriesKey, AtomicLongArray>> days = new ConcurrentSkipListMap<>();
+    // Events that arrive while a rebuild is running. The rebuild's GROUP BY reads only rows stamped
+    // before its cutoff, and only the buffered changes stamped at or after the cutoff are replayed
+    // into its result, so every change lands in exactly one of the two. Listeners share the read
+    // lock; a rebuild takes the write lock only to start and to swap.
+    private Queue<ComplaintChangedEvent> pending;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // Also called by imports while the application is live
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${analytics.timeseries.rebuild-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        LocalDateTime cutoff;
+        swapLock.writeLock().lock();
+        try {
+            cutoff = LocalDateTime.now();
+            pending = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        ConcurrentSkipListMap<LocalDate, Map<SeriesKey, AtomicLongArray>> fresh = new ConcurrentSkipListMap<>();
+        try {
+            for (Object[] row : complaintRepository.countCreatedPerDay(cutoff)) {
+                counters(fresh, (LocalDate) row[0], (ComplaintType) row[1], (String) row[2]).addAndGet(CREATED, (Long) row[3]);
+            }
+            for (Object[] row : complaintRepository.countResolvedPerDay(cutoff)) {
+                counters(fresh, (LocalDate) row[0], (ComplaintType) row[1], (String) row[2]).addAndGet(RESOLVED, (Long) row[3]);
+            }
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            for (ComplaintChangedEvent event : pending) {
+                record(fresh, event, cutoff);
+            }
+            days = fresh;
+            pending = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        logger.info("Complaint time series rebuilt with {} days of data", fresh.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            record(days, event, null);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Counts what the GROUP BY queries count: creations by createdAt and first resolutions by
+    // resolvedAt. With a cutoff, only changes stamped at or after it are counted.
+    private static void record(ConcurrentSkipListMap<LocalDate, Map<SeriesKey, AtomicLongArray>> target,
+                               ComplaintChangedEvent event, LocalDateTime cutoff) {
+        if (event.isCreation()) {
+            if (event.getCreatedAt() != null && (cutoff == null || !event.getCreatedAt().isBefore(cutoff))) {
+                counters(target, event.getCreatedAt().toLocalDate(), event.getType(), event.getCity()).incrementAndGet(CREATED);
+            }
+        } else if (event.isFirstResolution() && (cutoff == null || !event.getResolvedAt().isBefore(cutoff))) {
+            counters(target, event.getResolvedAt().toLocalDate(), event.getType(), event.getCity()).incrementAndGet(RESOLVED);
+        }
+    }
+
+    public List<TimeSeriesPoint> query(LocalDate from, LocalDate to, Granularity granularity,
+                                       ComplaintType type, String city, boolean splitByCity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        Map<PeriodKey, TimeSeriesPoint> buckets = new HashMap<>();
+        ConcurrentNavigableMap<LocalDate, Map<SeriesKey, AtomicLongArray>> range = days.subMap(from, true, to, true);
+        for (Map.Entry<LocalDate, Map<SeriesKey, AtomicLongArray>> day : range.entrySet()) {
+            LocalDate period = granularity.periodStart(day.getKey());
+            for (Map.Entry<SeriesKey, AtomicLongArray> series : day.getValue().entrySet()) {
+                SeriesKey key = series.getKey();
+                if ((type != null && key.type != type) || (city != null && !city.equalsIgnoreCase(key.city))) {
+                    continue;
+                }
+                String bucketCity = splitByCity ? key.city : null;
+                PeriodKey periodKey = new PeriodKey(period, new SeriesKey(key.type, bucketCity));
+                AtomicLongArray counts = series.getValue();
+                buckets.computeIfAbsent(periodKey, k -> new TimeSeriesPoint(period, key.type, bucketCity))
+                        .add(counts.get(CREATED), counts.get(RESOLVED));
+            }
+        }
+
+        List<TimeSeriesPoint> result = new ArrayList<>(buckets.values());
+        result.sort(Comparator.comparing(TimeSeriesPoint::getPeriod)
+                .thenComparing(TimeSeriesPoint::getType)
+                .thenComparing(TimeSeriesPoint::getCity, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private static AtomicLongArray counters(ConcurrentSkipListMap<LocalDate, Map<SeriesKey, AtomicLongArray>> target,
+                                            LocalDate day, ComplaintType type, String city) {
+        return target.computeIfAbsent(day, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(new SeriesKey(type, city), k -> new AtomicLongArray(2));
+    }
+
+    private static final class SeriesKey {
+        private final ComplaintType type;
+        private final String city;
+
+        SeriesKey(ComplaintType type, String city) {
+            this.type = type;
+            this.city = city;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SeriesKey)) return false;
+            SeriesKey other = (SeriesKey) o;
+            return type == other.type && Objects.equals(city, other.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Objects.hashCode(city);
+        }
+    }
+
+    private static final class PeriodKey {
+        private final LocalDate period;
+        private final SeriesKey series;
+
+        PeriodKey(LocalDate period, SeriesKey series) {
+            this.period = period;
+            this.series = series;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PeriodKey)) return false;
+            PeriodKey other = (PeriodKey) o;
+            return period.equals(other.period) && series.equals(other.series);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * period.hashCode() + series.hashCode();
+        }
+    }
+}
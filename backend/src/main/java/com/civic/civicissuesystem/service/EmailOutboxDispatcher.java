@@ -0,0 +1,366 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.EmailOutbox;
+import com.civic.civicissuesystem.entity.OutboxStatus;
+import com.civic.civicissuesystem.repository.EmailOutboxRepository;
+import com.civic.civicissuesystem.template.EmailField;
+import com.civic.civicissuesystem.template.RenderedEmail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains the email outbox. Each poll claims the queued rows of a batch of due recipients; rows for
+// the same recipient are merged into one digest message, and the messages are sent in groups that
+// share one SMTP connection on the bounded notification pool. A failed delivery goes back to
+// PENDING with exponential backoff (plus jitter, so a recovering SMTP server is not hit by every
+// retry at once) until maxAttempts, then DEAD.
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailTemplateService templateService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${notifications.outbox.from:noreply@civicissuesystem.com}")
+    private String fromAddress;
+
+    // Recipients claimed per poll
+    @Value("${notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    // Messages sent over one SMTP connection
+    @Value("${notifications.outbox.messages-per-connection:20}")
+    private int messagesPerConnection;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notifications.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${notifications.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    // How long a claimed row is reserved for this worker before another poll may take it over
+    @Value("${notifications.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${notifications.digest.enabled:true}")
+    private boolean digestEnabled;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong digestsSent = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong sendMillis = new AtomicLong();
+
+    // Returns the number of messages handed to SMTP. Waits for the batch so polls never overlap;
+    // the lease covers a worker that dies mid-send.
+    @Scheduled(initialDelayString = "${notifications.outbox.poll-interval-ms:2000}",
+               fixedDelayString = "${notifications.outbox.poll-interval-ms:2000}")
+    public int dispatchDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> recipients = outboxRepository.findDueRecipients(now, PageRequest.of(0, batchSize));
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+        List<Outgoing> outgoing = new ArrayList<>();
+        for (String recipient : recipients) {
+            String token = UUID.randomUUID().toString();
+            List<EmailOutbox> claimed = transaction.execute(status -> {
+                if (outboxRepository.claimRecipient(recipient, token, now, leaseUntil) == 0) {
+                    return List.<EmailOutbox>of();
+                }
+                return outboxRepository.findByClaimTokenOrderByIdAsc(token);
+            });
+            if (claimed == null || claimed.isEmpty()) {
+                continue;
+            }
+            if (digestEnabled && claimed.size() > 1) {
+                outgoing.add(new Outgoing(claimed, buildDigest(claimed)));
+            } else {
+                for (EmailOutbox email : claimed) {
+                    outgoing.add(new Outgoing(List.of(email), new RenderedEmail(email.getSubject(), email.getBody(), email.getHtmlBody())));
+                }
+            }
+        }
+
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        for (int from = 0; from < outgoing.size(); from += messagesPerConnection) {
+            List<Outgoing> group = outgoing.subList(from, Math.min(from + messagesPerConnection, outgoing.size()));
+            deliveries.add(CompletableFuture.runAsync(() -> deliver(group), executor));
+        }
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture<?>[]::new)).join();
+        return outgoing.size();
+    }
+
+    private void deliver(List<Outgoing> group) {
+        Map<Outgoing, Exception> failures = new HashMap<>();
+        List<Outgoing> sendable = new ArrayList<>(group.size());
+        List<MimeMessage> messages = new ArrayList<>(group.size());
+        for (Outgoing message : group) {
+            try {
+                messages.add(toMimeMessage(message));
+                sendable.add(message);
+            } catch (MessagingException e) {
+                failures.put(message, e);
+            }
+        }
+
+        // JavaMailSender sends an array over a single connection and reports per-message failures,
+        // keyed by the message instance
+        if (!messages.isEmpty()) {
+            long started = System.nanoTime();
+            try {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failed = e.getFailedMessages();
+                for (int i = 0; i < sendable.size(); i++) {
+                    Exception failure = failed.isEmpty() ? e : failed.get(messages.get(i));
+                    if (failure != null) {
+                        failures.put(sendable.get(i), failure);
+                    }
+                }
+            } catch (Exception e) {
+                for (Outgoing message : sendable) {
+                    failures.put(message, e);
+                }
+            }
+            long elapsedNanos = System.nanoTime() - started;
+            sendMillis.addAndGet(elapsedNanos / 1_000_000);
+            connections.incrementAndGet();
+            // One sample per SMTP connection, so the histogram shows connection latency, not per-message cost
+            String outcome = failures.isEmpty() ? "success" : failures.size() < group.size() ? "partial" : "failure";
+            Timer.builder("mail.send")
+                    .description("JavaMailSender.send over one SMTP connection")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        Map<Long, String> errors = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (Outgoing message : group) {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                messagesSent.incrementAndGet();
+                if (message.rows.size() > 1) {
+                    digestsSent.incrementAndGet();
+                }
+            }
+            for (EmailOutbox row : message.rows) {
+                ids.add(row.getId());
+                if (failure != null) {
+                    errors.put(row.getId(), failure.getClass().getSimpleName() + ": " + failure.getMessage());
+                }
+            }
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (EmailOutbox email : outboxRepository.findAllById(ids)) {
+                String error = errors.get(email.getId());
+                email.setClaimToken(null);
+                if (error == null) {
+                    email.setStatus(OutboxStatus.SENT);
+                    email.setSentAt(now);
+                    email.setLastError(null);
+                    sent.incrementAndGet();
+                    continue;
+                }
+                failedAttempts.incrementAndGet();
+                email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                if (email.getAttempts() >= maxAttempts) {
+                    email.setStatus(OutboxStatus.DEAD);
+                    deadLettered.incrementAndGet();
+                    logger.warn("Email {} to {} dead-lettered after {} attempts: {}", email.getId(), email.getRecipient(), email.getAttempts(), error);
+                } else {
+                    email.setStatus(OutboxStatus.PENDING);
+                    email.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis(email.getAttempts()))));
+                    logger.info("Email {} attempt {} failed, retrying at {}: {}", email.getId(), email.getAttempts(), email.getNextAttemptAt(), error);
+                }
+            }
+        });
+    }
+
+    private MimeMessage toMimeMessage(Outgoing outgoing) throws MessagingException {
+        RenderedEmail email = outgoing.email;
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.getHtml() != null, "UTF-8");
+        helper.setTo(outgoing.rows.get(0).getRecipient());
+        helper.setFrom(fromAddress);
+        helper.setSubject(email.getSubject());
+        if (email.getHtml() != null) {
+            helper.setText(email.getText(), templateService.wrapHtml(email.getHtml(), templateService.getDefaultLocale()));
+        } else {
+            helper.setText(email.getText());
+        }
+        return message;
+    }
+
+    // One message holding every notification queued for the recipient, oldest first. The html
+    // part is only built when every queued email has one.
+    private RenderedEmail buildDigest(List<EmailOutbox> emails) {
+        Locale locale = templateService.getDefaultLocale();
+        Set<Long> complaintIds = new TreeSet<>();
+        StringBuilder text = new StringBuilder();
+        StringBuilder html = new StringBuilder();
+        boolean allHtml = true;
+        for (EmailOutbox email : emails) {
+            if (email.getComplaintId() != null) {
+                complaintIds.add(email.getComplaintId());
+            }
+            allHtml &= email.getHtmlBody() != null;
+
+            String[] item = EmailField.newValues();
+            item[EmailField.SUBJECT.ordinal()] = email.getSubject();
+            item[EmailField.CONTENT.ordinal()] = email.getBody();
+            text.append(templateService.render(EmailTemplateService.DIGEST_ITEM, locale, item).getText()).append("\n\n");
+            if (allHtml) {
+                item[EmailField.CONTENT.ordinal()] = email.getHtmlBody();
+                html.append(templateService.render(EmailTemplateService.DIGEST_ITEM, locale, item).getHtml()).append('\n');
+            }
+        }
+
+        String[] values = EmailField.newValues();
+        values[EmailField.COUNT.ordinal()] = String.valueOf(emails.size());
+        if (complaintIds.size() == 1) {
+            values[EmailField.COMPLAINT_ID.ordinal()] = String.valueOf(complaintIds.iterator().next());
+        }
+        values[EmailField.CONTENT.ordinal()] = text.toString().stripTrailing();
+        RenderedEmail textDigest = templateService.render(EmailTemplateService.DIGEST, locale, values);
+        String htmlDigest = null;
+        if (allHtml) {
+            values[EmailField.CONTENT.ordinal()] = html.toString();
+            htmlDigest = templateService.render(EmailTemplateService.DIGEST, locale, values).getHtml();
+        }
+        return new RenderedEmail(textDigest.getSubject(), textDigest.getText(), htmlDigest);
+    }
+
+    private static class Outgoing {
+        final List<EmailOutbox> rows;
+        final RenderedEmail email;
+
+        Outgoing(List<EmailOutbox> rows, RenderedEmail email) {
+            this.rows = rows;
+            this.email = email;
+        }
+    }
+
+    // initialBackoff * 2^(attempts-1), capped, then spread over [75%, 100%] of that delay
+    long backoffMillis(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > maxBackoffMs) {
+            delay = maxBackoffMs;
+        }
+        return delay - ThreadLocalRandom.current().nextLong(delay / 4 + 1);
+    }
+
+    // Puts a dead letter back in the queue with a fresh attempt budget
+    @Transactional
+    public EmailOutbox retry(Long id) {
+        EmailOutbox email = outboxRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Outbox email not found: " + id));
+        if (email.getStatus() != OutboxStatus.DEAD) {
+            throw new IllegalStateException("Only dead emails can be retried, this one is " + email.getStatus());
+        }
+        email.setStatus(OutboxStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(LocalDateTime.now());
+        return outboxRepository.save(email);
+    }
+
+    public List<EmailOutbox> getDeadLetters(int limit) {
+        return outboxRepository.findByStatusOrderByNextAttemptAtDesc(OutboxStatus.DEAD, PageRequest.of(0, limit));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<OutboxStatus, Long> byStatus = new EnumMap<>(OutboxStatus.class);
+        for (OutboxStatus status : OutboxStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (Object[] row : outboxRepository.countGroupedByStatus()) {
+            byStatus.put((OutboxStatus) row[0], (Long) row[1]);
+        }
+
+        long connectionCount = connections.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queued", byStatus);
+        metrics.put("sent", sent.get());
+        metrics.put("messagesSent", messagesSent.get());
+        metrics.put("digestsSent", digestsSent.get());
+        metrics.put("smtpConnections", connections.get());
+        metrics.put("failedAttempts", failedAttempts.get());
+        metrics.put("deadLettered", deadLettered.get());
+        metrics.put("averageConnectionMillis", connectionCount == 0 ? 0 : sendMillis.get() / connectionCount);
+        metrics.put("workerThreads", executor.getPoolSize());
+        metrics.put("workerQueueSize", executor.getQueueSize());
+        return metrics;
+    }
+
+    // Delivered rows are only kept for troubleshooting
+    @Scheduled(cron = "${notifications.outbox.cleanup-cron:0 0 4 * * *}")
+    public void deleteOldSentEmails() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer deleted = transaction.execute(status -> outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(7)));
+        logger.info("Deleted {} delivered outbox emails older than 7 days", deleted);
+    }
+}
@@ -0,0 +1,140 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.template.EmailField;
+import com.civic.civicissuesystem.template.MessageTemplate;
+import com.civic.civicissuesystem.template.RenderedEmail;
+import com.civic.civicissuesystem.template.Template;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Email templates, compiled once at startup from templates/email/*.tmpl on the classpath and,
+// when notifications.templates.dir is set, from that directory (whose files win, so wording can
+// be changed with a restart instead of a rebuild). A file named name_es.tmpl or name_pt_BR.tmpl
+// is the variant of name.tmpl for that locale; lookups fall back from the full locale to its
+// language and then to the unsuffixed file.
+@Service
+public class EmailTemplateService {
+
+    public static final String COMPLAINT_SUBMITTED = "complaint-submitted";
+    public static final String STATUS_UPDATED = "status-updated";
+    public static final String RESOLUTION_CONFIRMATION = "resolution-confirmation";
+    public static final String DIGEST = "digest";
+    public static final String DIGEST_ITEM = "digest-item";
+    public static final String LAYOUT = "layout";
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateService.class);
+
+    private static final List<String> MESSAGES = List.of(COMPLAINT_SUBMITTED, STATUS_UPDATED, RESOLUTION_CONFIRMATION, DIGEST);
+
+    @Value("${notifications.templates.dir:}")
+    private String templatesDir;
+
+    @Value("${notifications.locale:en}")
+    private String defaultLocaleTag;
+
+    private Map<String, MessageTemplate> templates = Map.of();
+    private Locale defaultLocale;
+
+    // Rendering appends into a per-thread buffer that is reused across messages
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    @PostConstruct
+    public void load() throws IOException {
+        defaultLocale = Locale.forLanguageTag(defaultLocaleTag.replace('_', '-'));
+        Map<String, MessageTemplate> loaded = new HashMap<>();
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        loadAll(resolver.getResources("classpath*:templates/email/*.tmpl"), loaded);
+        if (!templatesDir.isBlank()) {
+            loadAll(resolver.getResources("file:" + templatesDir + "/*.tmpl"), loaded);
+        }
+        templates = Map.copyOf(loaded);
+
+        for (String name : MESSAGES) {
+            MessageTemplate template = templates.get(name);
+            if (template == null || template.getSubject() == null || template.getText() == null) {
+                throw new IllegalStateException("Email template " + name + ".tmpl needs a subject and a text part");
+            }
+        }
+        if (templates.get(LAYOUT) == null || templates.get(LAYOUT).getHtml() == null) {
+            throw new IllegalStateException("Email template " + LAYOUT + ".tmpl needs an html part");
+        }
+        if (templates.get(DIGEST_ITEM) == null || templates.get(DIGEST_ITEM).getText() == null) {
+            throw new IllegalStateException("Email template " + DIGEST_ITEM + ".tmpl needs a text part");
+        }
+        logger.info("Compiled {} email templates", templates.size());
+    }
+
+    private static void loadAll(Resource[] resources, Map<String, MessageTemplate> loaded) throws IOException {
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            if (fileName == null) {
+                continue;
+            }
+            String key = fileName.substring(0, fileName.length() - ".tmpl".length());
+            String source = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                loaded.put(key, MessageTemplate.parse(source, EmailField::slotOf));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid email template " + fileName + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    public RenderedEmail render(String name, Locale locale, String[] values) {
+        MessageTemplate template = resolve(name, locale);
+        return new RenderedEmail(
+                render(template.getSubject(), values),
+                render(template.getText(), values),
+                render(template.getHtml(), values));
+    }
+
+    // The html part of a message, or of a digest, inside the shared layout
+    public String wrapHtml(String fragment, Locale locale) {
+        String[] values = EmailField.newValues();
+        values[EmailField.CONTENT.ordinal()] = fragment;
+        return render(resolve(LAYOUT, locale).getHtml(), values);
+    }
+
+    private String render(Template template, String[] values) {
+        if (template == null) {
+            return null;
+        }
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.render(values, buffer);
+        return buffer.toString();
+    }
+
+    private MessageTemplate resolve(String name, Locale locale) {
+        if (locale != null) {
+            MessageTemplate template = templates.get(name + "_" + locale);
+            if (template == null && !locale.getLanguage().isEmpty()) {
+                template = templates.get(name + "_" + locale.getLanguage());
+            }
+            if (template != null) {
+                return template;
+            }
+        }
+        MessageTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("No email template named " + name);
+        }
+        return template;
+    }
+}
@@ -1,51 +1,279 @@
 package com.civic.civicissuesystem.service;
 
+import com.civic.civicissuesystem.entity.StoredBlob;
+import com.civic.civicissuesystem.repository.StoredBlobRepository;
+import com.civic.civicissuesystem.upload.ContentAddressedStore;
+import com.civic.civicissuesystem.upload.ImageType;
+import com.civic.civicissuesystem.upload.MultipartStreamReader;
+import com.civic.civicissuesystem.upload.StoredUpload;
+import com.civic.civicissuesystem.upload.UploadRejectedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 
+// Single upload pipeline for complaint photos. The multipart request body is parsed as it
+// arrives (Spring's multipart resolver is switched off, see spring.servlet.multipart.enabled),
+// and the file part is written chunk by chunk from one fixed buffer to a temp file through a
+// FileChannel. Size and type are checked while streaming, so an oversized or non-image upload is
+// refused without being stored, and only complete files are moved into place, atomically.
+// The SHA-256 is computed on the same pass and names the file in a ContentAddressedStore, so an
+// image that was uploaded before is kept once and its existing URL is returned.
 @Service
 public class FileUploadService {
     
-    private static final String UPLOAD_DIR = "uploads/";
+    private static final Logger logger = LoggerFactory.getLogger(FileUploadService.class);
     
-    public String uploadFile(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File is empty");
+    private static final String FILE_FIELD = "file";
+    private static final int CLEANUP_BATCH = 500;
+    // Allowance for boundaries and part headers when checking Content-Length up front
+    private static final long MULTIPART_OVERHEAD = 16 * 1024;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private StoredBlobRepository blobRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${upload.directory:uploads}")
+    private String uploadDirectory;
+    
+    @Value("${upload.max-file-size:10MB}")
+    private DataSize maxFileSize;
+    
+    @Value("${upload.buffer-size:64KB}")
+    private DataSize bufferSize;
+    
+    // How long an upload may stay unattached to a complaint before it is deleted
+    @Value("${upload.unreferenced-grace-hours:24}")
+    private long unreferencedGraceHours;
+    
+    private Path uploadPath;
+    private Path tempPath;
+    private ContentAddressedStore store;
+    private TransactionTemplate transaction;
+    
+    @PostConstruct
+    void init() throws IOException {
+        uploadPath = Paths.get(uploadDirectory);
+        // Inside the upload directory so the final move stays on one file system and is atomic
+        tempPath = uploadPath.resolve(".tmp");
+        Files.createDirectories(tempPath);
+        store = new ContentAddressedStore(uploadPath);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+    
+    public StoredUpload store(InputStream body, String contentType, long contentLength) throws IOException {
+        if (contentLength > maxFileSize.toBytes() + MULTIPART_OVERHEAD) {
+            throw tooLarge();
         }
-        
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        MultipartStreamReader reader = new MultipartStreamReader(body, boundaryOf(contentType), (int) bufferSize.toBytes());
+        while (reader.nextPart()) {
+            if (FILE_FIELD.equals(reader.getName()) && reader.getFileName() != null) {
+                return write(reader);
+            }
         }
+        throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "No file part named '" + FILE_FIELD + "'");
+    }
+    
+    // Lets a client that already knows the hash of its file skip sending it. Counts as an upload
+    // of that content, so the blob is not swept before the client attaches it.
+    public Optional<StoredUpload> findExisting(String hash) {
+        if (!ContentAddressedStore.isHash(hash)) {
+            throw new IllegalArgumentException("Expected a lowercase hex SHA-256");
+        }
+        synchronized (store.lockFor(hash)) {
+            Optional<StoredBlob> blob = blobRepository.findById(hash);
+            if (blob.isEmpty() || !store.exists(hash, blob.get().getType())) {
+                return Optional.empty();
+            }
+            transaction.executeWithoutResult(status -> blobRepository.touch(hash, LocalDateTime.now()));
+            return Optional.of(new StoredUpload(hash, null, blob.get().getType(), blob.get().getSize(), true));
+        }
+    }
+    
+    // Deletes blobs that no complaint references and that nobody uploaded within the grace period:
+    // photos picked in a form that was never submitted
+    @Scheduled(cron = "${upload.cleanup-cron:0 45 4 * * *}")
+    public void deleteUnreferencedBlobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(unreferencedGraceHours);
+        int deleted = 0;
+        List<StoredBlob> batch;
+        do {
+            batch = blobRepository.findUnreferenced(cutoff, PageRequest.of(0, CLEANUP_BATCH));
+            for (StoredBlob blob : batch) {
+                synchronized (store.lockFor(blob.getHash())) {
+                    Integer removed = transaction.execute(status -> blobRepository.deleteIfUnreferenced(blob.getHash(), cutoff));
+                    if (removed != null && removed > 0) {
+                        try {
+                            store.delete(blob.getHash(), blob.getType());
+                            deleted++;
+                        } catch (IOException e) {
+                            logger.warn("Could not delete unreferenced upload {}", blob.getHash(), e);
+                        }
+                    }
+                }
+            }
+        } while (batch.size() == CLEANUP_BATCH);
+        logger.info("Deleted {} unreferenced uploads older than {} hours", deleted, unreferencedGraceHours);
+    }
+    
+    private StoredUpload write(MultipartStreamReader reader) throws IOException {
+        String declaredType = reader.getContentType();
+        if (declaredType != null && !declaredType.startsWith("image/")
+                && !declaredType.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+            throw unsupported();
+        }
+        String originalFilename = reader.getFileName();
         
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename != null && originalFilename.contains(".") 
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : "";
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        return "/uploads/" + uniqueFilename;
+        Path temp = Files.createTempFile(tempPath, "upload-", ".part");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            byte[] signature = new byte[ImageType.SIGNATURE_LENGTH];
+            int signatureLength = 0;
+            ImageType type = null;
+            long size = 0;
+            MessageDigest digest = sha256();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (ByteBuffer chunk; (chunk = reader.readChunk()) != null; ) {
+                    size += chunk.remaining();
+                    if (size > maxFileSize.toBytes()) {
+                        throw tooLarge();
+                    }
+                    if (type == null && signatureLength < signature.length) {
+                        int n = Math.min(signature.length - signatureLength, chunk.remaining());
+                        chunk.get(chunk.position(), signature, signatureLength, n);
+                        signatureLength += n;
+                        if (signatureLength == signature.length) {
+                            type = detect(signature, signatureLength);
+                        }
+                    }
+                    digest.update(chunk.duplicate());
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+            }
+            if (size == 0) {
+                throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "File is empty");
+            }
+            if (type == null) {
+                type = detect(signature, signatureLength);
+            }
+            
+            String hash = HexFormat.of().formatHex(digest.digest());
+            boolean placed;
+            synchronized (store.lockFor(hash)) {
+                // Registered before the file is placed, so the sweep cannot take the row away
+                // between the two
+                register(hash, type, size);
+                placed = store.place(temp, hash, type);
+            }
+            DistributionSummary.builder("file.upload.size").baseUnit("bytes").register(meterRegistry).record(size);
+            outcome = placed ? "success" : "duplicate";
+            return new StoredUpload(hash, originalFilename, type, size, !placed);
+        } catch (UploadRejectedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            Files.deleteIfExists(temp);
+            sample.stop(meterRegistry.timer("file.upload.write", "outcome", outcome));
+        }
+    }
+    
+    private void register(String hash, ImageType type, long size) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (blobRepository.touch(hash, now) == 0) {
+                    blobRepository.save(new StoredBlob(hash, type, size));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance registered the same content first
+            transaction.executeWithoutResult(status -> blobRepository.touch(hash, now));
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
     
-    public boolean deleteFile(String filePath) {
+    private ImageType detect(byte[] signature, int length) {
+        ImageType type = ImageType.detect(signature, length);
+        if (type == null) {
+            throw unsupported();
+        }
+        return type;
+    }
+    
+    private static String boundaryOf(String contentType) {
+        MediaType mediaType;
         try {
-            Path path = Paths.get(filePath.replace("/uploads/", UPLOAD_DIR));
-            return Files.deleteIfExists(path);
-        } catch (IOException e) {
-            return false;
+            mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+        } catch (IllegalArgumentException e) {
+            mediaType = null;
+        }
+        if (mediaType == null || !MediaType.MULTIPART_FORM_DATA.includes(mediaType)) {
+            throw new UploadRejectedException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Expected a multipart/form-data request");
+        }
+        String boundary = mediaType.getParameter("boundary");
+        if (boundary != null && boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+            boundary = boundary.substring(1, boundary.length() - 1);
+        }
+        if (boundary == null || boundary.isEmpty()) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "Multipart request has no boundary");
         }
+        if (boundary.length() > MultipartStreamReader.MAX_BOUNDARY_LENGTH) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST,
+                    "Multipart boundary is longer than " + MultipartStreamReader.MAX_BOUNDARY_LENGTH + " characters");
+        }
+        return boundary;
+    }
+    
+    private UploadRejectedException tooLarge() {
+        return new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "File is larger than " + maxFileSize.toBytes() + " bytes");
+    }
+    
+    private static UploadRejectedException unsupported() {
+        return new UploadRejectedException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Only JPEG, PNG, GIF, WebP and HEIC images can be uploaded");
     }
 }
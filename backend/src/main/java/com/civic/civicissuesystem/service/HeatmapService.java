@@ -0,0 +1,167 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintPoint;
+import com.civic.civicissuesystem.dto.HeatmapGridResponse;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.geo.BoundingBox;
+import com.civic.civicissuesystem.geo.HeatmapTileCodec;
+import com.civic.civicissuesystem.geo.WebMercator;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional(readOnly = true)
+public class HeatmapService {
+
+    // A 256px map tile is split into 16x16 cells, so each cell is roughly 16px on screen
+    private static final int CELLS_PER_TILE = 16;
+    private static final int MAX_ZOOM = 20;
+    private static final double MIN_CELL_SIZE = 0.00001;
+    private static final double MAX_CELL_SIZE = 10.0;
+    // About a 16x16 grid of cells per tile across a 4K screen; finer grids are one cell per point
+    private static final double MAX_CELLS = 65536;
+
+    private static final ComplaintType[] TYPES = ComplaintType.values();
+    private static final ComplaintStatus[] STATUSES = ComplaintStatus.values();
+    private static final int RESOLVED = ComplaintStatus.RESOLVED.ordinal();
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ComplaintSpatialIndex spatialIndex;
+
+    public static double cellSizeForZoom(int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        return 360.0 / (1L << zoom) / CELLS_PER_TILE;
+    }
+
+    public HeatmapGridResponse aggregateGrid(BoundingBox bbox, double cellSize) {
+        if (cellSize < MIN_CELL_SIZE || cellSize > MAX_CELL_SIZE) {
+            throw new IllegalArgumentException("Cell size must be between " + MIN_CELL_SIZE + " and " + MAX_CELL_SIZE + " degrees");
+        }
+        double latCells = Math.floor(bbox.getMaxLat() / cellSize) - Math.floor(bbox.getMinLat() / cellSize) + 1;
+        double lonCells = Math.floor(bbox.getMaxLon() / cellSize) - Math.floor(bbox.getMinLon() / cellSize) + 1;
+        if (latCells * lonCells > MAX_CELLS) {
+            throw new IllegalArgumentException("Grid of " + (long) (latCells * lonCells) + " cells exceeds the maximum of "
+                    + (long) MAX_CELLS + "; use a larger cell size or a smaller bounding box");
+        }
+
+        // Cells are anchored at (0,0) so the same cell keeps the same key while the map pans
+        Map<Long, CellCounter> cells = new HashMap<>();
+        long[] total = new long[1];
+        if (spatialIndex.isReady()) {
+            spatialIndex.forEachWithin(bbox, (id, lat, lon, type, status) -> {
+                if (status != RESOLVED) {
+                    addToCell(cells, cellSize, lat, lon, type, status);
+                    total[0]++;
+                }
+            });
+        } else {
+            List<ComplaintPoint> points = complaintRepository.findUnresolvedPointsWithin(
+                    bbox.getMinLat(), bbox.getMinLon(), bbox.getMaxLat(), bbox.getMaxLon());
+            for (ComplaintPoint point : points) {
+                addToCell(cells, cellSize, point.getLatitude(), point.getLongitude(),
+                        point.getType().ordinal(), point.getStatus().ordinal());
+            }
+            total[0] = points.size();
+        }
+
+        List<HeatmapGridResponse.Cell> result = new ArrayList<>(cells.size());
+        for (CellCounter counter : cells.values()) {
+            result.add(counter.toCell(cellSize));
+        }
+        return new HeatmapGridResponse(bbox.toString(), cellSize, total[0], result);
+    }
+
+    public byte[] encodeTile(int z, int x, int y) {
+        BoundingBox bounds = tileBounds(z, x, y);
+        HeatmapTileCodec.Builder tile = new HeatmapTileCodec.Builder(z, x, y);
+        spatialIndex.forEachWithin(bounds, (id, lat, lon, type, status) -> {
+            if (status != RESOLVED) {
+                tile.add(lat, lon, type, status);
+            }
+        });
+        return tile.encode();
+    }
+
+    // Capped like the other point endpoints; at low zooms clients should use the binary tile or
+    // the clusters instead
+    public List<ComplaintPoint> getTilePoints(int z, int x, int y, int limit) {
+        return spatialIndex.findWithin(tileBounds(z, x, y), false, limit);
+    }
+
+    private static BoundingBox tileBounds(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        long tiles = 1L << z;
+        if (x < 0 || y < 0 || x >= tiles || y >= tiles) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " does not exist");
+        }
+        return WebMercator.tileBounds(z, x, y);
+    }
+
+    private static void addToCell(Map<Long, CellCounter> cells, double cellSize,
+                                  double latitude, double longitude, int type, int status) {
+        long latIndex = (long) Math.floor(latitude / cellSize);
+        long lonIndex = (long) Math.floor(longitude / cellSize);
+        long key = (latIndex << 32) | (lonIndex & 0xffffffffL);
+
+        CellCounter counter = cells.get(key);
+        if (counter == null) {
+            counter = new CellCounter(latIndex, lonIndex);
+            cells.put(key, counter);
+        }
+        counter.add(type, status);
+    }
+
+    private static class CellCounter {
+        private final long latIndex;
+        private final long lonIndex;
+        private final int[] byType = new int[TYPES.length];
+        private final int[] byStatus = new int[STATUSES.length];
+        private int count;
+
+        CellCounter(long latIndex, long lonIndex) {
+            this.latIndex = latIndex;
+            this.lonIndex = lonIndex;
+        }
+
+        void add(int type, int status) {
+            count++;
+            byType[type]++;
+            byStatus[status]++;
+        }
+
+        HeatmapGridResponse.Cell toCell(double cellSize) {
+            Map<ComplaintType, Integer> types = new EnumMap<>(ComplaintType.class);
+            for (int i = 0; i < byType.length; i++) {
+                if (byType[i] > 0) {
+                    types.put(TYPES[i], byType[i]);
+                }
+            }
+            Map<ComplaintStatus, Integer> statuses = new EnumMap<>(ComplaintStatus.class);
+            for (int i = 0; i < byStatus.length; i++) {
+                if (byStatus[i] > 0) {
+                    statuses.put(STATUSES[i], byStatus[i]);
+                }
+            }
+            return new HeatmapGridResponse.Cell(
+                    (latIndex + 0.5) * cellSize,
+                    (lonIndex + 0.5) * cellSize,
+                    count, types, statuses);
+        }
+    }
+}
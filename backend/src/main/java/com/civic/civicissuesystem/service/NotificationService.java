@@ -1,140 +1,75 @@
 package com.civic.civicissuesystem.service;
 
-import com.civic.civicissuesystem.entity.Complaint;
 import com.civic.civicissuesystem.entity.ComplaintStatus;
-import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.entity.EmailOutbox;
+import com.civic.civicissuesystem.event.ComplaintChangedEvent;
+import com.civic.civicissuesystem.repository.EmailOutboxRepository;
+import com.civic.civicissuesystem.template.EmailField;
+import com.civic.civicissuesystem.template.RenderedEmail;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
+// Renders reporter emails from the event snapshot and queues them in the outbox. Must be called
+// inside the transaction that made the change, so the email exists exactly when the change does;
+// EmailOutboxDispatcher delivers it later.
 @Service
 public class NotificationService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private EmailTemplateService templateService;
+
+    // Emails are held this long so that further notifications for the same recipient can join
+    // them in one digest, e.g. IN_PROGRESS and RESOLVED set a minute apart
+    @Value("${notifications.digest.window-ms:60000}")
+    private long digestWindowMs;
 
-    public void sendComplaintSubmittedNotification(Complaint complaint) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(complaint.getUser().getEmail());
-            message.setSubject("Complaint Submitted Successfully - #" + complaint.getId());
-            message.setText(buildComplaintSubmittedEmail(complaint));
-            message.setFrom("noreply@civicissuesystem.com");
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Log error but don't fail the complaint submission
-            System.err.println("Failed to send email notification: " + e.getMessage());
-        }
+    public void queueComplaintSubmittedNotification(ComplaintChangedEvent complaint) {
+        String[] values = values(complaint);
+        values[EmailField.SUBMITTED_AT.ordinal()] = String.valueOf(complaint.getCreatedAt());
+        values[EmailField.DESCRIPTION.ordinal()] = complaint.getDescription();
+        queue(complaint, EmailTemplateService.COMPLAINT_SUBMITTED, values);
     }
 
-    public void sendStatusUpdateNotification(Complaint complaint, ComplaintStatus oldStatus, ComplaintStatus newStatus) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(complaint.getUser().getEmail());
-            message.setSubject("Complaint Status Updated - #" + complaint.getId());
-            message.setText(buildStatusUpdateEmail(complaint, oldStatus, newStatus));
-            message.setFrom("noreply@civicissuesystem.com");
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Log error but don't fail the status update
-            System.err.println("Failed to send status update email: " + e.getMessage());
-        }
+    public void queueStatusUpdateNotification(ComplaintChangedEvent complaint) {
+        String[] values = values(complaint);
+        values[EmailField.PREVIOUS_STATUS.ordinal()] = String.valueOf(complaint.getPreviousStatus());
+        values[EmailField.RESOLVED.ordinal()] = flag(complaint.getStatus() == ComplaintStatus.RESOLVED);
+        values[EmailField.IN_PROGRESS.ordinal()] = flag(complaint.getStatus() == ComplaintStatus.IN_PROGRESS);
+        queue(complaint, EmailTemplateService.STATUS_UPDATED, values);
     }
 
-    public void sendResolutionConfirmationRequest(Complaint complaint) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(complaint.getUser().getEmail());
-            message.setSubject("Resolution Confirmation Required - #" + complaint.getId());
-            message.setText(buildResolutionConfirmationEmail(complaint));
-            message.setFrom("noreply@civicissuesystem.com");
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            System.err.println("Failed to send resolution confirmation email: " + e.getMessage());
-        }
+    public void queueResolutionConfirmationRequest(ComplaintChangedEvent complaint) {
+        queue(complaint, EmailTemplateService.RESOLUTION_CONFIRMATION, values(complaint));
     }
 
-    private String buildComplaintSubmittedEmail(Complaint complaint) {
-        StringBuilder email = new StringBuilder();
-        email.append("Dear ").append(complaint.getUser().getName()).append(",\n\n");
-        email.append("Thank you for submitting your complaint. We have received your report and it has been assigned the following details:\n\n");
-        email.append("Complaint ID: #").append(complaint.getId()).append("\n");
-        email.append("Title: ").append(complaint.getTitle()).append("\n");
-        email.append("Type: ").append(complaint.getType()).append("\n");
-        email.append("Status: ").append(complaint.getStatus()).append("\n");
-        email.append("Submitted: ").append(complaint.getCreatedAt()).append("\n\n");
-        
-        if (complaint.getAddress() != null) {
-            email.append("Location: ").append(complaint.getAddress());
-            if (complaint.getCity() != null) {
-                email.append(", ").append(complaint.getCity());
-            }
-            email.append("\n\n");
-        }
-        
-        email.append("Description:\n").append(complaint.getDescription()).append("\n\n");
-        email.append("We will review your complaint and update you on its progress. You can track the status of your complaint by logging into your account.\n\n");
-        email.append("Thank you for helping us improve our community.\n\n");
-        email.append("Best regards,\n");
-        email.append("Civic Issue Management Team");
-        
-        return email.toString();
+    private String[] values(ComplaintChangedEvent complaint) {
+        String[] values = EmailField.newValues();
+        values[EmailField.REPORTER_NAME.ordinal()] = complaint.getReporterName();
+        values[EmailField.COMPLAINT_ID.ordinal()] = String.valueOf(complaint.getComplaintId());
+        values[EmailField.TITLE.ordinal()] = complaint.getTitle();
+        values[EmailField.TYPE.ordinal()] = String.valueOf(complaint.getType());
+        values[EmailField.STATUS.ordinal()] = String.valueOf(complaint.getStatus());
+        values[EmailField.ADDRESS.ordinal()] = complaint.getAddress();
+        values[EmailField.CITY.ordinal()] = complaint.getCity();
+        values[EmailField.ADMIN_NOTES.ordinal()] = complaint.getAdminNotes();
+        return values;
     }
 
-    private String buildStatusUpdateEmail(Complaint complaint, ComplaintStatus oldStatus, ComplaintStatus newStatus) {
-        StringBuilder email = new StringBuilder();
-        email.append("Dear ").append(complaint.getUser().getName()).append(",\n\n");
-        email.append("We have an update regarding your complaint #").append(complaint.getId()).append(".\n\n");
-        email.append("Status has been updated from ").append(oldStatus).append(" to ").append(newStatus).append(".\n\n");
-        
-        if (complaint.getAdminNotes() != null && !complaint.getAdminNotes().isEmpty()) {
-            email.append("Admin Notes:\n").append(complaint.getAdminNotes()).append("\n\n");
-        }
-        
-        email.append("Complaint Details:\n");
-        email.append("Title: ").append(complaint.getTitle()).append("\n");
-        email.append("Type: ").append(complaint.getType()).append("\n");
-        email.append("Current Status: ").append(newStatus).append("\n\n");
-        
-        if (newStatus == ComplaintStatus.RESOLVED) {
-            email.append("Your complaint has been marked as resolved. If you are satisfied with the resolution, no further action is required. ");
-            email.append("If you have any concerns, please contact us.\n\n");
-        } else if (newStatus == ComplaintStatus.IN_PROGRESS) {
-            email.append("We are currently working on resolving your complaint. We will keep you updated on the progress.\n\n");
-        }
-        
-        email.append("You can view the full details and track progress by logging into your account.\n\n");
-        email.append("Thank you for your patience.\n\n");
-        email.append("Best regards,\n");
-        email.append("Civic Issue Management Team");
-        
-        return email.toString();
+    private static String flag(boolean value) {
+        return value ? "true" : null;
     }
 
-    private String buildResolutionConfirmationEmail(Complaint complaint) {
-        StringBuilder email = new StringBuilder();
-        email.append("Dear ").append(complaint.getUser().getName()).append(",\n\n");
-        email.append("We believe your complaint #").append(complaint.getId()).append(" has been resolved.\n\n");
-        email.append("Complaint Details:\n");
-        email.append("Title: ").append(complaint.getTitle()).append("\n");
-        email.append("Type: ").append(complaint.getType()).append("\n");
-        email.append("Location: ").append(complaint.getAddress()).append("\n\n");
-        
-        if (complaint.getAdminNotes() != null && !complaint.getAdminNotes().isEmpty()) {
-            email.append("Resolution Details:\n").append(complaint.getAdminNotes()).append("\n\n");
-        }
-        
-        email.append("Please confirm if the issue has been resolved to your satisfaction by logging into your account and updating the status.\n\n");
-        email.append("If you confirm the resolution, your complaint will be marked as completed. ");
-        email.append("If you have any concerns or the issue persists, please let us know.\n\n");
-        email.append("Thank you for helping us maintain our community standards.\n\n");
-        email.append("Best regards,\n");
-        email.append("Civic Issue Management Team");
-        
-        return email.toString();
+    private void queue(ComplaintChangedEvent complaint, String template, String[] values) {
+        RenderedEmail rendered = templateService.render(template, templateService.getDefaultLocale(), values);
+        EmailOutbox email = new EmailOutbox(complaint.getReporterEmail(), rendered.getSubject(), rendered.getText(), complaint.getComplaintId());
+        email.setHtmlBody(rendered.getHtml());
+        email.setNextAttemptAt(LocalDateTime.now().plusNanos(digestWindowMs * 1_000_000));
+        outboxRepository.save(email);
     }
 }
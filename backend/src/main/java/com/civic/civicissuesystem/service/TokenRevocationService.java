@@ -0,0 +1,129 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.RevokedToken;
+import com.civic.civicissuesystem.repository.RevokedTokenRepository;
+import com.civic.civicissuesystem.security.TokenDenyList;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Revoked tokens live in the revoked_tokens table, which every instance polls into an in-memory
+// TokenDenyList, so the request path never queries the database. A revocation takes effect on the
+// instance that recorded it immediately and on the others within one sync interval.
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${security.revocation.bucket-minutes:60}")
+    private long bucketMinutes;
+
+    @Value("${security.revocation.expected-per-bucket:10000}")
+    private int expectedPerBucket;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Rows are found by the writer's clock and become visible only when committed, so each sync
+    // re-reads this much history to cover clock skew between instances and slow commits
+    @Value("${security.revocation.sync-lookback-ms:60000}")
+    private long syncLookbackMs;
+
+    private TokenDenyList denyList;
+    private volatile LocalDateTime lastSyncedAt;
+
+    @PostConstruct
+    void init() {
+        denyList = new TokenDenyList(bucketMinutes * 60_000, expectedPerBucket, falsePositiveRate);
+    }
+
+    public void revoke(Claims claims, Long userId) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null) {
+            throw new IllegalArgumentException("Token cannot be revoked because it has no id or expiry");
+        }
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            try {
+                revokedTokenRepository.save(new RevokedToken(jti, userId, toLocalDateTime(expiration)));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent logout with the same token recorded it first
+                logger.debug("Token {} was already revoked", jti);
+            }
+        }
+        denyList.add(jti, expiration.getTime());
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        return jti != null && expiration != null && denyList.contains(jti, expiration.getTime());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync();
+        logger.info("Token deny list loaded with {} revoked tokens", denyList.size());
+    }
+
+    @Scheduled(initialDelayString = "${security.revocation.sync-interval-ms:30000}",
+               fixedDelayString = "${security.revocation.sync-interval-ms:30000}")
+    public synchronized void sync() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Object[]> rows = lastSyncedAt == null
+                ? revokedTokenRepository.findActive(startedAt)
+                : revokedTokenRepository.findActiveRevokedSince(lastSyncedAt.minusNanos(syncLookbackMs * 1_000_000), startedAt);
+        for (Object[] row : rows) {
+            denyList.add((String) row[0], toEpochMillis((LocalDateTime) row[1]));
+        }
+        denyList.evictExpired(System.currentTimeMillis());
+        lastSyncedAt = startedAt;
+    }
+
+    @Scheduled(cron = "${security.revocation.cleanup-cron:0 15 4 * * *}")
+    public void deleteExpired() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer deleted = transaction.execute(status -> revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        logger.info("Deleted {} revoked tokens past their expiry", deleted);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("revokedTokens", denyList.size());
+        metrics.put("buckets", denyList.bucketCount());
+        metrics.put("bloomFalsePositives", denyList.falsePositiveCount());
+        metrics.put("lastSyncedAt", lastSyncedAt);
+        return metrics;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
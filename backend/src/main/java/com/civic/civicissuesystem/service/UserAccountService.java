@@ -0,0 +1,50 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.event.UserAccountChangedEvent;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.NoSuchElementException;
+
+@Service
+@Transactional
+public class UserAccountService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    public User setEnabled(Long userId, boolean enabled, User admin) {
+        User user = findForChange(userId, admin);
+        if (user.isEnabled() != enabled) {
+            user.setEnabled(enabled);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userRepository.save(user)));
+        }
+        return user;
+    }
+    
+    public User changeRole(Long userId, Role role, User admin) {
+        User user = findForChange(userId, admin);
+        if (user.getRole() != role) {
+            user.setRole(role);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userRepository.save(user)));
+        }
+        return user;
+    }
+    
+    // An admin locking themselves out would leave nobody able to undo it
+    private User findForChange(Long userId, User admin) {
+        if (userId.equals(admin.getId())) {
+            throw new IllegalArgumentException("Admins cannot change their own account");
+        }
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with id: " + userId));
+    }
+}
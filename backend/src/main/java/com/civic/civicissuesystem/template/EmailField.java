@@ -0,0 +1,52 @@
+package com.civic.civicissuesystem.template;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The variables email templates can refer to. Each constant's ordinal is its slot in the value
+// array passed to Template.render. Flags such as resolved are set to "true" or left null.
+public enum EmailField {
+    REPORTER_NAME("reporterName"),
+    COMPLAINT_ID("complaintId"),
+    TITLE("title"),
+    TYPE("type"),
+    STATUS("status"),
+    PREVIOUS_STATUS("previousStatus"),
+    SUBMITTED_AT("submittedAt"),
+    ADDRESS("address"),
+    CITY("city"),
+    DESCRIPTION("description"),
+    ADMIN_NOTES("adminNotes"),
+    RESOLVED("resolved"),
+    IN_PROGRESS("inProgress"),
+    COUNT("count"),
+    SUBJECT("subject"),
+    CONTENT("content");
+
+    private static final Map<String, Integer> SLOTS = new HashMap<>();
+
+    static {
+        for (EmailField field : values()) {
+            SLOTS.put(field.key, field.ordinal());
+        }
+    }
+
+    private final String key;
+
+    EmailField(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Slot for a template variable name, or -1 when there is no such field
+    public static int slotOf(String key) {
+        return SLOTS.getOrDefault(key, -1);
+    }
+
+    public static String[] newValues() {
+        return new String[values().length];
+    }
+}
@@ -0,0 +1,85 @@
+package com.civic.civicissuesystem.template;
+
+import java.util.function.ToIntFunction;
+
+// The compiled parts of one email template file. A file holds up to three parts, each introduced
+// by a marker line:
+//   == subject ==
+//   == text ==
+//   == html ==
+// Parts that are left out are null; the html part is a body fragment the caller wraps in a layout.
+public final class MessageTemplate {
+
+    private static final String[] PARTS = { "subject", "text", "html" };
+
+    private final Template subject;
+    private final Template text;
+    private final Template html;
+
+    private MessageTemplate(Template subject, Template text, Template html) {
+        this.subject = subject;
+        this.text = text;
+        this.html = html;
+    }
+
+    public static MessageTemplate parse(String source, ToIntFunction<String> slots) {
+        String[] parts = new String[PARTS.length];
+        int currentPart = -1;
+        StringBuilder body = new StringBuilder();
+        for (String line : source.replace("\r\n", "\n").split("\n", -1)) {
+            int marker = markerIndex(line);
+            if (marker >= 0) {
+                if (currentPart >= 0) {
+                    parts[currentPart] = trimTrailingNewlines(body);
+                }
+                if (parts[marker] != null) {
+                    throw new IllegalArgumentException("Duplicate part '" + PARTS[marker] + "'");
+                }
+                currentPart = marker;
+                body.setLength(0);
+            } else if (currentPart >= 0) {
+                body.append(line).append('\n');
+            } else if (!line.isBlank()) {
+                throw new IllegalArgumentException("Content before the first part marker");
+            }
+        }
+        if (currentPart >= 0) {
+            parts[currentPart] = trimTrailingNewlines(body);
+        }
+        if (currentPart < 0) {
+            throw new IllegalArgumentException("Template has no parts");
+        }
+
+        return new MessageTemplate(
+                parts[0] != null ? TemplateParser.compile(parts[0].trim(), slots, false) : null,
+                parts[1] != null ? TemplateParser.compile(parts[1], slots, false) : null,
+                parts[2] != null ? TemplateParser.compile(parts[2], slots, true) : null);
+    }
+
+    private static int markerIndex(String line) {
+        String trimmed = line.trim();
+        if (!trimmed.startsWith("==") || !trimmed.endsWith("==") || trimmed.length() < 5) {
+            return -1;
+        }
+        String name = trimmed.substring(2, trimmed.length() - 2).trim();
+        for (int i = 0; i < PARTS.length; i++) {
+            if (PARTS[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String trimTrailingNewlines(StringBuilder body) {
+        int end = body.length();
+        // The newline before the next marker belongs to the file layout, not to the part
+        while (end > 0 && body.charAt(end - 1) == '\n') {
+            end--;
+        }
+        return body.substring(0, end);
+    }
+
+    public Template getSubject() { return subject; }
+    public Template getText() { return text; }
+    public Template getHtml() { return html; }
+}
@@ -0,0 +1,19 @@
+package com.civic.civicissuesystem.template;
+
+public class RenderedEmail {
+
+    private final String subject;
+    private final String text;
+    private final String html;
+
+    public RenderedEmail(String subject, String text, String html) {
+        this.subject = subject;
+        this.text = text;
+        this.html = html;
+    }
+
+    public String getSubject() { return subject; }
+    public String getText() { return text; }
+    // Body fragment without the layout, or null when the template has no html part
+    public String getHtml() { return html; }
+}
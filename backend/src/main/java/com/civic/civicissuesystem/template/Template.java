@@ -0,0 +1,105 @@
+package com.civic.civicissuesystem.template;
+
+// A compiled template: an immutable tree of segments produced once by TemplateParser. Rendering
+// walks the segments and appends into the caller's buffer, reading values by slot index, so it
+// does no parsing, map lookups or reflection per render. Safe to share between threads.
+public final class Template {
+
+    interface Segment {
+        void render(String[] values, StringBuilder out);
+    }
+
+    private final Segment[] segments;
+
+    Template(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    public void render(String[] values, StringBuilder out) {
+        renderAll(segments, values, out);
+    }
+
+    public String render(String[] values) {
+        StringBuilder out = new StringBuilder(256);
+        render(values, out);
+        return out.toString();
+    }
+
+    static void renderAll(Segment[] segments, String[] values, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.render(values, out);
+        }
+    }
+
+    static final class Literal implements Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(String[] values, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    static final class Variable implements Segment {
+        private final int slot;
+        private final boolean escapeHtml;
+
+        Variable(int slot, boolean escapeHtml) {
+            this.slot = slot;
+            this.escapeHtml = escapeHtml;
+        }
+
+        @Override
+        public void render(String[] values, StringBuilder out) {
+            String value = values[slot];
+            if (value == null) {
+                return;
+            }
+            if (escapeHtml) {
+                escapeHtml(value, out);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    // Renders its body when the value is present and non-empty, or when it is absent if inverted
+    static final class Section implements Segment {
+        private final int slot;
+        private final boolean inverted;
+        private final Segment[] body;
+
+        Section(int slot, boolean inverted, Segment[] body) {
+            this.slot = slot;
+            this.inverted = inverted;
+            this.body = body;
+        }
+
+        @Override
+        public void render(String[] values, StringBuilder out) {
+            String value = values[slot];
+            boolean present = value != null && !value.isEmpty();
+            if (present != inverted) {
+                renderAll(body, values, out);
+            }
+        }
+    }
+
+    public static void escapeHtml(CharSequence value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.civic.civicissuesystem.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+// Compiles a small mustache-like syntax:
+//   {{name}}    value, HTML-escaped when compiling for HTML
+//   {{{name}}}  value, never escaped
+//   {{#name}}   section rendered when the value is non-empty, closed by {{/name}}
+//   {{^name}}   section rendered when the value is missing or empty
+// Variable names are resolved to slot indexes at compile time; an unknown name or an unbalanced
+// section fails the compile. A section tag alone on its line removes the whole line, so text
+// templates can use sections without leaving blank lines behind.
+public final class TemplateParser {
+
+    private TemplateParser() {
+    }
+
+    public static Template compile(String source, ToIntFunction<String> slots, boolean html) {
+        Deque<OpenSection> open = new ArrayDeque<>();
+        List<Template.Segment> current = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+
+        while (pos < source.length()) {
+            int start = source.indexOf("{{", pos);
+            if (start < 0) {
+                literal.append(source, pos, source.length());
+                break;
+            }
+            boolean triple = source.startsWith("{{{", start);
+            String closer = triple ? "}}}" : "}}";
+            int end = source.indexOf(closer, start + closer.length());
+            if (end < 0) {
+                throw error(source, start, "Unclosed tag");
+            }
+            String tag = source.substring(start + closer.length(), end).trim();
+            int after = end + closer.length();
+            if (tag.isEmpty()) {
+                throw error(source, start, "Empty tag");
+            }
+
+            char kind = triple ? '&' : tag.charAt(0);
+            boolean sectionTag = kind == '#' || kind == '^' || kind == '/';
+            if (sectionTag && isStandalone(source, pos, start, after)) {
+                int lineStart = source.lastIndexOf('\n', start - 1) + 1;
+                int lineEnd = source.indexOf('\n', after);
+                literal.append(source, pos, lineStart);
+                pos = lineEnd < 0 ? source.length() : lineEnd + 1;
+            } else {
+                literal.append(source, pos, start);
+                pos = after;
+            }
+            flush(literal, current);
+
+            String name = sectionTag ? tag.substring(1).trim() : tag;
+            int slot = slots.applyAsInt(name);
+            if (slot < 0) {
+                throw error(source, start, "Unknown variable '" + name + "'");
+            }
+            switch (kind) {
+                case '#', '^' -> {
+                    open.push(new OpenSection(name, slot, kind == '^', current));
+                    current = new ArrayList<>();
+                }
+                case '/' -> {
+                    if (open.isEmpty() || !open.peek().name.equals(name)) {
+                        throw error(source, start, "Unexpected close of section '" + name + "'");
+                    }
+                    OpenSection section = open.pop();
+                    section.parent.add(new Template.Section(section.slot, section.inverted,
+                            current.toArray(new Template.Segment[0])));
+                    current = section.parent;
+                }
+                default -> current.add(new Template.Variable(slot, html && !triple));
+            }
+        }
+        flush(literal, current);
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Section '" + open.peek().name + "' is never closed");
+        }
+        return new Template(current.toArray(new Template.Segment[0]));
+    }
+
+    // True when only whitespace shares the line with the tag and no earlier tag is on that line
+    private static boolean isStandalone(String source, int pos, int start, int after) {
+        int lineStart = source.lastIndexOf('\n', start - 1) + 1;
+        if (lineStart < pos) {
+            return false;
+        }
+        int lineEnd = source.indexOf('\n', after);
+        return source.substring(lineStart, start).isBlank()
+                && source.substring(after, lineEnd < 0 ? source.length() : lineEnd).isBlank();
+    }
+
+    private static void flush(StringBuilder literal, List<Template.Segment> segments) {
+        if (literal.length() > 0) {
+            segments.add(new Template.Literal(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    private static IllegalArgumentException error(String source, int offset, String message) {
+        int line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new IllegalArgumentException(message + " at line " + line);
+    }
+
+    private static final class OpenSection {
+        final String name;
+        final int slot;
+        final boolean inverted;
+        final List<Template.Segment> parent;
+
+        OpenSection(String name, int slot, boolean inverted, List<Template.Segment> parent) {
+            this.name = name;
+            this.slot = slot;
+            this.inverted = inverted;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.civic.civicissuesystem.timing;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Adds every Spring Data repository call to the db stage of the current request, using the
+// duration Spring Data already measures for its invocation listeners
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(
+                    invocation -> RequestTiming.record(RequestTiming.Stage.DB, invocation.getDuration(TimeUnit.NANOSECONDS))));
+        }
+        return bean;
+    }
+}
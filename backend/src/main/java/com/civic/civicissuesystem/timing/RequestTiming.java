@@ -0,0 +1,158 @@
+package com.civic.civicissuesystem.timing;
+
+import org.springframework.http.HttpHeaders;
+
+// Per-request stopwatch for the stages a request passes through. Each thread owns one instance
+// that RequestTimingFilter resets at the start of every request, so recording a stage is two
+// System.nanoTime() calls and an array update with no allocation. Code outside a timed request,
+// or any request while timing is switched off, pays only for a thread-local lookup:
+//
+//   long started = RequestTiming.begin();
+//   ... work ...
+//   RequestTiming.end(RequestTiming.Stage.MAPPING, started);
+//
+// Timings do not follow work handed to other threads.
+public final class RequestTiming {
+
+    public enum Stage {
+        JWT("jwt", "Token verification"),
+        PRINCIPAL("principal", "User lookup"),
+        DB("db", "Repository calls"),
+        MAPPING("mapping", "Entity to DTO mapping incl. lazy loads"),
+        SERIALIZATION("serialize", "JSON serialization");
+
+        private final String metricName;
+        private final String description;
+
+        Stage(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = ThreadLocal.withInitial(RequestTiming::new);
+
+    private final long[] nanos = new long[STAGES.length];
+    private final int[] counts = new int[STAGES.length];
+    private final StringBuilder text = new StringBuilder(160);
+    private long startedAt;
+    private boolean active;
+    private boolean exposeHeader;
+
+    private RequestTiming() {}
+
+    static RequestTiming open(boolean exposeHeader) {
+        RequestTiming timing = CURRENT.get();
+        for (int i = 0; i < STAGES.length; i++) {
+            timing.nanos[i] = 0;
+            timing.counts[i] = 0;
+        }
+        timing.startedAt = System.nanoTime();
+        timing.exposeHeader = exposeHeader;
+        timing.active = true;
+        return timing;
+    }
+
+    void close() {
+        active = false;
+    }
+
+    // Returns 0 when the current request is not being timed; end() ignores that value
+    public static long begin() {
+        return CURRENT.get().active ? System.nanoTime() : 0L;
+    }
+
+    public static void end(Stage stage, long begin) {
+        if (begin != 0L) {
+            record(stage, System.nanoTime() - begin);
+        }
+    }
+
+    public static void record(Stage stage, long durationNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing.active) {
+            timing.nanos[stage.ordinal()] += durationNanos;
+            timing.counts[stage.ordinal()]++;
+        }
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get().active;
+    }
+
+    // Called right before the response body is written, while headers can still be set. Stages
+    // that run after that point (serialization) only show up in the slow-request log.
+    public static void addServerTimingHeader(HttpHeaders headers) {
+        RequestTiming timing = CURRENT.get();
+        if (timing.active && timing.exposeHeader && !headers.containsKey(SERVER_TIMING)) {
+            headers.set(SERVER_TIMING, timing.serverTimingHeader());
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    // Server-Timing value, e.g. "jwt;dur=0.091, db;dur=12.410;desc="3 calls", app;dur=15.002".
+    // Stages that did not run are left out; app is the time spent so far in the whole request.
+    String serverTimingHeader() {
+        StringBuilder out = text;
+        out.setLength(0);
+        for (int i = 0; i < STAGES.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            out.append(STAGES[i].metricName).append(";dur=");
+            appendMillis(out, nanos[i]);
+            if (counts[i] > 1) {
+                out.append(";desc=\"").append(counts[i]).append(" calls\"");
+            }
+            out.append(", ");
+        }
+        out.append("app;dur=");
+        appendMillis(out, elapsedNanos());
+        return out.toString();
+    }
+
+    // Breakdown for the slow-request log, e.g. "total_ms=2034.118 jwt_ms=0.091 db_ms=1890.552 db_calls=41"
+    String breakdown(long totalNanos) {
+        StringBuilder out = text;
+        out.setLength(0);
+        out.append("total_ms=");
+        appendMillis(out, totalNanos);
+        for (int i = 0; i < STAGES.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            out.append(' ').append(STAGES[i].metricName).append("_ms=");
+            appendMillis(out, nanos[i]);
+            out.append(' ').append(STAGES[i].metricName).append("_calls=").append(counts[i]);
+        }
+        return out.toString();
+    }
+
+    // Milliseconds with microsecond precision, without going through String.format
+    private static void appendMillis(StringBuilder out, long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        out.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
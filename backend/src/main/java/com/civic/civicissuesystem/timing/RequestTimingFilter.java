@@ -0,0 +1,56 @@
+package com.civic.civicissuesystem.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Outermost filter: opens the RequestTiming for the request, so the security chain, repositories,
+// mapping and serialization can record their stages. Adds the Server-Timing header when nothing
+// else has (responses without a JSON body) and writes a sampled log line with the full breakdown
+// for requests slower than the configured threshold.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RequestTimingSettings settings;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!settings.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.open(settings.isServerTimingHeader());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long totalNanos = timing.elapsedNanos();
+            if (settings.isServerTimingHeader() && !response.isCommitted()
+                    && !response.containsHeader(RequestTiming.SERVER_TIMING)) {
+                response.setHeader(RequestTiming.SERVER_TIMING, timing.serverTimingHeader());
+            }
+            if (totalNanos >= settings.getSlowThresholdMs() * 1_000_000 && sampled()) {
+                logger.warn("slow_request method=" + request.getMethod() + " uri=" + request.getRequestURI()
+                        + " status=" + response.getStatus() + " " + timing.breakdown(totalNanos));
+            }
+            timing.close();
+        }
+    }
+
+    private boolean sampled() {
+        double rate = settings.getSlowLogSampleRate();
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
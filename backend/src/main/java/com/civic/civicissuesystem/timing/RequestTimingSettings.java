@@ -0,0 +1,75 @@
+package com.civic.civicissuesystem.timing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Runtime switches for request timing. Initialised from configuration and changed through
+// PUT /api/admin/ops/timing without a restart; the filter reads them on every request.
+@Component
+public class RequestTimingSettings {
+
+    private volatile boolean enabled;
+    private volatile boolean serverTimingHeader;
+    private volatile long slowThresholdMs;
+    private volatile double slowLogSampleRate;
+
+    public RequestTimingSettings(@Value("${timing.enabled:true}") boolean enabled,
+                                 @Value("${timing.server-timing-header:true}") boolean serverTimingHeader,
+                                 @Value("${timing.slow-threshold-ms:1000}") long slowThresholdMs,
+                                 @Value("${timing.slow-log-sample-rate:1.0}") double slowLogSampleRate) {
+        this.enabled = enabled;
+        this.serverTimingHeader = serverTimingHeader;
+        setSlowThresholdMs(slowThresholdMs);
+        setSlowLogSampleRate(slowLogSampleRate);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isServerTimingHeader() {
+        return serverTimingHeader;
+    }
+
+    public void setServerTimingHeader(boolean serverTimingHeader) {
+        this.serverTimingHeader = serverTimingHeader;
+    }
+
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+
+    public void setSlowThresholdMs(long slowThresholdMs) {
+        if (slowThresholdMs < 0) {
+            throw new IllegalArgumentException("Slow request threshold must not be negative");
+        }
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    public double getSlowLogSampleRate() {
+        return slowLogSampleRate;
+    }
+
+    public void setSlowLogSampleRate(double slowLogSampleRate) {
+        if (slowLogSampleRate < 0 || slowLogSampleRate > 1) {
+            throw new IllegalArgumentException("Slow request sample rate must be between 0 and 1");
+        }
+        this.slowLogSampleRate = slowLogSampleRate;
+    }
+
+    public Map<String, Object> getSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", enabled);
+        settings.put("serverTimingHeader", serverTimingHeader);
+        settings.put("slowThresholdMs", slowThresholdMs);
+        settings.put("slowLogSampleRate", slowLogSampleRate);
+        return settings;
+    }
+}
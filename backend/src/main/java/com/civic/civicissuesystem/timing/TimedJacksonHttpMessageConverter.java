@@ -0,0 +1,30 @@
+package com.civic.civicissuesystem.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// The JSON converter used for all responses, timing serialization as its own stage. The
+// Server-Timing header is added here, just before the body is written.
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTiming.addServerTimingHeader(outputMessage.getHeaders());
+        long started = RequestTiming.begin();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTiming.end(RequestTiming.Stage.SERIALIZATION, started);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.civic.civicissuesystem.upload;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Files named by the SHA-256 of their content, sharded two levels deep by the leading hex digits
+// (ab/cd/abcd...ef.jpg) so no directory grows past a few hundred entries even with millions of
+// images. Identical uploads map to the same path and are stored once. The database side (which
+// blobs exist, who references them) is in StoredBlob.
+public class ContentAddressedStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern URL = Pattern.compile("/uploads/([0-9a-f]{2})/([0-9a-f]{2})/([0-9a-f]{64})\\.[a-z]+$");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    // Placing and deleting the same blob must not interleave; hashes are uniform, so any two
+    // hex digits spread them evenly over the stripes
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ContentAddressedStore(Path root) {
+        this.root = root;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && HASH.matcher(value).matches();
+    }
+
+    // Path relative to the upload directory, e.g. 3f/a9/3fa9...c2.jpg
+    public static String relativePath(String hash, ImageType type) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + type.getExtension();
+    }
+
+    // Hash of a content-addressed upload URL, or null for anything else (including the flat
+    // UUID names used before)
+    public static String hashFromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = URL.matcher(url.trim());
+        if (!matcher.find()) {
+            return null;
+        }
+        String hash = matcher.group(3);
+        return hash.startsWith(matcher.group(1) + matcher.group(2)) ? hash : null;
+    }
+
+    public Object lockFor(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    public boolean exists(String hash, ImageType type) {
+        return Files.isRegularFile(root.resolve(relativePath(hash, type)));
+    }
+
+    // Moves a fully written temp file into place. Returns false, leaving the temp file alone, when
+    // the content is already stored.
+    public boolean place(Path temp, String hash, ImageType type) throws IOException {
+        Path target = root.resolve(relativePath(hash, type));
+        if (Files.isRegularFile(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    public boolean delete(String hash, ImageType type) throws IOException {
+        return Files.deleteIfExists(root.resolve(relativePath(hash, type)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.civic.civicissuesystem.upload;
+
+import java.nio.charset.StandardCharsets;
+
+// Image formats accepted for complaint photos, recognised by their leading bytes rather than the
+// client's file name or declared content type
+public enum ImageType {
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    GIF("image/gif", ".gif"),
+    WEBP("image/webp", ".webp"),
+    HEIC("image/heic", ".heic");
+
+    // Bytes needed to tell the formats apart
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final String[] HEIF_BRANDS = {"heic", "heix", "hevc", "hevx", "mif1", "msf1"};
+
+    private final String mimeType;
+    private final String extension;
+
+    ImageType(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Null when the bytes are not one of the accepted formats
+    public static ImageType detect(byte[] bytes, int length) {
+        if (length >= 3 && (bytes[0] & 0xff) == 0xff && (bytes[1] & 0xff) == 0xd8 && (bytes[2] & 0xff) == 0xff) {
+            return JPEG;
+        }
+        if (startsWith(bytes, length, 0, PNG_SIGNATURE)) {
+            return PNG;
+        }
+        if (startsWith(bytes, length, 0, ascii("GIF87a")) || startsWith(bytes, length, 0, ascii("GIF89a"))) {
+            return GIF;
+        }
+        if (startsWith(bytes, length, 0, ascii("RIFF")) && startsWith(bytes, length, 8, ascii("WEBP"))) {
+            return WEBP;
+        }
+        if (startsWith(bytes, length, 4, ascii("ftyp"))) {
+            for (String brand : HEIF_BRANDS) {
+                if (startsWith(bytes, length, 8, ascii(brand))) {
+                    return HEIC;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int length, int offset, byte[] prefix) {
+        if (length < offset + prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
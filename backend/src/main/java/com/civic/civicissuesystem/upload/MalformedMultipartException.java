@@ -0,0 +1,13 @@
+package com.civic.civicissuesystem.upload;
+
+import java.io.IOException;
+
+// The request body is not a well-formed multipart/form-data stream
+public class MalformedMultipartException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public MalformedMultipartException(String message) {
+        super(message);
+    }
+}
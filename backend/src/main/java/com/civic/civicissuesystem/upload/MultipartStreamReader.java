@@ -0,0 +1,253 @@
+package com.civic.civicissuesystem.upload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Streaming multipart/form-data reader (RFC 7578) over a single fixed buffer, so memory per
+// upload does not depend on the size of the parts. Part bodies are handed out as views into
+// that buffer and can be written straight to a channel:
+//
+//   while (reader.nextPart()) {
+//       for (ByteBuffer chunk; (chunk = reader.readChunk()) != null; ) {
+//           channel.write(chunk);
+//       }
+//   }
+//
+// Not thread-safe; one reader per request.
+public class MultipartStreamReader {
+
+    private static final int MAX_HEADER_BYTES = 8192;
+    // RFC 2046 limit
+    public static final int MAX_BOUNDARY_LENGTH = 70;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private final ByteBuffer view;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+    private int head;
+    private int tail;
+    // Starts inside the preamble, which is skipped like the body of a part
+    private boolean inBody = true;
+    private boolean finished;
+
+    private String name;
+    private String fileName;
+    private String contentType;
+
+    public MultipartStreamReader(InputStream in, String boundary, int bufferSize) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > MAX_BOUNDARY_LENGTH) {
+            throw new IllegalArgumentException("Multipart boundary must be 1 to " + MAX_BOUNDARY_LENGTH + " characters");
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        if (bufferSize < delimiter.length * 2) {
+            throw new IllegalArgumentException("Buffer must hold at least two boundaries");
+        }
+        this.buffer = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buffer);
+        // The first boundary has no preceding line break; pretend it has one so every boundary
+        // matches the same delimiter
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+
+    // Skips whatever is left of the current part and reads the headers of the next one. Returns
+    // false after the closing boundary.
+    public boolean nextPart() throws IOException {
+        if (finished) {
+            return false;
+        }
+        while (readChunk() != null) {
+            // discard
+        }
+        int first = readByte();
+        int second = readByte();
+        if (first == '-' && second == '-') {
+            finished = true;
+            return false;
+        }
+        // Transport padding after the boundary is allowed
+        while (first == ' ' || first == '\t') {
+            first = second;
+            second = readByte();
+        }
+        if (first != '\r' || second != '\n') {
+            throw new MalformedMultipartException("Malformed multipart boundary");
+        }
+        readHeaders();
+        inBody = true;
+        return true;
+    }
+
+    // Next piece of the current part's body, or null at its end. The buffer is only valid until
+    // the next call on this reader.
+    public ByteBuffer readChunk() throws IOException {
+        if (!inBody) {
+            return null;
+        }
+        while (true) {
+            int found = indexOfDelimiter();
+            if (found == head) {
+                head += delimiter.length;
+                inBody = false;
+                return null;
+            }
+            // Without a full delimiter in the buffer, its tail may still be the start of one
+            int end = found >= 0 ? found : tail - (delimiter.length - 1);
+            if (end > head) {
+                view.clear();
+                view.position(head);
+                view.limit(end);
+                head = end;
+                return view;
+            }
+            if (!fill()) {
+                throw new MalformedMultipartException("Unexpected end of multipart body");
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Null for plain form fields
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    private void readHeaders() throws IOException {
+        name = null;
+        fileName = null;
+        contentType = null;
+        int headerBytes = 0;
+        while (true) {
+            String header = readLine();
+            headerBytes += header.length() + 2;
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new MalformedMultipartException("Multipart headers exceed " + MAX_HEADER_BYTES + " bytes");
+            }
+            if (header.isEmpty()) {
+                return;
+            }
+            int colon = header.indexOf(':');
+            if (colon <= 0) {
+                throw new MalformedMultipartException("Malformed multipart header");
+            }
+            String headerName = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = header.substring(colon + 1).trim();
+            if (headerName.equals("content-disposition")) {
+                name = parameter(value, "name");
+                fileName = parameter(value, "filename");
+            } else if (headerName.equals("content-type")) {
+                contentType = value;
+            }
+        }
+    }
+
+    private String readLine() throws IOException {
+        line.reset();
+        while (true) {
+            int b = readByte();
+            if (b == '\r') {
+                int next = readByte();
+                if (next == '\n') {
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                line.write(b);
+                b = next;
+            }
+            if (line.size() >= MAX_HEADER_BYTES) {
+                throw new MalformedMultipartException("Multipart headers exceed " + MAX_HEADER_BYTES + " bytes");
+            }
+            line.write(b);
+        }
+    }
+
+    // Value of a parameter in a header such as: form-data; name="file"; filename="a;b.jpg"
+    static String parameter(String header, String parameter) {
+        int i = header.indexOf(';');
+        while (i >= 0 && i < header.length()) {
+            i++;
+            while (i < header.length() && header.charAt(i) == ' ') {
+                i++;
+            }
+            int equals = header.indexOf('=', i);
+            if (equals < 0) {
+                return null;
+            }
+            String key = header.substring(i, equals).trim();
+            StringBuilder value = new StringBuilder();
+            i = equals + 1;
+            if (i < header.length() && header.charAt(i) == '"') {
+                i++;
+                while (i < header.length() && header.charAt(i) != '"') {
+                    char c = header.charAt(i);
+                    if (c == '\\' && i + 1 < header.length()) {
+                        c = header.charAt(++i);
+                    }
+                    value.append(c);
+                    i++;
+                }
+                i = header.indexOf(';', i);
+            } else {
+                int next = header.indexOf(';', i);
+                value.append(header, i, next >= 0 ? next : header.length());
+                i = next;
+            }
+            if (key.equalsIgnoreCase(parameter)) {
+                return value.toString().trim();
+            }
+        }
+        return null;
+    }
+
+    private int readByte() throws IOException {
+        if (head == tail && !fill()) {
+            throw new MalformedMultipartException("Unexpected end of multipart body");
+        }
+        return buffer[head++] & 0xff;
+    }
+
+    private int indexOfDelimiter() {
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            if (buffer[i] != '\r') {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Moves the unread bytes to the front and reads more after them
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            return false;
+        }
+        tail += read;
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.civic.civicissuesystem.upload;
+
+// An image that is in the content-addressed store, either just written or found there already
+public class StoredUpload {
+
+    private final String hash;
+    private final String originalFilename;
+    private final ImageType type;
+    private final long size;
+    private final boolean duplicate;
+
+    public StoredUpload(String hash, String originalFilename, ImageType type, long size, boolean duplicate) {
+        this.hash = hash;
+        this.originalFilename = originalFilename;
+        this.type = type;
+        this.size = size;
+        this.duplicate = duplicate;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getFileName() {
+        return hash + type.getExtension();
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public ImageType getType() {
+        return type;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // True when the same content had been uploaded before and nothing new was stored
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    // Path the file is served under, see WebConfig
+    public String getPath() {
+        return "/uploads/" + ContentAddressedStore.relativePath(hash, type);
+    }
+}
@@ -0,0 +1,20 @@
+package com.civic.civicissuesystem.upload;
+
+import org.springframework.http.HttpStatus;
+
+// The upload was refused before it was stored; the status says why (too large, wrong type, ...)
+public class UploadRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+
+    public UploadRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
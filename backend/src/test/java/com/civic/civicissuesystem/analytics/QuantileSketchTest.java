@@ -0,0 +1,101 @@
+package com.civic.civicissuesystem.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testQuantilesStayWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        Random random = new Random(3);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal resolution times centred around a couple of days, in seconds
+            values[i] = Math.exp(12 + random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.5, 0.9, 0.99}) {
+            double exact = values[(int) (q * (values.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * 0.011, "q=" + q);
+        }
+        assertEquals(values.length, sketch.getCount());
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[values.length - 1], sketch.getMax());
+    }
+
+    @Test
+    public void testMergeEqualsSingleSketchAndSerializationRoundTrips() {
+        QuantileSketch all = new QuantileSketch(0.01);
+        QuantileSketch first = new QuantileSketch(0.01);
+        QuantileSketch second = new QuantileSketch(0.01);
+        for (int i = 0; i < 5000; i++) {
+            double value = i % 7 == 0 ? 0 : i * 13.5;
+            all.add(value);
+            (i % 2 == 0 ? first : second).add(value);
+        }
+        first.merge(second);
+
+        byte[] bytes = first.toBytes();
+        QuantileSketch restored = QuantileSketch.fromBytes(bytes);
+        for (double q : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            assertEquals(all.quantile(q), first.quantile(q), 1e-9);
+            assertEquals(all.quantile(q), restored.quantile(q), 1e-9);
+        }
+        assertEquals(all.getCount(), restored.getCount());
+        assertEquals(all.getSum(), restored.getSum(), 1e-6);
+        assertTrue(bytes.length < 2048, "serialized sketch was " + bytes.length + " bytes");
+    }
+
+    @Test
+    public void testRejectsIncompatibleInput() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.02)));
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+    }
+
+    @Test
+    public void testRejectsForgedPayloadsBeforeAllocating() {
+        // Two buckets a hundred million indexes apart, far beyond the recorded min and max
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(payload(2, 1, 2, 2, 0, 1, 100_000_000L, 1)));
+        // Claims a billion buckets in a payload holding two
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(payload(2, 1, 2, 1_000_000_000L, 0, 1, 1, 1)));
+        // Bucket counts that do not add up to the header count
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(payload(5, 1, 2, 2, 0, 1, 35, 1)));
+        // The same layout with consistent values decodes
+        assertEquals(2, QuantileSketch.fromBytes(payload(2, 1, 2, 2, 0, 1, 35, 1)).getCount());
+    }
+
+    // Hand-built version 1 payload: accuracy 0.01, no zeros, then the header and bucket varints given
+    private static byte[] payload(long count, double min, double max, long nonEmpty, long... buckets) {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put((byte) 1);
+        buffer.putDouble(0.01);
+        putVarLong(buffer, 0);
+        putVarLong(buffer, count);
+        buffer.putDouble(min + max);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        putVarLong(buffer, nonEmpty);
+        for (long value : buckets) {
+            putVarLong(buffer, value);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
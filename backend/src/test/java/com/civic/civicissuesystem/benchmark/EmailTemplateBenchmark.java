@@ -0,0 +1,83 @@
+package com.civic.civicissuesystem.benchmark;
+
+import com.civic.civicissuesystem.service.EmailTemplateService;
+import com.civic.civicissuesystem.template.EmailField;
+import com.civic.civicissuesystem.template.RenderedEmail;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Render cost of one notification as produced during a city-wide bulk status change: the status
+// update plus the resolution confirmation, text and html parts, for a rotating set of complaints.
+// Not part of the test run; after mvn test-compile, start main() from the IDE or with
+//   java -cp target/test-classes:target/classes:<test classpath> com.civic.civicissuesystem.benchmark.EmailTemplateBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final int COMPLAINTS = 1024;
+
+    private EmailTemplateService templates;
+    private String[][] values;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        templates = new EmailTemplateService();
+        ReflectionTestUtils.setField(templates, "templatesDir", "");
+        ReflectionTestUtils.setField(templates, "defaultLocaleTag", "en");
+        templates.load();
+
+        values = new String[COMPLAINTS][];
+        for (int i = 0; i < COMPLAINTS; i++) {
+            String[] v = EmailField.newValues();
+            v[EmailField.REPORTER_NAME.ordinal()] = "Citizen " + i;
+            v[EmailField.COMPLAINT_ID.ordinal()] = String.valueOf(100000 + i);
+            v[EmailField.TITLE.ordinal()] = "Streetlight out on block " + i;
+            v[EmailField.TYPE.ordinal()] = "UTILITIES";
+            v[EmailField.STATUS.ordinal()] = "RESOLVED";
+            v[EmailField.PREVIOUS_STATUS.ordinal()] = "IN_PROGRESS";
+            v[EmailField.ADDRESS.ordinal()] = i + " Main Street";
+            v[EmailField.CITY.ordinal()] = "Springfield";
+            v[EmailField.ADMIN_NOTES.ordinal()] = i % 2 == 0 ? "Lamp & fitting replaced <crew 7>" : null;
+            v[EmailField.RESOLVED.ordinal()] = "true";
+            values[i] = v;
+        }
+    }
+
+    @Benchmark
+    public void statusUpdate(Blackhole blackhole) {
+        blackhole.consume(render(EmailTemplateService.STATUS_UPDATED));
+    }
+
+    @Benchmark
+    public void resolutionConfirmation(Blackhole blackhole) {
+        blackhole.consume(render(EmailTemplateService.RESOLUTION_CONFIRMATION));
+    }
+
+    // What the dispatcher adds per message: wrapping the html fragment in the layout
+    @Benchmark
+    public void statusUpdateWithLayout(Blackhole blackhole) {
+        RenderedEmail email = render(EmailTemplateService.STATUS_UPDATED);
+        blackhole.consume(email.getText());
+        blackhole.consume(templates.wrapHtml(email.getHtml(), Locale.ENGLISH));
+    }
+
+    private RenderedEmail render(String name) {
+        String[] v = values[next++ & (COMPLAINTS - 1)];
+        return templates.render(name, Locale.ENGLISH, v);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
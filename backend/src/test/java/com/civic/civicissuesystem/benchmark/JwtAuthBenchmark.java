@@ -0,0 +1,87 @@
+package com.civic.civicissuesystem.benchmark;
+
+import com.civic.civicissuesystem.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Token handling cost of one authenticated request, for a rotating set of signed-in users:
+//   perRequestParsers - what the filter used to do: build the key and a parser twice and verify
+//                       the same token twice (validateToken, then getUsernameFromToken)
+//   reusableParser    - one verification with the shared key and parser
+//   validate          - JwtTokenProvider.validate once the token is in the verified-token cache
+// Not part of the test run; after mvn test-compile, start main() from the IDE or with
+//   java -cp target/test-classes:target/classes:<test classpath> com.civic.civicissuesystem.benchmark.JwtAuthBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationAndValidation12345678901234567890";
+    private static final int USERS = 1024;
+
+    private JwtTokenProvider tokenProvider;
+    private JwtParser parser;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3_600_000);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheSize", 10_000L);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheTtlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = tokenProvider.generateTokenFromUsername("citizen" + i + "@example.com");
+        }
+    }
+
+    @Benchmark
+    public void perRequestParsers(Blackhole blackhole) {
+        String token = nextToken();
+        blackhole.consume(Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        blackhole.consume(claims.getSubject());
+    }
+
+    @Benchmark
+    public void reusableParser(Blackhole blackhole) {
+        blackhole.consume(parser.parseClaimsJws(nextToken()).getBody().getSubject());
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        blackhole.consume(tokenProvider.validate(nextToken()).getSubject());
+    }
+
+    private String nextToken() {
+        return tokens[next++ & (USERS - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
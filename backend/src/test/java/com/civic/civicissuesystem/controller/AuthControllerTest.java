@@ -2,19 +2,31 @@ package com.civic.civicissuesystem.controller;
 
 import com.civic.civicissuesystem.dto.LoginRequest;
 import com.civic.civicissuesystem.dto.SignupRequest;
+import com.civic.civicissuesystem.entity.RevokedToken;
 import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.RevokedTokenRepository;
 import com.civic.civicissuesystem.repository.UserRepository;
+import com.civic.civicissuesystem.security.JwtTokenProvider;
+import com.civic.civicissuesystem.service.TokenRevocationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +46,15 @@ public class AuthControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
     public void setup() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
     }
@@ -84,4 +105,32 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.email").value("login@example.com"))
                 .andExpect(jsonPath("$.role").value("CITIZEN"));
     }
+
+    @Test
+    public void testLogoutRevokesOnlyThatToken() throws Exception {
+        MockMvc secured = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        User user = userRepository.save(new User("Logout User", "logout@example.com", null, "secret", Role.CITIZEN));
+        String token = tokenFor(user);
+        String otherSession = tokenFor(user);
+
+        secured.perform(post("/api/auth/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + otherSession))
+                .andExpect(status().isOk());
+
+        // A revocation recorded by another instance is picked up on the next sync
+        Claims claims = jwtTokenProvider.validate(otherSession);
+        revokedTokenRepository.save(new RevokedToken(claims.getId(), user.getId(),
+                LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())));
+        tokenRevocationService.sync();
+        secured.perform(get("/api/auth/me").header("Authorization", "Bearer " + otherSession))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String tokenFor(User user) {
+        return jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
 }
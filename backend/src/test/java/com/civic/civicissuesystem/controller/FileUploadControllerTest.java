@@ -0,0 +1,105 @@
+package com.civic.civicissuesystem.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The multipart resolver is off, so the body must reach FileUploadService untouched
+@SpringBootTest
+@ActiveProfiles("test")
+public class FileUploadControllerTest {
+
+    private static final String BOUNDARY = "----FormBoundaryUploadTest";
+    private static final String SHA256_OF_JPEG = sha256(jpeg());
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    @Test
+    public void testUploadsJpegFromRawMultipartBody() throws Exception {
+        byte[] jpeg = jpeg();
+
+        mockMvc.perform(post("/api/upload")
+                        .with(user("citizen@example.com").roles("CITIZEN"))
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(multipart("street.JPG", jpeg)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fileName").value(endsWith(".jpg")))
+                .andExpect(jsonPath("$.fileUrl").value(containsString("/uploads/")))
+                .andExpect(jsonPath("$.originalFilename").value("street.JPG"))
+                .andExpect(jsonPath("$.fileSize").value(4096))
+                .andExpect(jsonPath("$.contentType").value("image/jpeg"))
+                .andExpect(jsonPath("$.sha256").value(SHA256_OF_JPEG));
+
+        mockMvc.perform(get("/api/upload/" + SHA256_OF_JPEG).with(user("citizen@example.com").roles("CITIZEN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicate").value(true))
+                .andExpect(jsonPath("$.fileUrl").value(endsWith("/" + SHA256_OF_JPEG + ".jpg")));
+        mockMvc.perform(get("/api/upload/" + "0".repeat(64)).with(user("citizen@example.com").roles("CITIZEN")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/upload/not-a-hash").with(user("citizen@example.com").roles("CITIZEN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testRejectsNonImageWithUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/upload")
+                        .with(user("citizen@example.com").roles("CITIZEN"))
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(multipart("notes.txt", "just text".getBytes(StandardCharsets.US_ASCII))))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.error").value("Upload rejected"));
+    }
+
+    private static byte[] jpeg() {
+        byte[] jpeg = new byte[4096];
+        jpeg[0] = (byte) 0xff;
+        jpeg[1] = (byte) 0xd8;
+        jpeg[2] = (byte) 0xff;
+        return jpeg;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] multipart(String fileName, byte[] content) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+}
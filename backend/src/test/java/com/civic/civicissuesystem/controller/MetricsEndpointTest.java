@@ -0,0 +1,67 @@
+package com.civic.civicissuesystem.controller;
+
+import com.civic.civicissuesystem.dto.SignupRequest;
+import com.civic.civicissuesystem.entity.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    public void testHealthIsPublicAndUp() {
+        ResponseEntity<String> health = restTemplate.getForEntity(management("/actuator/health"), String.class);
+        assertEquals(HttpStatus.OK, health.getStatusCode());
+        assertTrue(health.getBody().contains("\"status\":\"UP\""), health.getBody());
+
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/readyz", String.class).getStatusCode());
+    }
+
+    @Test
+    public void testMetricsAreNotServedOnApiPort() {
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+    }
+
+    @Test
+    public void testPrometheusExposesRouteRepositoryPoolAndJvmMetrics() {
+        SignupRequest signup = new SignupRequest();
+        signup.setName("Metrics User");
+        signup.setEmail("metrics@example.com");
+        signup.setPassword("password123");
+        signup.setRole(Role.CITIZEN);
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/auth/signup", signup, String.class).getStatusCode());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(management("/actuator/prometheus"), String.class);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        String body = scrape.getBody();
+        assertTrue(body.contains("http_server_requests_seconds_bucket{"), "route histogram");
+        assertTrue(body.contains("uri=\"/api/auth/signup\""), "route tag");
+        assertTrue(body.contains("spring_data_repository_invocations_seconds_bucket{"), "repository histogram");
+        assertTrue(body.contains("repository=\"UserRepository\""), "repository tag");
+        assertTrue(body.contains("hikaricp_connections_active"), "pool gauges");
+        assertTrue(body.contains("jvm_memory_used_bytes"), "jvm gauges");
+        assertTrue(body.contains("cache_gets_total{") && body.contains("cache=\"principal\""), "principal cache");
+    }
+
+    private String management(String path) {
+        return "http://localhost:" + managementPort + path;
+    }
+}
@@ -0,0 +1,51 @@
+package com.civic.civicissuesystem.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterHierarchyTest {
+
+    @Test
+    public void testNearbyPointsMergeAtLowZoomAndSplitAtHighZoom() {
+        ClusterHierarchy hierarchy = new ClusterHierarchy(14);
+        hierarchy.put(1, 40.7128, -74.0060);
+        hierarchy.put(2, 40.7300, -73.9900);
+        hierarchy.put(3, 34.0522, -118.2437);
+
+        List<int[]> world = new ArrayList<>();
+        hierarchy.forEachCluster(BoundingBox.world(), 3, (lat, lon, count, id) -> world.add(new int[]{count}));
+        assertEquals(2, world.size());
+        assertEquals(3, world.stream().mapToInt(c -> c[0]).sum());
+
+        List<Long> leaves = new ArrayList<>();
+        hierarchy.forEachCluster(new BoundingBox(40.70, -74.02, 40.74, -73.98), 14, (lat, lon, count, id) -> {
+            assertEquals(1, count);
+            leaves.add(id);
+        });
+        assertEquals(2, leaves.size());
+        assertTrue(leaves.containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    public void testRemovalUpdatesEveryLevel() {
+        ClusterHierarchy hierarchy = new ClusterHierarchy(10);
+        hierarchy.put(7, 51.5074, -0.1278);
+        hierarchy.put(8, 51.5075, -0.1279);
+        assertTrue(hierarchy.remove(7));
+        assertFalse(hierarchy.remove(7));
+
+        for (int z = 0; z <= 10; z++) {
+            List<Long> ids = new ArrayList<>();
+            hierarchy.forEachCluster(BoundingBox.world(), z, (lat, lon, count, id) -> {
+                assertEquals(1, count);
+                assertEquals(51.5075, lat, 1e-9);
+                ids.add(id);
+            });
+            assertEquals(List.of(8L), ids);
+        }
+    }
+}
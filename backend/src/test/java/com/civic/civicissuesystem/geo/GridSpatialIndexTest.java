@@ -0,0 +1,75 @@
+package com.civic.civicissuesystem.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridSpatialIndexTest {
+
+    @Test
+    public void testBoundingBoxQueryMatchesLinearScan() {
+        GridSpatialIndex index = new GridSpatialIndex(0.01);
+        Random random = new Random(42);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double lat = 40.5 + random.nextDouble() * 0.5;
+            double lon = -74.3 + random.nextDouble() * 0.6;
+            points.add(new double[]{lat, lon});
+            index.put(i, lat, lon, 0, 0);
+        }
+
+        BoundingBox bbox = new BoundingBox(40.7, -74.1, 40.8, -73.9);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (bbox.contains(points.get(i)[0], points.get(i)[1])) {
+                expected.add((long) i);
+            }
+        }
+
+        Set<Long> actual = new HashSet<>();
+        index.forEachWithin(bbox, (id, lat, lon, type, status) -> actual.add(id));
+        assertEquals(expected, actual);
+
+        // The whole world box takes the bucket-walking path and must still see every point
+        Set<Long> all = new HashSet<>();
+        index.forEachWithin(BoundingBox.world(), (id, lat, lon, type, status) -> all.add(id));
+        assertEquals(points.size(), all.size());
+    }
+
+    @Test
+    public void testUpdateMovesAndRemoveDropsPoints() {
+        GridSpatialIndex index = new GridSpatialIndex(0.01);
+        index.put(1, 10.0, 10.0, 2, 0);
+        index.put(2, 10.001, 10.001, 3, 0);
+
+        index.put(1, -33.9, 151.2, 2, 1);
+        assertEquals(2, index.size());
+
+        List<Long> nearOrigin = new ArrayList<>();
+        index.forEachWithin(new BoundingBox(9.9, 9.9, 10.1, 10.1), (id, lat, lon, type, status) -> nearOrigin.add(id));
+        assertEquals(List.of(2L), nearOrigin);
+
+        int[] status = new int[1];
+        index.forEachWithin(new BoundingBox(-34, 151, -33, 152), (id, lat, lon, type, s) -> status[0] = s);
+        assertEquals(1, status[0]);
+
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        index.put(3, 10.0, 10.0, 0, 0);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testBoundsAroundContainsRadius() {
+        BoundingBox box = GeoMath.boundsAround(51.5, -0.12, 1000);
+        assertTrue(box.contains(51.5 + 0.0089, -0.12));
+        assertTrue(box.contains(51.5, -0.12 + 0.0144));
+        assertEquals(1000, GeoMath.haversineMeters(51.5, -0.12, 51.5 + 1000 / GeoMath.METERS_PER_DEGREE_LAT, -0.12), 5);
+    }
+}
@@ -0,0 +1,56 @@
+package com.civic.civicissuesystem.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeatmapTileCodecTest {
+
+    @Test
+    public void testRoundTripPreservesQuantizedPointsAndAttributes() {
+        int z = 12;
+        int x = 1205;
+        int y = 1539;
+        BoundingBox bounds = WebMercator.tileBounds(z, x, y);
+
+        HeatmapTileCodec.Builder builder = new HeatmapTileCodec.Builder(z, x, y);
+        Random random = new Random(7);
+        int count = 2000;
+        for (int i = 0; i < count; i++) {
+            double lat = bounds.getMinLat() + random.nextDouble() * (bounds.getMaxLat() - bounds.getMinLat());
+            double lon = bounds.getMinLon() + random.nextDouble() * (bounds.getMaxLon() - bounds.getMinLon());
+            builder.add(lat, lon, i % 9, i % 4);
+        }
+        byte[] encoded = builder.encode();
+
+        HeatmapTileCodec.Tile tile = HeatmapTileCodec.decode(encoded);
+        assertEquals(z, tile.getZ());
+        assertEquals(x, tile.getX());
+        assertEquals(y, tile.getY());
+        assertEquals(count, tile.size());
+
+        int[] typeCounts = new int[9];
+        for (int i = 0; i < tile.size(); i++) {
+            assertTrue(tile.getQx(i) >= 0 && tile.getQx(i) < HeatmapTileCodec.TILE_EXTENT);
+            assertTrue(tile.getQy(i) >= 0 && tile.getQy(i) < HeatmapTileCodec.TILE_EXTENT);
+            typeCounts[tile.getType(i)]++;
+            assertTrue(tile.getStatus(i) < 4);
+        }
+        for (int typeCount : typeCounts) {
+            assertTrue(typeCount >= 222 && typeCount <= 223);
+        }
+
+        // Roughly 4 bytes per point compared with close to a kilobyte per ComplaintResponse
+        assertTrue(encoded.length < count * 6, "tile was " + encoded.length + " bytes");
+    }
+
+    @Test
+    public void testEmptyTileAndCorruptInput() {
+        byte[] empty = new HeatmapTileCodec.Builder(0, 0, 0).encode();
+        assertEquals(0, HeatmapTileCodec.decode(empty).size());
+        assertThrows(IllegalArgumentException.class, () -> HeatmapTileCodec.decode(new byte[]{'X', 'Y', 1}));
+        assertThrows(IllegalArgumentException.class, () -> HeatmapTileCodec.decode(new byte[]{'C', 'H', 1, 1}));
+    }
+}
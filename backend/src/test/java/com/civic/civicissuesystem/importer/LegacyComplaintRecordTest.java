@@ -0,0 +1,57 @@
+package com.civic.civicissuesystem.importer;
+
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegacyComplaintRecordTest {
+
+    @Test
+    public void testResolvedRecordNeedsBothTimestamps() {
+        Map<String, String> fields = fields("RESOLVED");
+        IllegalArgumentException missingResolved = assertThrows(IllegalArgumentException.class,
+                () -> LegacyComplaintRecord.parse(fields));
+        assertEquals("resolvedAt is required for resolved complaints", missingResolved.getMessage());
+
+        fields.put("resolvedAt", "2019-03-04T10:15:00");
+        IllegalArgumentException missingCreated = assertThrows(IllegalArgumentException.class,
+                () -> LegacyComplaintRecord.parse(fields));
+        assertEquals("createdAt is required for resolved complaints", missingCreated.getMessage());
+
+        fields.put("createdAt", "2019-03-05");
+        IllegalArgumentException inverted = assertThrows(IllegalArgumentException.class,
+                () -> LegacyComplaintRecord.parse(fields));
+        assertEquals("resolvedAt is before createdAt", inverted.getMessage());
+
+        fields.put("createdAt", "2019-03-01");
+        Complaint complaint = LegacyComplaintRecord.parse(fields).toComplaint(null);
+        assertEquals(ComplaintStatus.RESOLVED, complaint.getStatus());
+        assertEquals(LocalDateTime.of(2019, 3, 1, 0, 0), complaint.getCreatedAt());
+        assertEquals(LocalDateTime.of(2019, 3, 4, 10, 15), complaint.getResolvedAt());
+    }
+
+    @Test
+    public void testUnresolvedRecordDropsResolvedAt() {
+        Map<String, String> fields = fields("IN_PROGRESS");
+        fields.put("resolvedAt", "2019-03-04T10:15:00");
+
+        Complaint complaint = LegacyComplaintRecord.parse(fields).toComplaint(null);
+        assertEquals(ComplaintStatus.IN_PROGRESS, complaint.getStatus());
+        assertNull(complaint.getResolvedAt());
+    }
+
+    private static Map<String, String> fields(String status) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", "Broken bench");
+        fields.put("description", "Seat slats missing");
+        fields.put("type", "SAFETY");
+        fields.put("status", status);
+        return fields;
+    }
+}
@@ -0,0 +1,53 @@
+package com.civic.civicissuesystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SamplingTurboFilterTest {
+
+    @Test
+    public void testCapsDebugEventsButNeverInfoOrOtherLoggers() {
+        LoggerContext context = new LoggerContext();
+        Logger ours = context.getLogger("com.civic.civicissuesystem.security.JwtAuthenticationFilter");
+        Logger theirs = context.getLogger("org.hibernate.SQL");
+        ours.setLevel(Level.DEBUG);
+        theirs.setLevel(Level.DEBUG);
+
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setLoggerPrefix("com.civic.civicissuesystem");
+        filter.setMaxPerSecond(10);
+
+        int passed = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter.decide(null, ours, Level.DEBUG, "auth=ok", null, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        // Allow for the loop straddling a second boundary
+        assertTrue(passed >= 10 && passed <= 20, "passed: " + passed);
+        assertEquals(1000 - passed, filter.getDroppedCount());
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, ours, Level.INFO, "saved", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, ours, Level.DEBUG, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, theirs, Level.DEBUG, "select", null, null));
+    }
+
+    @Test
+    public void testDisabledLevelsDoNotUseTheAllowance() {
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger("com.civic.civicissuesystem.service.ComplaintService");
+        logger.setLevel(Level.INFO);
+
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setMaxPerSecond(1);
+        for (int i = 0; i < 100; i++) {
+            filter.decide(null, logger, Level.DEBUG, "complaint saved", null, null);
+        }
+        assertEquals(0, filter.getDroppedCount());
+    }
+}
@@ -0,0 +1,118 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.service.ComplaintService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Guards the fetch plans of the list endpoints: the number of SQL statements must not grow with
+// the number of complaints on the page
+@SpringBootTest
+@ActiveProfiles("test")
+public class ComplaintQueryCountTest {
+
+    private static final int COMPLAINTS = 10;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    private MockMvc mockMvc;
+    private User admin;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        admin = userRepository.findByEmail("querycount-admin@example.com").orElse(null);
+        if (admin != null) {
+            return;
+        }
+        admin = userRepository.save(new User("Query Admin", "querycount-admin@example.com", null, "secret", Role.ADMIN));
+        for (int i = 0; i < COMPLAINTS; i++) {
+            User citizen = userRepository.save(new User("Citizen " + i, "querycount-" + i + "@example.com", null, "secret", Role.CITIZEN));
+            ComplaintRequest request = new ComplaintRequest("Pothole " + i, "Deep pothole on main road", ComplaintType.INFRASTRUCTURE);
+            request.setLatitude(40.71 + i * 0.001);
+            request.setLongitude(-74.0);
+            request.setImageUrls(List.of("http://localhost:8080/uploads/a" + i + ".jpg", "http://localhost:8080/uploads/b" + i + ".jpg"));
+            Long id = complaintService.createComplaint(request, citizen).getId();
+            complaintService.updateComplaintStatus(id, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        }
+    }
+
+    @Test
+    public void testAdminComplaintPageUsesConstantStatementCount() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/admin/complaints?page=0&size=" + COMPLAINTS).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(COMPLAINTS));
+
+        // page + count + images + updates
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 4, "admin list issued " + statements + " statements");
+    }
+
+    @Test
+    public void testAdminCursorSliceUsesConstantStatementCount() throws Exception {
+        String body = mockMvc.perform(get("/api/admin/complaints/cursor?size=4").with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // A deep slice costs the same as the first: slice + images + updates, no count
+        statistics.clear();
+        mockMvc.perform(get("/api/admin/complaints/cursor?size=4&cursor=" + JsonPath.read(body, "$.nextCursor")).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(4));
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 3, "cursor slice issued " + statements + " statements");
+    }
+
+    @Test
+    public void testHeatmapUsesConstantStatementCount() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/public/complaints/heatmap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(COMPLAINTS));
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 3, "heatmap issued " + statements + " statements");
+    }
+}
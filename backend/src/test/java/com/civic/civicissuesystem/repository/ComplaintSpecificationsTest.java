@@ -0,0 +1,108 @@
+package com.civic.civicissuesystem.repository;
+
+import com.civic.civicissuesystem.dto.ComplaintFilter;
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.geo.BoundingBox;
+import com.civic.civicissuesystem.service.ComplaintService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The admin list and export filters. Every filter is scoped to this test's city, so complaints
+// other tests leave in a shared context do not change the counts.
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintSpecificationsTest {
+
+    private static final String CITY = "Specville";
+    private static final int COMPLAINTS = 10;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @BeforeEach
+    public void setup() {
+        if (userRepository.findByEmail("specs-admin@example.com").isPresent()) {
+            return;
+        }
+        User admin = userRepository.save(new User("Specs Admin", "specs-admin@example.com", null, "secret", Role.ADMIN));
+        User citizen = userRepository.save(new User("Specs Citizen", "specs-citizen@example.com", null, "secret", Role.CITIZEN));
+        for (int i = 0; i < COMPLAINTS; i++) {
+            ComplaintRequest request = new ComplaintRequest("Pothole " + i, "Deep pothole on main road", ComplaintType.INFRASTRUCTURE);
+            request.setCity(CITY);
+            request.setLatitude(40.71 + i * 0.001);
+            request.setLongitude(-74.0);
+            Long id = complaintService.createComplaint(request, citizen).getId();
+            complaintService.updateComplaintStatus(id, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        }
+    }
+
+    @Test
+    public void testFiltersCombine() {
+        ComplaintFilter filter = filter();
+        filter.setStatus(ComplaintStatus.IN_PROGRESS);
+        filter.setType(ComplaintType.INFRASTRUCTURE);
+        assertEquals(COMPLAINTS, count(filter));
+
+        filter.setStatus(ComplaintStatus.PENDING);
+        assertEquals(0, count(filter));
+    }
+
+    @Test
+    public void testBoundingBoxAndDateRange() {
+        // Only the first three complaints (40.710 .. 40.712) fall inside this box
+        ComplaintFilter inBox = filter();
+        inBox.setBbox(BoundingBox.parse("-74.01,40.705,-73.99,40.7125"));
+        assertEquals(3, count(inBox));
+
+        ComplaintFilter longAgo = filter();
+        longAgo.setCreatedFrom(LocalDateTime.of(2000, 1, 1, 0, 0));
+        longAgo.setCreatedTo(LocalDateTime.of(2001, 1, 1, 0, 0));
+        assertEquals(0, count(longAgo));
+
+        assertThrows(IllegalArgumentException.class, () -> BoundingBox.parse("1,2,3"));
+    }
+
+    @Test
+    public void testSearchFallbackMatchesCityLikeTheIndex() {
+        // The index trims and lower-cases cities; the list filter keeps an exact match
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setCity("  specVILLE ");
+        assertEquals(COMPLAINTS, complaintRepository.count(ComplaintSpecifications.matchingSearch(filter, "pothole")));
+        assertEquals(0, count(filter));
+    }
+
+    private long count(ComplaintFilter filter) {
+        return complaintRepository.count(ComplaintSpecifications.matching(filter));
+    }
+
+    private static ComplaintFilter filter() {
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setCity(CITY);
+        return filter;
+    }
+}
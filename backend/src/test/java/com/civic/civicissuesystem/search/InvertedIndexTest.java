@@ -0,0 +1,58 @@
+package com.civic.civicissuesystem.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InvertedIndexTest {
+
+    private static final int INFRASTRUCTURE = 0;
+    private static final int SANITATION = 2;
+    private static final int PENDING = 0;
+    private static final int RESOLVED = 2;
+
+    @Test
+    public void testRanksTitleMatchesAboveDescriptionMatchesAndExpandsPrefixes() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Street light broken", "The pothole nearby is also bad", "12 Elm Street", "Springfield", INFRASTRUCTURE, PENDING);
+        index.put(2, "Huge pothole on Main Road", "Cars are damaged every day", "Main Road", "Springfield", INFRASTRUCTURE, PENDING);
+        index.put(3, "Garbage not collected", "Bins overflowing for a week", "5 Oak Avenue", "Shelbyville", SANITATION, PENDING);
+
+        InvertedIndex.Result result = index.search("pothole", InvertedIndex.ANY, InvertedIndex.ANY, null, 10);
+        assertEquals(2, result.getTotalMatches());
+        assertEquals(2L, result.getHits().get(0).getId());
+        assertEquals(1L, result.getHits().get(1).getId());
+
+        // "pot" and "garb" only match as prefixes; every query term has to match
+        assertEquals(2, index.search("pot", InvertedIndex.ANY, InvertedIndex.ANY, null, 10).getTotalMatches());
+        assertEquals(ids(index.search("garb bins", InvertedIndex.ANY, InvertedIndex.ANY, null, 10)), List.of(3L));
+        assertEquals(0, index.search("garbage pothole", InvertedIndex.ANY, InvertedIndex.ANY, null, 10).getTotalMatches());
+    }
+
+    @Test
+    public void testFiltersStatusChangesAndRemoval() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Pothole", "Deep pothole", null, "Springfield", INFRASTRUCTURE, PENDING);
+        index.put(2, "Pothole", "Another pothole", null, "Shelbyville", INFRASTRUCTURE, PENDING);
+
+        assertEquals(List.of(2L), ids(index.search("pothole", InvertedIndex.ANY, InvertedIndex.ANY, "shelbyville", 10)));
+        assertEquals(0, index.search("pothole", InvertedIndex.ANY, InvertedIndex.ANY, "Ogdenville", 10).getTotalMatches());
+
+        index.updateStatus(1, RESOLVED);
+        assertEquals(List.of(1L), ids(index.search("pothole", InvertedIndex.ANY, RESOLVED, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("pothole", INFRASTRUCTURE, PENDING, null, 10)));
+
+        index.remove(2);
+        index.compact();
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), ids(index.search("pothole", InvertedIndex.ANY, InvertedIndex.ANY, null, 10)));
+        assertTrue(index.search("another", InvertedIndex.ANY, InvertedIndex.ANY, null, 10).getHits().isEmpty());
+    }
+
+    private static List<Long> ids(InvertedIndex.Result result) {
+        return result.getHits().stream().map(InvertedIndex.Hit::getId).toList();
+    }
+}
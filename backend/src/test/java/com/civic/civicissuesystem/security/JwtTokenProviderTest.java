@@ -0,0 +1,52 @@
+package com.civic.civicissuesystem.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "testSecretKeyForJWTTokenGenerationAndValidation12345678901234567890";
+
+    private static JwtTokenProvider provider(int expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", 100L);
+        ReflectionTestUtils.setField(provider, "verifiedCacheTtlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    @Test
+    public void testValidateParsesOnceAndCachesVerifiedTokens() {
+        JwtTokenProvider provider = provider(60_000);
+        String token = provider.generateTokenFromUsername("citizen@example.com");
+
+        Claims first = provider.validate(token);
+        assertNotNull(first);
+        assertEquals("citizen@example.com", first.getSubject());
+        assertSame(first, provider.validate(token));
+        assertEquals(1L, provider.getVerifiedCacheMetrics().get("hits"));
+        assertEquals("citizen@example.com", provider.getUsernameFromToken(token));
+    }
+
+    @Test
+    public void testRejectsTamperedExpiredAndEmptyTokens() {
+        JwtTokenProvider provider = provider(60_000);
+        String token = provider.generateTokenFromUsername("citizen@example.com");
+        // Change the first signature character; the last one carries padding bits the decoder ignores
+        int signature = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signature);
+        String tampered = token.substring(0, signature) + (first == 'A' ? 'B' : 'A') + token.substring(signature + 1);
+
+        assertNull(provider.validate(tampered));
+        assertNull(provider.validate(""));
+        assertNull(provider.validate(null));
+        assertNull(provider(-1_000).validate(provider(-1_000).generateTokenFromUsername("late@example.com")));
+        assertFalse(provider.validateToken(tampered));
+        assertEquals(0L, provider.getVerifiedCacheMetrics().get("size"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.civic.civicissuesystem.security;
+
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PrincipalCacheTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testRepeatedRequestsAreServedFromCache() throws Exception {
+        User citizen = userRepository.save(new User("Cached Citizen", "cache-citizen@example.com", null, "secret", Role.CITIZEN));
+        String token = tokenFor(citizen);
+
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        long hits = (Long) principalCache.getMetrics().get("hits");
+        long statements = statistics.getPrepareStatementCount();
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(citizen.getId()))
+                .andExpect(jsonPath("$.email").value("cache-citizen@example.com"))
+                .andExpect(jsonPath("$.role").value("CITIZEN"));
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(hits + 1, (Long) principalCache.getMetrics().get("hits"));
+    }
+
+    @Test
+    public void testRoleChangeAndDisableTakeEffectImmediately() throws Exception {
+        User admin = userRepository.save(new User("Cache Admin", "cache-admin@example.com", null, "secret", Role.ADMIN));
+        User promoted = userRepository.save(new User("Promoted", "cache-promoted@example.com", null, "secret", Role.CITIZEN));
+        User disabled = userRepository.save(new User("Disabled", "cache-disabled@example.com", null, "secret", Role.CITIZEN));
+        String adminToken = tokenFor(admin);
+        String promotedToken = tokenFor(promoted);
+        String disabledToken = tokenFor(disabled);
+
+        // Warm the cache for both accounts before they change
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + promotedToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + disabledToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/admin/users/" + promoted.getId() + "/role").param("role", "ADMIN")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("ADMIN"));
+        mockMvc.perform(put("/api/admin/users/" + disabled.getId() + "/enabled").param("enabled", "false")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(false));
+
+        // The old token was issued for the citizen role, so it no longer authenticates
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + promotedToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + disabledToken))
+                .andExpect(status().isUnauthorized());
+
+        // Signing in again picks up the new role
+        promoted.setRole(Role.ADMIN);
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + tokenFor(promoted)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("ADMIN"));
+
+        mockMvc.perform(put("/api/admin/users/" + admin.getId() + "/enabled").param("enabled", "false")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/admin/users/" + Long.MAX_VALUE + "/enabled").param("enabled", "false")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNotFound());
+    }
+
+    private String tokenFor(User user) {
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.civic.civicissuesystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenDenyListTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    public void testFindsRevokedIdsOnlyInTheirExpiryBucket() {
+        TokenDenyList denyList = new TokenDenyList(HOUR, 1000, 0.01);
+        long now = 1_700_000_000_000L;
+        String revoked = UUID.randomUUID().toString();
+        denyList.add(revoked, now + 5 * HOUR);
+
+        assertTrue(denyList.contains(revoked, now + 5 * HOUR));
+        assertFalse(denyList.contains(revoked, now + 2 * HOUR));
+        assertFalse(denyList.contains(UUID.randomUUID().toString(), now + 5 * HOUR));
+
+        // Far past its expected size the filter degrades but the exact set keeps answers correct
+        String[] ids = new String[5000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            denyList.add(ids[i], now + 5 * HOUR);
+        }
+        for (String id : ids) {
+            assertTrue(denyList.contains(id, now + 5 * HOUR));
+        }
+        int wronglyDenied = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (denyList.contains(UUID.randomUUID().toString(), now + 5 * HOUR)) {
+                wronglyDenied++;
+            }
+        }
+        assertEquals(0, wronglyDenied);
+        assertTrue(denyList.falsePositiveCount() > 0);
+    }
+
+    @Test
+    public void testEvictsWholeBucketsOnceExpired() {
+        TokenDenyList denyList = new TokenDenyList(HOUR, 100, 0.01);
+        long now = 1_700_000_000_000L;
+        denyList.add("a", now + HOUR / 2);
+        denyList.add("b", now + 3 * HOUR);
+
+        assertEquals(0, denyList.evictExpired(now));
+        assertEquals(1, denyList.evictExpired(now + 2 * HOUR));
+        assertEquals(1, denyList.size());
+        assertFalse(denyList.contains("a", now + HOUR / 2));
+        assertTrue(denyList.contains("b", now + 3 * HOUR));
+    }
+
+    @Test
+    public void testBloomFilterStaysNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("token-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
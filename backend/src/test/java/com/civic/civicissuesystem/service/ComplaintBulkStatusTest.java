@@ -0,0 +1,123 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.ComplaintUpdateRepository;
+import com.civic.civicissuesystem.repository.EmailOutboxRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Leaves resolved complaints behind, so the context (and its in-memory database) is discarded after
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintBulkStatusTest {
+
+    private static final int COMPLAINTS = 200;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ComplaintUpdateRepository complaintUpdateRepository;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    public void testBulkResolveUsesConstantStatementsAndReportsEachId() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User admin = userRepository.save(new User("Bulk Admin", "bulk-admin@example.com", null, "secret", Role.ADMIN));
+        User citizen = userRepository.save(new User("Bulk Citizen", "bulk-citizen@example.com", null, "secret", Role.CITIZEN));
+        List<Complaint> complaints = new ArrayList<>();
+        for (int i = 0; i < COMPLAINTS; i++) {
+            Complaint complaint = new Complaint();
+            complaint.setTitle("Streetlight " + i);
+            complaint.setDescription("Light is out");
+            complaint.setType(ComplaintType.UTILITIES);
+            complaint.setUser(citizen);
+            complaints.add(complaint);
+        }
+        List<Long> ids = complaintRepository.saveAll(complaints).stream().map(Complaint::getId).collect(Collectors.toList());
+        Long alreadyResolved = ids.get(0);
+        complaintService.updateComplaintStatus(alreadyResolved, ComplaintStatus.RESOLVED, "Fixed earlier", admin);
+        long updatesBefore = complaintUpdateRepository.count();
+        long emailsBefore = outboxRepository.count();
+
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(-1L);
+        String body = "{\"complaintIds\":" + requested + ",\"status\":\"RESOLVED\",\"adminNotes\":\"Crew replaced the lamps\"}";
+
+        statistics.clear();
+        mockMvc.perform(put("/api/admin/complaints/status").with(user(admin))
+                        .contentType("application/json").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(COMPLAINTS - 1))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.results.length()").value(COMPLAINTS + 1))
+                .andExpect(jsonPath("$.results[0].outcome").value("UNCHANGED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].previousStatus").value("PENDING"))
+                .andExpect(jsonPath("$.results[" + COMPLAINTS + "].outcome").value("NOT_FOUND"));
+        // Audit and outbox rows are inserted through JDBC batches, so only those grow (by one
+        // statement per batch and per sequence block) with the number of complaints
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 24, "bulk update of " + COMPLAINTS + " complaints issued " + statements + " statements");
+
+        assertEquals(COMPLAINTS, complaintRepository.countByStatus(ComplaintStatus.RESOLVED));
+        assertEquals(updatesBefore + COMPLAINTS - 1, complaintUpdateRepository.count());
+        Complaint resolved = complaintRepository.findById(ids.get(1)).orElseThrow();
+        assertNotNull(resolved.getResolvedAt());
+        assertEquals("Crew replaced the lamps", resolved.getAdminNotes());
+        assertEquals("Fixed earlier", complaintRepository.findById(alreadyResolved).orElseThrow().getAdminNotes());
+
+        // Status and resolution emails for every changed complaint, queued for the dispatcher
+        assertEquals(emailsBefore + 2 * (COMPLAINTS - 1), outboxRepository.count());
+        verifyNoInteractions(mailSender);
+    }
+}
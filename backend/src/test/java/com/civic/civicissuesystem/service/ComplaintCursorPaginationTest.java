@@ -0,0 +1,81 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintCursor;
+import com.civic.civicissuesystem.dto.ComplaintFilter;
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.dto.CursorPage;
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Keyset pagination must visit every matching complaint exactly once
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintCursorPaginationTest {
+
+    private static final String CITY = "Cursorville";
+    private static final int COMPLAINTS = 10;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @BeforeEach
+    public void setup() {
+        if (userRepository.findByEmail("cursor-admin@example.com").isPresent()) {
+            return;
+        }
+        User admin = userRepository.save(new User("Admin", "cursor-admin@example.com", null, "secret", Role.ADMIN));
+        User citizen = userRepository.save(new User("Citizen", "cursor-citizen@example.com", null, "secret", Role.CITIZEN));
+        for (int i = 0; i < COMPLAINTS; i++) {
+            ComplaintRequest request = new ComplaintRequest("Pothole " + i, "Deep pothole on main road", ComplaintType.INFRASTRUCTURE);
+            request.setCity(CITY);
+            Long id = complaintService.createComplaint(request, citizen).getId();
+            complaintService.updateComplaintStatus(id, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        }
+    }
+
+    @Test
+    public void testCursorWalksEveryComplaintOnce() {
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setCity(CITY);
+
+        Set<Long> seen = new HashSet<>();
+        ComplaintCursor cursor = null;
+        int slices = 0;
+        do {
+            CursorPage<Complaint> page = complaintService.getComplaintsAfter(filter, cursor, 4);
+            for (Complaint complaint : page.getContent()) {
+                assertTrue(seen.add(complaint.getId()), "complaint " + complaint.getId() + " returned twice");
+            }
+            cursor = page.getNextCursor() != null ? ComplaintCursor.decode(page.getNextCursor()) : null;
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(COMPLAINTS, seen.size());
+        assertEquals(3, slices);
+    }
+}
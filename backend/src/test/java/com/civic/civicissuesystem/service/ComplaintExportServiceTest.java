@@ -0,0 +1,79 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintFilter;
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Streams filtered rows in both export formats
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintExportServiceTest {
+
+    private static final String CITY = "Exportville";
+    private static final int COMPLAINTS = 10;
+
+    @Autowired
+    private ComplaintExportService exportService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @BeforeEach
+    public void setup() {
+        if (userRepository.findByEmail("export-admin@example.com").isPresent()) {
+            return;
+        }
+        User admin = userRepository.save(new User("Admin", "export-admin@example.com", null, "secret", Role.ADMIN));
+        User citizen = userRepository.save(new User("Citizen", "export-citizen@example.com", null, "secret", Role.CITIZEN));
+        for (int i = 0; i < COMPLAINTS; i++) {
+            ComplaintRequest request = new ComplaintRequest("Pothole " + i, "Deep pothole on main road", ComplaintType.INFRASTRUCTURE);
+            request.setCity(CITY);
+            Long id = complaintService.createComplaint(request, citizen).getId();
+            complaintService.updateComplaintStatus(id, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        }
+    }
+
+    @Test
+    public void testExportStreamsFilteredRows() {
+        String csv = export(ComplaintStatus.IN_PROGRESS, ComplaintExportService.Format.CSV);
+        String[] lines = csv.split("\r\n");
+        assertEquals(COMPLAINTS + 1, lines.length);
+        assertTrue(lines[0].startsWith("id,title,description,type,status"));
+
+        assertEquals("", export(ComplaintStatus.PENDING, ComplaintExportService.Format.NDJSON));
+    }
+
+    private String export(ComplaintStatus status, ComplaintExportService.Format format) {
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setCity(CITY);
+        filter.setStatus(status);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
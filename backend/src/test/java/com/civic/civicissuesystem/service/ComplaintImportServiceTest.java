@@ -0,0 +1,122 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ImportJob;
+import com.civic.civicissuesystem.entity.ImportJobStatus;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.importer.ImportFormat;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.ImportJobRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+// Leaves imported complaints behind, so the context (and its in-memory database) is discarded after
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintImportServiceTest {
+
+    @Autowired
+    private ComplaintImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCsvImportKeepsLegacyDataAndRejectsInvalidRows() throws Exception {
+        User admin = userRepository.save(new User("Import Admin", "import-admin@example.com", null, "secret", Role.ADMIN));
+        User reporter = userRepository.save(new User("Legacy Reporter", "legacy@example.com", null, "secret", Role.CITIZEN));
+        Path csv = tempDir.resolve("legacy.csv");
+        Files.writeString(csv, String.join("\r\n",
+                "title,description,type,status,latitude,longitude,city,createdAt,resolvedAt,reporterEmail,imageUrls",
+                "Broken bench,\"Slats missing, unsafe\",INFRASTRUCTURE,RESOLVED,,,Springfield,2019-03-04T10:15:00,2019-03-10,legacy@example.com,",
+                "Overflowing bin,Bin not emptied,SANITATION,PENDING,40.1,-74.2,Springfield,2019-05-01,,,http://legacy/img/1.jpg|http://legacy/img/2.jpg",
+                "No type,Missing the type column value,,PENDING,,,,,,,",
+                "Flooded underpass,Water after every storm,UTILITIES,IN_PROGRESS,91,10,,,,,",
+                "Graffiti,Wall near the school,OTHER,,,,Shelbyville,2020-01-02,,nobody@example.com,"));
+
+        ImportJob job = importService.run(importService.createJob(csv, ImportFormat.CSV, admin).getId());
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessedRecords());
+        assertEquals(3, job.getImportedCount());
+        assertEquals(2, job.getRejectedCount());
+        assertTrue(job.getLastError().contains("record 3: type is required"));
+        assertTrue(job.getLastError().contains("record 4: latitude is out of range"));
+
+        List<Complaint> bench = complaintRepository.findByUser(reporter);
+        assertEquals(1, bench.size());
+        assertEquals("Slats missing, unsafe", bench.get(0).getDescription());
+        assertEquals(ComplaintStatus.RESOLVED, bench.get(0).getStatus());
+        assertEquals(LocalDateTime.of(2019, 3, 4, 10, 15), bench.get(0).getCreatedAt());
+        assertEquals(LocalDateTime.of(2019, 3, 10, 0, 0), bench.get(0).getResolvedAt());
+        // Unknown reporter emails fall back to the importing admin
+        assertEquals(2, complaintRepository.findByUser(admin).size());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    public void testResumedJobSkipsCommittedRecords() throws Exception {
+        User admin = userRepository.save(new User("Resume Admin", "resume-admin@example.com", null, "secret", Role.ADMIN));
+        Path ndjson = tempDir.resolve("legacy.ndjson");
+        Files.writeString(ndjson, String.join("\n",
+                "{\"title\":\"First\",\"description\":\"Already imported\",\"type\":\"SAFETY\"}",
+                "{\"title\":\"Second\",\"description\":\"Already imported\",\"type\":\"SAFETY\"}",
+                "not json",
+                "{\"title\":\"Fourth\",\"description\":\"Still to import\",\"type\":\"SAFETY\",\"imageUrls\":[\"http://legacy/a.jpg\"]}"));
+
+        ImportJob job = importService.createJob(ndjson, ImportFormat.NDJSON, admin);
+        // Simulate a process that stopped after committing the first two records
+        job.setProcessedRecords(2);
+        job.setImportedCount(2);
+        job.setStatus(ImportJobStatus.INTERRUPTED);
+        importJobRepository.save(job);
+
+        importService.prepareResume(job.getId());
+        ImportJob finished = importService.run(job.getId());
+
+        assertEquals(ImportJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(4, finished.getProcessedRecords());
+        assertEquals(3, finished.getImportedCount());
+        assertEquals(1, finished.getRejectedCount());
+        List<Complaint> imported = complaintRepository.findByUser(admin);
+        assertEquals(1, imported.size());
+        assertEquals("Fourth", imported.get(0).getTitle());
+    }
+
+    @Test
+    public void testUnknownJobIsReportedAsNotFound() {
+        assertThrows(NoSuchElementException.class, () -> importService.getJob(Long.MAX_VALUE));
+        assertThrows(NoSuchElementException.class, () -> importService.prepareResume(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,65 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.UserRepository;
+import com.civic.civicissuesystem.search.InvertedIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The index follows status changes and applies filters and the limit to ranked results
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintSearchServiceTest {
+
+    private static final String CITY = "Searchville";
+    private static final int COMPLAINTS = 10;
+
+    @Autowired
+    private ComplaintSearchService searchService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @BeforeEach
+    public void setup() {
+        if (userRepository.findByEmail("search-admin@example.com").isPresent()) {
+            return;
+        }
+        User admin = userRepository.save(new User("Admin", "search-admin@example.com", null, "secret", Role.ADMIN));
+        User citizen = userRepository.save(new User("Citizen", "search-citizen@example.com", null, "secret", Role.CITIZEN));
+        for (int i = 0; i < COMPLAINTS; i++) {
+            ComplaintRequest request = new ComplaintRequest("Pothole " + i, "Deep pothole on main road", ComplaintType.INFRASTRUCTURE);
+            request.setCity(CITY);
+            Long id = complaintService.createComplaint(request, citizen).getId();
+            complaintService.updateComplaintStatus(id, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        }
+    }
+
+    @Test
+    public void testSearchAppliesFiltersAndLimit() {
+        InvertedIndex.Result inProgress = searchService.search("potho", ComplaintStatus.IN_PROGRESS, null, CITY, 5);
+        assertEquals(COMPLAINTS, inProgress.getTotalMatches());
+        assertEquals(5, inProgress.getHits().size());
+
+        assertEquals(0, searchService.search("potho", ComplaintStatus.PENDING, null, CITY, 5).getTotalMatches());
+    }
+}
@@ -0,0 +1,133 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.analytics.QuantileSketch;
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+// Live sampling agrees with the rebuild and survives one running concurrently. Imported snapshots
+// are replaced per source, validated as a whole and kept across rebuilds.
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintSlaServiceTest {
+
+    @Autowired
+    private ComplaintSlaService slaService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Lets a test resolve a complaint while a rebuild streams the table
+    @SpyBean
+    private ComplaintRepository complaintRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    public void testReopenedComplaintsAreSampledOnceAndRebuildKeepsConcurrentResolutions() {
+        User citizen = userRepository.save(new User("Sla Citizen", "sla-citizen@example.com", null, "secret", Role.CITIZEN));
+        User admin = userRepository.save(new User("Sla Admin", "sla-admin@example.com", null, "secret", Role.ADMIN));
+        Long reopened = complaintService.createComplaint(request("Burst main"), citizen).getId();
+        Long late = complaintService.createComplaint(request("Broken hydrant"), citizen).getId();
+
+        complaintService.updateComplaintStatus(reopened, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        complaintService.updateComplaintStatus(reopened, ComplaintStatus.RESOLVED, "Repaired", admin);
+        complaintService.updateComplaintStatus(reopened, ComplaintStatus.PENDING, "Leaking again", admin);
+        complaintService.updateComplaintStatus(reopened, ComplaintStatus.RESOLVED, "Repaired properly", admin);
+        assertEquals(1L, count(ComplaintSlaService.Metric.TIME_TO_RESOLVE, "Slaville"));
+        assertEquals(1L, count(ComplaintSlaService.Metric.TIME_IN_PROGRESS, "Slaville"));
+
+        // Committed from another thread, since the rebuild holds its own read-only transaction
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> complaintService.updateComplaintStatus(late, ComplaintStatus.RESOLVED, "Replaced", admin)).join();
+            // The spy wraps the repository proxy, so its default answer is what runs the query
+            return mockingDetails(complaintRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).when(complaintRepository).streamResolutionTimes(any());
+        try {
+            slaService.rebuild();
+        } finally {
+            reset(complaintRepository);
+        }
+        assertEquals(2L, count(ComplaintSlaService.Metric.TIME_TO_RESOLVE, "Slaville"));
+        assertEquals(1L, count(ComplaintSlaService.Metric.TIME_IN_PROGRESS, "Slaville"));
+
+        slaService.rebuild();
+        assertEquals(2L, count(ComplaintSlaService.Metric.TIME_TO_RESOLVE, "Slaville"));
+        assertEquals(1L, count(ComplaintSlaService.Metric.TIME_IN_PROGRESS, "Slaville"));
+    }
+
+    @Test
+    public void testImportedSnapshotsAreReplacedPerSourceAndSurviveRebuild() {
+        YearMonth month = YearMonth.now();
+        List<Map<String, String>> snapshot = List.of(entry(month, 3600, 7200));
+
+        slaService.replaceImportedSketches("node-b", snapshot);
+        slaService.replaceImportedSketches("node-b", snapshot);
+        assertEquals(2L, count(ComplaintSlaService.Metric.TIME_TO_RESOLVE, "Springfield"));
+
+        // One bad entry rejects the whole batch and keeps the earlier snapshot
+        List<Map<String, String>> broken = List.of(entry(month, 60), Map.of("metric", "TIME_TO_RESOLVE",
+                "type", "UTILITIES", "city", "Springfield", "month", month.toString(), "sketch", "AAAA"));
+        assertThrows(RuntimeException.class, () -> slaService.replaceImportedSketches("node-b", broken));
+        assertEquals(2L, count(ComplaintSlaService.Metric.TIME_TO_RESOLVE, "Springfield"));
+
+        slaService.replaceImportedSketches("node-c", List.of(entry(month, 60)));
+        slaService.rebuild();
+        assertEquals(3L, count(ComplaintSlaService.Metric.TIME_TO_RESOLVE, "Springfield"));
+    }
+
+    private long count(ComplaintSlaService.Metric metric, String city) {
+        YearMonth month = YearMonth.now();
+        Map<String, Object> result = slaService.getPercentiles(metric, month, month, null, city);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> overall = (Map<String, Object>) result.get("overall");
+        return (Long) overall.get("count");
+    }
+
+    private static Map<String, String> entry(YearMonth month, double... seconds) {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        for (double value : seconds) {
+            sketch.add(value);
+        }
+        return Map.of("metric", "TIME_TO_RESOLVE", "type", "UTILITIES", "city", "Springfield",
+                "month", month.toString(), "sketch", Base64.getEncoder().encodeToString(sketch.toBytes()));
+    }
+
+    private static ComplaintRequest request(String title) {
+        ComplaintRequest request = new ComplaintRequest();
+        request.setTitle(title);
+        request.setDescription(title + " reported by a resident");
+        request.setType(ComplaintType.UTILITIES);
+        request.setCity("Slaville");
+        return request;
+    }
+}
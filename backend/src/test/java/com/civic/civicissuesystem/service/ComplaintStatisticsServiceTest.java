@@ -0,0 +1,115 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The event-maintained counters must always agree with the GROUP BY queries they replaced. Leaves
+// complaints behind, so the context (and its in-memory database) is discarded after.
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintStatisticsServiceTest {
+
+    @Autowired
+    private ComplaintStatisticsService statisticsService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    public void testCountersFollowCreationsAndStatusChanges() {
+        User citizen = userRepository.save(new User("Stats Citizen", "stats-citizen@example.com", null, "secret", Role.CITIZEN));
+        User admin = userRepository.save(new User("Stats Admin", "stats-admin@example.com", null, "secret", Role.ADMIN));
+
+        Complaint water = complaintService.createComplaint(request("Burst main", ComplaintType.UTILITIES, "Springfield"), citizen);
+        Complaint road = complaintService.createComplaint(request("Pothole", ComplaintType.INFRASTRUCTURE, "Springfield"), citizen);
+        Complaint bins = complaintService.createComplaint(request("Bins not emptied", ComplaintType.SANITATION, "Shelbyville"), citizen);
+        complaintService.createComplaint(request("No city given", ComplaintType.SANITATION, null), citizen);
+        assertCountersMatchDatabase();
+
+        complaintService.updateComplaintStatus(water.getId(), ComplaintStatus.IN_PROGRESS, "Crew on the way", admin);
+        complaintService.updateComplaintStatus(water.getId(), ComplaintStatus.RESOLVED, "Repaired", admin);
+        complaintService.updateComplaintStatus(road.getId(), ComplaintStatus.REJECTED, "Private road", admin);
+        // Same status again publishes nothing and must not move any counter
+        complaintService.updateComplaintStatus(bins.getId(), ComplaintStatus.PENDING, "Still waiting", admin);
+        assertCountersMatchDatabase();
+        assertTrue(statisticsService.getCount(ComplaintStatus.REJECTED) >= 1);
+    }
+
+    @Test
+    public void testReconcileRepairsDrift() {
+        User citizen = userRepository.save(new User("Drift Citizen", "drift-citizen@example.com", null, "secret", Role.CITIZEN));
+        // Written around the service, so no event reaches the counters
+        Complaint complaint = new Complaint();
+        complaint.setTitle("Imported without events");
+        complaint.setDescription("Written straight to the table");
+        complaint.setType(ComplaintType.UTILITIES);
+        complaint.setCity("Ogdenville");
+        complaint.setUser(citizen);
+        complaintRepository.save(complaint);
+        assertNotEquals(complaintRepository.count(), statisticsService.getTotal());
+
+        statisticsService.reconcile();
+
+        assertCountersMatchDatabase();
+    }
+
+    private void assertCountersMatchDatabase() {
+        for (ComplaintStatus status : ComplaintStatus.values()) {
+            assertEquals(complaintRepository.countByStatus(status), statisticsService.getCount(status), status.name());
+        }
+        assertEquals(complaintRepository.count(), statisticsService.getTotal());
+
+        Map<ComplaintType, Long> types = new EnumMap<>(ComplaintType.class);
+        for (ComplaintType type : ComplaintType.values()) {
+            types.put(type, 0L);
+        }
+        for (Object[] row : complaintRepository.countGroupedByType()) {
+            types.put((ComplaintType) row[0], (Long) row[1]);
+        }
+        assertEquals(types, statisticsService.getCountsByType());
+
+        Map<String, Long> cities = new TreeMap<>();
+        for (Object[] row : complaintRepository.countGroupedByCity()) {
+            cities.put((String) row[0], (Long) row[1]);
+        }
+        assertEquals(cities, statisticsService.getCountsByCity());
+    }
+
+    private static ComplaintRequest request(String title, ComplaintType type, String city) {
+        ComplaintRequest request = new ComplaintRequest();
+        request.setTitle(title);
+        request.setDescription(title + " reported by a resident");
+        request.setType(type);
+        request.setCity(city);
+        return request;
+    }
+}
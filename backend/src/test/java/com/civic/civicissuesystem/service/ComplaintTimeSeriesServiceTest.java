@@ -0,0 +1,141 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.dto.TimeSeriesPoint;
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.ComplaintRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+// The daily rollups must agree with the per-day GROUP BY queries both when maintained from events
+// and after a rebuild. Leaves complaints behind, so the context is discarded after.
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class ComplaintTimeSeriesServiceTest {
+
+    @Autowired
+    private ComplaintTimeSeriesService timeSeriesService;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    // Lets a test commit changes in the middle of a rebuild
+    @SpyBean
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    public void testRollupsMatchDatabaseBeforeAndAfterRebuild() {
+        User citizen = userRepository.save(new User("Series Citizen", "series-citizen@example.com", null, "secret", Role.CITIZEN));
+        User admin = userRepository.save(new User("Series Admin", "series-admin@example.com", null, "secret", Role.ADMIN));
+
+        Complaint water = complaintService.createComplaint(request("Burst main", ComplaintType.UTILITIES, "Springfield"), citizen);
+        Complaint road = complaintService.createComplaint(request("Pothole", ComplaintType.INFRASTRUCTURE, "Springfield"), citizen);
+        complaintService.createComplaint(request("Bins", ComplaintType.SANITATION, "Shelbyville"), citizen);
+        complaintService.createComplaint(request("Another burst main", ComplaintType.UTILITIES, "Springfield"), citizen);
+
+        complaintService.updateComplaintStatus(water.getId(), ComplaintStatus.RESOLVED, "Repaired", admin);
+        // Reopened and resolved again: resolvedAt keeps the first resolution, so it counts once
+        complaintService.updateComplaintStatus(water.getId(), ComplaintStatus.IN_PROGRESS, "Leaking again", admin);
+        complaintService.updateComplaintStatus(water.getId(), ComplaintStatus.RESOLVED, "Repaired properly", admin);
+        // A rejection is neither created nor resolved, so it must not move the rollups
+        complaintService.updateComplaintStatus(road.getId(), ComplaintStatus.REJECTED, "Private road", admin);
+        assertRollupsMatchDatabase();
+
+        timeSeriesService.rebuild();
+        assertRollupsMatchDatabase();
+
+        complaintService.updateComplaintStatus(road.getId(), ComplaintStatus.RESOLVED, "Fixed after all", admin);
+        assertRollupsMatchDatabase();
+    }
+
+    @Test
+    public void testChangesCommittedDuringRebuildCountOnce() {
+        User citizen = userRepository.save(new User("Race Citizen", "race-citizen@example.com", null, "secret", Role.CITIZEN));
+        User admin = userRepository.save(new User("Race Admin", "race-admin@example.com", null, "secret", Role.ADMIN));
+        Complaint early = complaintService.createComplaint(request("Broken light", ComplaintType.UTILITIES, "Raceville"), citizen);
+
+        // Commits after the rebuild has started buffering but before its GROUP BY reads the table
+        doAnswer(invocation -> {
+            complaintService.createComplaint(request("Flooded underpass", ComplaintType.INFRASTRUCTURE, "Raceville"), citizen);
+            complaintService.updateComplaintStatus(early.getId(), ComplaintStatus.RESOLVED, "Replaced", admin);
+            // The spy wraps the repository proxy, so its default answer is what runs the query
+            return mockingDetails(complaintRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).when(complaintRepository).countCreatedPerDay(any());
+        try {
+            timeSeriesService.rebuild();
+        } finally {
+            reset(complaintRepository);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<TimeSeriesPoint> points = timeSeriesService.query(today.minusDays(1), today.plusDays(1),
+                ComplaintTimeSeriesService.Granularity.MONTH, null, "Raceville", false);
+        assertEquals(2, points.stream().mapToLong(TimeSeriesPoint::getCreated).sum());
+        assertEquals(1, points.stream().mapToLong(TimeSeriesPoint::getResolved).sum());
+        assertRollupsMatchDatabase();
+    }
+
+    private void assertRollupsMatchDatabase() {
+        Map<String, long[]> expected = new HashMap<>();
+        for (Object[] row : complaintRepository.countCreatedPerDay(LocalDateTime.now().plusYears(1))) {
+            expected.computeIfAbsent(key((LocalDate) row[0], (ComplaintType) row[1], (String) row[2]), k -> new long[2])[0] += (Long) row[3];
+        }
+        for (Object[] row : complaintRepository.countResolvedPerDay(LocalDateTime.now().plusYears(1))) {
+            expected.computeIfAbsent(key((LocalDate) row[0], (ComplaintType) row[1], (String) row[2]), k -> new long[2])[1] += (Long) row[3];
+        }
+
+        LocalDate today = LocalDate.now();
+        List<TimeSeriesPoint> points = timeSeriesService.query(today.minusYears(1), today.plusDays(1),
+                ComplaintTimeSeriesService.Granularity.DAY, null, null, true);
+        Map<String, long[]> actual = new HashMap<>();
+        for (TimeSeriesPoint point : points) {
+            actual.put(key(point.getPeriod(), point.getType(), point.getCity()), new long[]{point.getCreated(), point.getResolved()});
+        }
+
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, counts) -> assertArrayEquals(counts, actual.get(key), key));
+    }
+
+    private static String key(LocalDate day, ComplaintType type, String city) {
+        return day + "/" + type + "/" + city;
+    }
+
+    private static ComplaintRequest request(String title, ComplaintType type, String city) {
+        ComplaintRequest request = new ComplaintRequest();
+        request.setTitle(title);
+        request.setDescription(title + " reported by a resident");
+        request.setType(type);
+        request.setCity(city);
+        return request;
+    }
+}
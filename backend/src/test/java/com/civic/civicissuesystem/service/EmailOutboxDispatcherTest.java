@@ -0,0 +1,157 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.ComplaintStatus;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.EmailOutbox;
+import com.civic.civicissuesystem.entity.OutboxStatus;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.EmailOutboxRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Delivers through a local GreenMail SMTP server. Leaves complaints behind, so the context (and its
+// in-memory database) is discarded after.
+@SpringBootTest(properties = {
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "notifications.outbox.max-attempts=2",
+        "notifications.outbox.initial-backoff-ms=1",
+        "notifications.digest.window-ms=0"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+public class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testQueuedEmailsAreCoalescedPerRecipient() throws Exception {
+        User citizen = userRepository.save(new User("Outbox Citizen", "outbox-citizen@example.com", null, "secret", Role.CITIZEN));
+        User neighbour = userRepository.save(new User("Outbox Neighbour", "outbox-neighbour@example.com", null, "secret", Role.CITIZEN));
+        User admin = userRepository.save(new User("Outbox Admin", "outbox-admin@example.com", null, "secret", Role.ADMIN));
+        Long id = complaintService.createComplaint(
+                new ComplaintRequest("Broken swing", "Chain snapped", ComplaintType.SAFETY), citizen).getId();
+        complaintService.updateComplaintStatus(id, ComplaintStatus.IN_PROGRESS, "Crew assigned", admin);
+        complaintService.updateComplaintStatus(id, ComplaintStatus.RESOLVED, "Chain replaced", admin);
+        Long otherId = complaintService.createComplaint(
+                new ComplaintRequest("Loose slide", "Slide wobbles", ComplaintType.SAFETY), neighbour).getId();
+
+        List<EmailOutbox> queued = emailsFor(id);
+        assertEquals(4, queued.size());
+        assertTrue(queued.stream().allMatch(email -> email.getStatus() == OutboxStatus.PENDING));
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        // Four notifications for the reporter become one digest; the neighbour gets a plain email
+        long digestsBefore = (Long) dispatcher.getMetrics().get("digestsSent");
+        long connectionsBefore = (Long) dispatcher.getMetrics().get("smtpConnections");
+        assertEquals(2, dispatcher.dispatchDue());
+
+        MimeMessage[] digest = greenMail.getReceivedMessagesForDomain("outbox-citizen@example.com");
+        assertEquals(1, digest.length);
+        assertEquals("4 updates on your complaint #" + id, digest[0].getSubject());
+        String body = textPart(digest[0]);
+        assertTrue(body.contains("Complaint Submitted Successfully - #" + id));
+        assertTrue(body.contains("Resolution Confirmation Required - #" + id));
+        MimeMessage[] plain = greenMail.getReceivedMessagesForDomain("outbox-neighbour@example.com");
+        assertEquals(1, plain.length);
+        assertEquals("Complaint Submitted Successfully - #" + otherId, plain[0].getSubject());
+        assertTrue(textPart(plain[0]).startsWith("Dear Outbox Neighbour,"));
+        assertTrue(htmlPart(plain[0]).contains("<td>Loose slide</td>"));
+
+        assertTrue(emailsFor(id).stream().allMatch(email -> email.getStatus() == OutboxStatus.SENT && email.getAttempts() == 1));
+        assertEquals(digestsBefore + 1, dispatcher.getMetrics().get("digestsSent"));
+        assertEquals(connectionsBefore + 1, dispatcher.getMetrics().get("smtpConnections"));
+        assertEquals(0, dispatcher.dispatchDue());
+    }
+
+    @Test
+    public void testFailedDeliveryBacksOffThenDeadLetters() throws Exception {
+        User citizen = userRepository.save(new User("Retry Citizen", "retry-citizen@example.com", null, "secret", Role.CITIZEN));
+        Long id = complaintService.createComplaint(
+                new ComplaintRequest("Dark alley", "Streetlight out", ComplaintType.SAFETY), citizen).getId();
+        greenMail.stop();
+
+        assertEquals(1, dispatcher.dispatchDue());
+        EmailOutbox email = emailsFor(id).get(0);
+        assertEquals(OutboxStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getLastError());
+
+        Thread.sleep(20);
+        assertEquals(1, dispatcher.dispatchDue());
+        email = emailsFor(id).get(0);
+        assertEquals(OutboxStatus.DEAD, email.getStatus());
+        assertEquals(2, email.getAttempts());
+        assertEquals(0, dispatcher.dispatchDue());
+
+        EmailOutbox retried = dispatcher.retry(email.getId());
+        assertEquals(OutboxStatus.PENDING, retried.getStatus());
+        assertEquals(0, retried.getAttempts());
+        assertThrows(NoSuchElementException.class, () -> dispatcher.retry(Long.MAX_VALUE));
+    }
+
+    private List<EmailOutbox> emailsFor(Long complaintId) {
+        return outboxRepository.findAll().stream()
+                .filter(email -> complaintId.equals(email.getComplaintId()))
+                .toList();
+    }
+
+    private static String textPart(Part part) throws Exception {
+        return findPart(part, "text/plain");
+    }
+
+    private static String htmlPart(Part part) throws Exception {
+        return findPart(part, "text/html");
+    }
+
+    private static String findPart(Part part, String mimeType) throws Exception {
+        if (part.isMimeType(mimeType)) {
+            return (String) part.getContent();
+        }
+        if (part.isMimeType("multipart/*")) {
+            Multipart multipart = (Multipart) part.getContent();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                String found = findPart(multipart.getBodyPart(i), mimeType);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+}
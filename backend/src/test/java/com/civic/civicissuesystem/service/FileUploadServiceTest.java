@@ -0,0 +1,226 @@
+package com.civic.civicissuesystem.service;
+
+import com.civic.civicissuesystem.dto.ComplaintRequest;
+import com.civic.civicissuesystem.entity.Complaint;
+import com.civic.civicissuesystem.entity.ComplaintImage;
+import com.civic.civicissuesystem.entity.ComplaintType;
+import com.civic.civicissuesystem.entity.Role;
+import com.civic.civicissuesystem.entity.User;
+import com.civic.civicissuesystem.repository.StoredBlobRepository;
+import com.civic.civicissuesystem.repository.UserRepository;
+import com.civic.civicissuesystem.upload.ImageType;
+import com.civic.civicissuesystem.upload.StoredUpload;
+import com.civic.civicissuesystem.upload.UploadRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Leaves blobs and complaints behind, and sweeps with a zero grace period, so the context is
+// discarded after
+@SpringBootTest(properties = {
+        "upload.max-file-size=40KB",
+        "upload.buffer-size=4KB",
+        "upload.unreferenced-grace-hours=0"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+public class FileUploadServiceTest {
+
+    private static final String BOUNDARY = "civic-test-boundary";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=\"" + BOUNDARY + "\"";
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13};
+
+    @TempDir
+    static Path uploadDir;
+
+    @DynamicPropertySource
+    static void uploadDirectory(DynamicPropertyRegistry registry) {
+        registry.add("upload.directory", () -> uploadDir.toString());
+    }
+
+    @Autowired
+    private FileUploadService service;
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    public void testStoresOnceUnderShardedContentAddress() throws IOException {
+        byte[] image = image(PNG_HEADER, 30_000, 1);
+        String hash = sha256(image);
+
+        StoredUpload first = upload("photo.jpeg", "application/octet-stream", image);
+        assertEquals(ImageType.PNG, first.getType());
+        assertEquals(hash, first.getHash());
+        assertEquals(hash + ".png", first.getFileName());
+        assertEquals("/uploads/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".png", first.getPath());
+        assertFalse(first.isDuplicate());
+        assertArrayEquals(image, Files.readAllBytes(uploadDir.resolve(first.getPath().substring("/uploads/".length()))));
+
+        StoredUpload second = upload("same-photo.png", "image/png", image);
+        assertTrue(second.isDuplicate());
+        assertEquals(first.getPath(), second.getPath());
+        assertEquals("same-photo.png", second.getOriginalFilename());
+
+        assertTrue(service.findExisting(hash).isPresent());
+        assertTrue(service.findExisting(sha256(new byte[]{1})).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.findExisting("../../etc/passwd"));
+        assertEquals(1, countFiles(hash));
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testComplaintImagesReferenceBlobsAndUnreferencedOnesAreSwept() throws IOException {
+        User citizen = userRepository.save(new User("Upload Citizen", "upload-citizen@example.com", null, "secret", Role.CITIZEN));
+        StoredUpload attached = upload("pothole.png", "image/png", image(PNG_HEADER, 5_000, 2));
+        StoredUpload abandoned = upload("other.png", "image/png", image(PNG_HEADER, 5_000, 3));
+
+        ComplaintRequest request = new ComplaintRequest();
+        request.setTitle("Pothole on Main Street");
+        request.setDescription("Deep pothole near the bus stop");
+        request.setType(ComplaintType.INFRASTRUCTURE);
+        request.setImageUrls(List.of("http://localhost:8080" + attached.getPath(), attached.getPath(),
+                "https://example.com/elsewhere.jpg"));
+        Complaint complaint = complaintService.createComplaint(request, citizen);
+
+        List<ComplaintImage> images = complaint.getImages();
+        assertEquals(attached.getHash(), images.get(0).getBlobHash());
+        assertEquals(5_000L, images.get(0).getFileSize());
+        assertNull(images.get(2).getBlobHash());
+        assertEquals(2, blobRepository.findById(attached.getHash()).orElseThrow().getRefCount());
+        assertEquals(0, blobRepository.findById(abandoned.getHash()).orElseThrow().getRefCount());
+
+        service.deleteUnreferencedBlobs();
+
+        assertTrue(blobRepository.existsById(attached.getHash()));
+        assertEquals(1, countFiles(attached.getHash()));
+        assertFalse(blobRepository.existsById(abandoned.getHash()));
+        assertEquals(0, countFiles(abandoned.getHash()));
+    }
+
+    @Test
+    public void testRejectsOversizedFilesWhileStreaming() throws IOException {
+        long rejectedBefore = rejectedCount();
+        byte[] body = multipart("big.png", "image/png", image(PNG_HEADER, 45_000, 4));
+
+        // Unknown length (chunked request): caught by the running count, not the Content-Length check
+        UploadRejectedException e = assertThrows(UploadRejectedException.class,
+                () -> service.store(new ByteArrayInputStream(body), CONTENT_TYPE, -1));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+        assertEquals(rejectedBefore + 1, rejectedCount());
+
+        // A declared length well over the limit is refused before the body is read
+        byte[] huge = multipart("huge.png", "image/png", image(PNG_HEADER, 100_000, 5));
+        e = assertThrows(UploadRejectedException.class,
+                () -> service.store(new ByteArrayInputStream(huge), CONTENT_TYPE, huge.length));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+        assertEquals(rejectedBefore + 1, rejectedCount());
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testRejectsNonImagesAndBadRequests() throws IOException {
+        byte[] script = multipart("evil.png", "image/png", "#!/bin/sh\necho pwned\n".getBytes(StandardCharsets.US_ASCII));
+        assertStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE, script, CONTENT_TYPE);
+
+        byte[] pdf = multipart("doc.pdf", "application/pdf", image(PNG_HEADER, 100, 6));
+        assertStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE, pdf, CONTENT_TYPE);
+
+        assertStatus(HttpStatus.BAD_REQUEST, multipart("empty.png", "image/png", new byte[0]), CONTENT_TYPE);
+        assertStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE, new byte[0], "application/json");
+        assertStatus(HttpStatus.BAD_REQUEST, ("--" + BOUNDARY + "--").getBytes(StandardCharsets.US_ASCII), CONTENT_TYPE);
+        assertStatus(HttpStatus.BAD_REQUEST, new byte[0], "multipart/form-data; boundary=" + "b".repeat(71));
+        assertNoTempFiles();
+    }
+
+    private StoredUpload upload(String fileName, String contentType, byte[] content) throws IOException {
+        byte[] body = multipart(fileName, contentType, content);
+        return service.store(new ByteArrayInputStream(body), CONTENT_TYPE, body.length);
+    }
+
+    private void assertStatus(HttpStatus expected, byte[] body, String contentType) {
+        UploadRejectedException e = assertThrows(UploadRejectedException.class,
+                () -> service.store(new ByteArrayInputStream(body), contentType, body.length));
+        assertEquals(expected, e.getStatus(), e.getMessage());
+    }
+
+    private long rejectedCount() {
+        Timer timer = meterRegistry.find("file.upload.write").tag("outcome", "rejected").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static long countFiles(String hash) throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(hash)).count();
+        }
+    }
+
+    private static void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir.resolve(".tmp"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static byte[] image(byte[] header, int size, int seed) {
+        byte[] image = new byte[size];
+        System.arraycopy(header, 0, image, 0, Math.min(header.length, size));
+        for (int i = header.length; i < size; i++) {
+            image[i] = (byte) (i * 31 + seed);
+        }
+        return image;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] multipart(String fileName, String contentType, byte[] content) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+}
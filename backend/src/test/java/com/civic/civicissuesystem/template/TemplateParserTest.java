@@ -0,0 +1,110 @@
+package com.civic.civicissuesystem.template;
+
+import com.civic.civicissuesystem.service.EmailTemplateService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateParserTest {
+
+    private static final List<String> NAMES = List.of("name", "notes", "flag", "content");
+
+    private static int slot(String name) {
+        return NAMES.indexOf(name);
+    }
+
+    private static String[] values(String name, String notes, String flag, String content) {
+        return new String[] { name, notes, flag, content };
+    }
+
+    @Test
+    public void testVariablesSectionsAndStandaloneLines() {
+        Template template = TemplateParser.compile(String.join("\n",
+                "Dear {{name}},",
+                "{{#notes}}",
+                "Notes: {{notes}}",
+                "{{/notes}}",
+                "{{^flag}}No flag{{/flag}}{{#flag}}Flagged{{/flag}}",
+                "Bye"), TemplateParserTest::slot, false);
+
+        assertEquals("Dear Ann,\nNotes: Fixed <today>\nNo flag\nBye",
+                template.render(values("Ann", "Fixed <today>", null, null)));
+        // An empty value counts as missing, and standalone section lines leave no blank line
+        assertEquals("Dear Bob,\nFlagged\nBye", template.render(values("Bob", "", "true", null)));
+    }
+
+    @Test
+    public void testHtmlEscapingAndRawValues() {
+        Template template = TemplateParser.compile("<p>{{name}}</p>{{{content}}}", TemplateParserTest::slot, true);
+
+        StringBuilder buffer = new StringBuilder("stale");
+        buffer.setLength(0);
+        template.render(values("Tom & \"Jerry\" <script>", null, null, "<b>kept</b>"), buffer);
+        assertEquals("<p>Tom &amp; &quot;Jerry&quot; &lt;script&gt;</p><b>kept</b>", buffer.toString());
+    }
+
+    @Test
+    public void testCompileErrors() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> TemplateParser.compile("a\n{{missing}}", TemplateParserTest::slot, false));
+        assertEquals("Unknown variable 'missing' at line 2", unknown.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> TemplateParser.compile("{{#notes}}open", TemplateParserTest::slot, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> TemplateParser.compile("{{#notes}}x{{/flag}}", TemplateParserTest::slot, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> TemplateParser.compile("{{name", TemplateParserTest::slot, false));
+    }
+
+    @Test
+    public void testMessageTemplateParts() {
+        MessageTemplate template = MessageTemplate.parse(String.join("\n",
+                "== subject ==",
+                "  Hello {{name}}  ",
+                "",
+                "== text ==",
+                "Text for {{name}}",
+                "",
+                "== html ==",
+                "<p>{{name}}</p>",
+                ""), TemplateParserTest::slot);
+
+        String[] values = values("Ann", null, null, null);
+        assertEquals("Hello Ann", template.getSubject().render(values));
+        assertEquals("Text for Ann", template.getText().render(values));
+        assertEquals("<p>Ann</p>", template.getHtml().render(values));
+    }
+
+    @Test
+    public void testLocaleVariantsFallBackToLanguageThenDefault(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("complaint-submitted_es.tmpl"),
+                "== subject ==\nQueja recibida - #{{complaintId}}\n== text ==\nHola {{reporterName}}\n");
+        EmailTemplateService service = new EmailTemplateService();
+        ReflectionTestUtils.setField(service, "templatesDir", dir.toString());
+        ReflectionTestUtils.setField(service, "defaultLocaleTag", "en");
+        service.load();
+
+        String[] values = EmailField.newValues();
+        values[EmailField.COMPLAINT_ID.ordinal()] = "7";
+        values[EmailField.REPORTER_NAME.ordinal()] = "Ana";
+        values[EmailField.TITLE.ordinal()] = "Bache";
+        RenderedEmail mexican = service.render(EmailTemplateService.COMPLAINT_SUBMITTED, Locale.forLanguageTag("es-MX"), values);
+        assertEquals("Queja recibida - #7", mexican.getSubject());
+        assertEquals("Hola Ana", mexican.getText());
+        assertNull(mexican.getHtml());
+
+        RenderedEmail english = service.render(EmailTemplateService.COMPLAINT_SUBMITTED, Locale.ENGLISH, values);
+        assertEquals("Complaint Submitted Successfully - #7", english.getSubject());
+        assertTrue(english.getText().startsWith("Dear Ana,\n\nThank you for submitting your complaint."));
+        assertFalse(english.getText().contains("Location:"));
+        assertTrue(english.getHtml().contains("<td>Bache</td>"));
+        assertTrue(service.wrapHtml(english.getHtml(), Locale.ENGLISH).startsWith("<!DOCTYPE html>"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.civic.civicissuesystem.timing;
+
+import com.civic.civicissuesystem.dto.SignupRequest;
+import com.civic.civicissuesystem.entity.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class RequestTimingFilterTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RequestTimingSettings settings;
+
+    @Test
+    public void testServerTimingHeaderReportsRepositoryCalls() {
+        ResponseEntity<String> response = signup("timing@example.com");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        String header = response.getHeaders().getFirst(RequestTiming.SERVER_TIMING);
+        assertNotNull(header);
+        assertTrue(header.contains("db;dur="), header);
+        assertTrue(header.matches(".*app;dur=\\d+\\.\\d{3}$"), header);
+        // Serialization runs after the headers are sent
+        assertFalse(header.contains("serialize"), header);
+    }
+
+    @Test
+    public void testHeaderCanBeSwitchedOffAtRuntime() {
+        settings.setServerTimingHeader(false);
+        try {
+            ResponseEntity<String> response = signup("no-timing@example.com");
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNull(response.getHeaders().getFirst(RequestTiming.SERVER_TIMING));
+        } finally {
+            settings.setServerTimingHeader(true);
+        }
+    }
+
+    @Test
+    public void testStagesAreIgnoredOutsideATimedRequest() {
+        assertFalse(RequestTiming.isActive());
+        assertEquals(0L, RequestTiming.begin());
+        RequestTiming.record(RequestTiming.Stage.DB, 1_000_000);
+
+        RequestTiming timing = RequestTiming.open(true);
+        try {
+            RequestTiming.record(RequestTiming.Stage.DB, 1_500_000);
+            RequestTiming.record(RequestTiming.Stage.DB, 500_000);
+            RequestTiming.record(RequestTiming.Stage.JWT, 91_000);
+            String breakdown = timing.breakdown(2_034_118_000L);
+            assertEquals("total_ms=2034.118 jwt_ms=0.091 jwt_calls=1 db_ms=2.000 db_calls=2", breakdown);
+            assertTrue(timing.serverTimingHeader().startsWith("jwt;dur=0.091, db;dur=2.000;desc=\"2 calls\", app;dur="));
+        } finally {
+            timing.close();
+        }
+    }
+
+    private ResponseEntity<String> signup(String email) {
+        SignupRequest signup = new SignupRequest();
+        signup.setName("Timing User");
+        signup.setEmail(email);
+        signup.setPassword("password123");
+        signup.setRole(Role.CITIZEN);
+        return restTemplate.postForEntity("/api/auth/signup", signup, String.class);
+    }
+}
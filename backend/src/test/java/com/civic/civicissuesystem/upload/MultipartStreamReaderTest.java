@@ -0,0 +1,128 @@
+package com.civic.civicissuesystem.upload;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    public void testReadsPartsAcrossBufferRefills() throws IOException {
+        byte[] image = new byte[100_000];
+        new Random(7).nextBytes(image);
+        // Bytes that look like the start of a boundary must stay part of the body
+        byte[] almost = ("\r\n--" + BOUNDARY.substring(0, 10)).getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(almost, 0, image, 5000, almost.length);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes("preamble to ignore\r\n".getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(partHeader("title", null, null));
+        body.writeBytes("Pothole".getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(partHeader("file", "road; \\\"main\\\".jpg", "image/jpeg"));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        // A small buffer and a stream that returns a few bytes at a time force splits everywhere
+        MultipartStreamReader reader = new MultipartStreamReader(new TrickleInputStream(body.toByteArray()), BOUNDARY, 160);
+
+        assertTrue(reader.nextPart());
+        assertEquals("title", reader.getName());
+        assertNull(reader.getFileName());
+        assertEquals("Pothole", new String(readPart(reader), StandardCharsets.UTF_8));
+
+        assertTrue(reader.nextPart());
+        assertEquals("file", reader.getName());
+        assertEquals("road; \"main\".jpg", reader.getFileName());
+        assertEquals("image/jpeg", reader.getContentType());
+        assertArrayEquals(image, readPart(reader));
+
+        assertFalse(reader.nextPart());
+        assertFalse(reader.nextPart());
+    }
+
+    @Test
+    public void testSkipsUnreadBodies() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"a\"\r\n\r\n"
+                + "first value\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"b\"\r\n\r\n"
+                + "second\r\n"
+                + "--" + BOUNDARY + "--";
+        MultipartStreamReader reader = reader(body);
+
+        assertTrue(reader.nextPart());
+        assertEquals("a", reader.getName());
+        assertTrue(reader.nextPart());
+        assertEquals("b", reader.getName());
+        assertEquals("second", new String(readPart(reader), StandardCharsets.UTF_8));
+        assertFalse(reader.nextPart());
+    }
+
+    @Test
+    public void testRejectsTruncatedAndMalformedBodies() {
+        String truncated = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"a.jpg\"\r\n\r\n"
+                + "no closing boundary";
+        assertThrows(MalformedMultipartException.class, () -> {
+            MultipartStreamReader reader = reader(truncated);
+            reader.nextPart();
+            readPart(reader);
+        });
+
+        String badHeader = "--" + BOUNDARY + "\r\nnot a header\r\n\r\nx\r\n--" + BOUNDARY + "--";
+        assertThrows(MalformedMultipartException.class, () -> reader(badHeader).nextPart());
+
+        assertThrows(MalformedMultipartException.class, () -> reader("").nextPart());
+        assertThrows(IllegalArgumentException.class, () -> new MultipartStreamReader(InputStream.nullInputStream(), "", 1024));
+    }
+
+    private static MultipartStreamReader reader(String body) {
+        return new MultipartStreamReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY, 1024);
+    }
+
+    private static byte[] partHeader(String name, String fileName, String contentType) {
+        StringBuilder header = new StringBuilder("\r\n--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append('"');
+        if (fileName != null) {
+            header.append("; filename=\"").append(fileName).append('"');
+        }
+        header.append("\r\n");
+        if (contentType != null) {
+            header.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        return header.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readPart(MultipartStreamReader reader) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer chunk; (chunk = reader.readChunk()) != null; ) {
+            byte[] bytes = new byte[chunk.remaining()];
+            chunk.get(bytes);
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    // Returns at most 37 bytes per read, like a slow network
+    private static class TrickleInputStream extends ByteArrayInputStream {
+        TrickleInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 37));
+        }
+    }
+}
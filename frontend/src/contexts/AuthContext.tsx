@@ -66,6 +66,10 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   };
 
   const logout = () => {
+    // Revoke the token server-side too; signing out locally must not wait for or depend on it
+    if (localStorage.getItem('token')) {
+      authAPI.logout().catch(() => undefined);
+    }
     setUser(null);
     setToken(null);
     localStorage.removeItem('token');
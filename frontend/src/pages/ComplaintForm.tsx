@@ -28,6 +28,15 @@ import { complaintAPI } from '../services/api';
 import { ComplaintRequest, ComplaintType } from '../types';
 import LocationPicker from '../components/LocationPicker';
 
+// Hex SHA-256 of a file, or null where the browser does not offer SubtleCrypto (non-HTTPS origins)
+const sha256Hex = async (file: File): Promise<string | null> => {
+  if (!window.crypto?.subtle) return null;
+  const digest = await window.crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+  return Array.from(new Uint8Array(digest))
+    .map((b) => b.toString(16).padStart(2, '0'))
+    .join('');
+};
+
 const ComplaintForm: React.FC = () => {
   const [formData, setFormData] = useState<ComplaintRequest>({
     title: '',
@@ -102,16 +111,27 @@ const ComplaintForm: React.FC = () => {
 
     try {
       const uploadPromises = Array.from(files).map(async (file, index) => {
+        const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
+        const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
+
+        // Photos the server already has are not sent again
+        const hash = await sha256Hex(file);
+        if (hash) {
+          const existing = await fetch(`${API_BASE_URL}/upload/${hash}`, { headers });
+          if (existing.ok) {
+            const result = await existing.json();
+            setUploadProgress(((index + 1) / files.length) * 100);
+            return result.fileUrl;
+          }
+        }
+
         const formData = new FormData();
         formData.append('file', file);
 
-        const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
         const response = await fetch(`${API_BASE_URL}/upload`, {
           method: 'POST',
           body: formData,
-          headers: {
-            'Authorization': `Bearer ${localStorage.getItem('token')}`,
-          },
+          headers,
         });
 
         if (!response.ok) {
@@ -4,11 +4,20 @@ import {
   SignupRequest, 
   JwtResponse, 
   User, 
+  Role,
   Complaint, 
   ComplaintRequest,
   PaginatedResponse,
-  ApiResponse
+  CursorPage,
+  ComplaintSearchResponse,
+  BulkStatusUpdateResult,
+  ApiResponse,
+  HeatmapGrid,
+  ComplaintPoint,
+  MapCluster,
+  TimeSeriesPoint
 } from '../types';
+import { HEATMAP_TILE_MEDIA_TYPE, HeatmapTilePoint, decodeHeatmapTile } from './heatmapTile';
 
 const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
 
@@ -56,6 +65,9 @@ export const authAPI = {
   
   getCurrentUser: (): Promise<AxiosResponse<User>> =>
     api.get('/auth/me'),
+  
+  logout: (): Promise<AxiosResponse<ApiResponse<string>>> =>
+    api.post('/auth/logout'),
 };
 
 // Complaint API
@@ -66,6 +78,9 @@ export const complaintAPI = {
   getMyComplaints: (page = 0, size = 10, sortBy = 'createdAt', sortDir = 'desc'): Promise<AxiosResponse<PaginatedResponse<Complaint>>> =>
     api.get(`/citizen/complaints?page=${page}&size=${size}&sortBy=${sortBy}&sortDir=${sortDir}`),
   
+  getMyComplaintsByCursor: (cursor?: string | null, size = 10): Promise<AxiosResponse<CursorPage<Complaint>>> =>
+    api.get('/citizen/complaints/cursor', { params: { cursor: cursor || undefined, size } }),
+  
   getComplaintById: (id: number): Promise<AxiosResponse<Complaint>> =>
     api.get(`/citizen/complaints/${id}`),
   
@@ -73,21 +88,83 @@ export const complaintAPI = {
     let url = `/admin/complaints?page=${page}&size=${size}&sortBy=${sortBy}&sortDir=${sortDir}`;
     if (status) url += `&status=${status}`;
     if (type) url += `&type=${type}`;
-    if (city) url += `&city=${city}`;
+    if (city) url += `&city=${encodeURIComponent(city)}`;
     return api.get(url);
   },
   
+  getAllComplaintsByCursor: (cursor?: string | null, size = 20): Promise<AxiosResponse<CursorPage<Complaint>>> =>
+    api.get('/admin/complaints/cursor', { params: { cursor: cursor || undefined, size } }),
+  
+  exportComplaints: (format: 'csv' | 'ndjson', filters: { status?: string; type?: string; city?: string; from?: string; to?: string } = {}): Promise<AxiosResponse<Blob>> =>
+    api.get('/admin/complaints/export', {
+      params: {
+        format,
+        status: filters.status || undefined,
+        type: filters.type || undefined,
+        city: filters.city || undefined,
+        from: filters.from || undefined,
+        to: filters.to || undefined,
+      },
+      responseType: 'blob',
+    }),
+  
+  searchComplaints: (q: string, filters: { status?: string; type?: string; city?: string } = {}, limit = 20): Promise<AxiosResponse<ComplaintSearchResponse>> =>
+    api.get('/admin/complaints/search', {
+      params: { q, limit, status: filters.status || undefined, type: filters.type || undefined, city: filters.city || undefined },
+    }),
+  
   updateComplaintStatus: (id: number, status: string, adminNotes?: string): Promise<AxiosResponse<ApiResponse<{ complaintId: number; newStatus: string }>>> =>
     api.put(`/admin/complaints/${id}/status?status=${status}${adminNotes ? `&adminNotes=${encodeURIComponent(adminNotes)}` : ''}`),
   
+  bulkUpdateStatus: (complaintIds: number[], status: string, adminNotes?: string): Promise<AxiosResponse<BulkStatusUpdateResult>> =>
+    api.put('/admin/complaints/status', { complaintIds, status, adminNotes }),
+  
   getComplaintsForHeatmap: (): Promise<AxiosResponse<Complaint[]>> =>
     api.get('/public/complaints/heatmap'),
   
-  getComplaintStats: (): Promise<AxiosResponse<{ totalComplaints: number; pendingComplaints: number; inProgressComplaints: number; resolvedComplaints: number }>> =>
+  // bbox is "minLon,minLat,maxLon,maxLat"
+  getHeatmapGrid: (bbox: string, zoom: number): Promise<AxiosResponse<HeatmapGrid>> =>
+    api.get(`/public/complaints/heatmap/grid?bbox=${bbox}&zoom=${zoom}`),
+  
+  getHeatmapTile: (z: number, x: number, y: number): Promise<HeatmapTilePoint[]> =>
+    api.get(`/public/complaints/heatmap/tiles/${z}/${x}/${y}`, {
+      responseType: 'arraybuffer',
+      headers: { Accept: HEATMAP_TILE_MEDIA_TYPE },
+    }).then((response) => decodeHeatmapTile(response.data)),
+  
+  getComplaintClusters: (bbox: string, zoom: number): Promise<AxiosResponse<MapCluster[]>> =>
+    api.get(`/public/complaints/clusters?bbox=${bbox}&zoom=${zoom}`),
+  
+  getComplaintsWithin: (bbox: string, includeResolved = false): Promise<AxiosResponse<ComplaintPoint[]>> =>
+    api.get(`/public/complaints/within?bbox=${bbox}&includeResolved=${includeResolved}`),
+  
+  getComplaintsNearby: (lat: number, lon: number, radiusM = 1000): Promise<AxiosResponse<ComplaintPoint[]>> =>
+    api.get(`/public/complaints/nearby?lat=${lat}&lon=${lon}&radiusM=${radiusM}`),
+  
+  getComplaintStats: (): Promise<AxiosResponse<{ totalComplaints: number; pendingComplaints: number; inProgressComplaints: number; resolvedComplaints: number; rejectedComplaints: number; byType: Record<string, number> }>> =>
     api.get('/public/complaints/stats'),
   
   getComplaintTypes: (): Promise<AxiosResponse<string[]>> =>
     api.get('/public/complaints/types'),
 };
 
+// User administration API. A user whose role changes has to sign in again.
+export const userAdminAPI = {
+  setEnabled: (userId: number, enabled: boolean): Promise<AxiosResponse<Pick<User, 'id' | 'email' | 'role'> & { enabled: boolean }>> =>
+    api.put(`/admin/users/${userId}/enabled?enabled=${enabled}`),
+  
+  changeRole: (userId: number, role: Role): Promise<AxiosResponse<Pick<User, 'id' | 'email' | 'role'> & { enabled: boolean }>> =>
+    api.put(`/admin/users/${userId}/role?role=${role}`),
+};
+
+// Analytics API
+export const analyticsAPI = {
+  getTimeSeries: (from: string, to: string, granularity: 'DAY' | 'WEEK' | 'MONTH' = 'DAY', type?: string, city?: string): Promise<AxiosResponse<TimeSeriesPoint[]>> => {
+    let url = `/admin/analytics/timeseries?from=${from}&to=${to}&granularity=${granularity}`;
+    if (type) url += `&type=${type}`;
+    if (city) url += `&city=${encodeURIComponent(city)}`;
+    return api.get(url);
+  },
+};
+
 export default api;
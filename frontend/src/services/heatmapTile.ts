@@ -0,0 +1,62 @@
+import { ComplaintStatus, ComplaintType } from '../types';
+
+// Decoder for the binary heatmap tiles served by /public/complaints/heatmap/tiles/{z}/{x}/{y}.
+// Must stay in sync with HeatmapTileCodec on the backend.
+export const HEATMAP_TILE_MEDIA_TYPE = 'application/vnd.civic.heatmap-tile';
+const TILE_EXTENT = 4096;
+
+const TYPES = Object.values(ComplaintType);
+const STATUSES = Object.values(ComplaintStatus);
+
+export interface HeatmapTilePoint {
+  latitude: number;
+  longitude: number;
+  type: ComplaintType;
+  status: ComplaintStatus;
+}
+
+export const decodeHeatmapTile = (buffer: ArrayBuffer): HeatmapTilePoint[] => {
+  const bytes = new Uint8Array(buffer);
+  let pos = 0;
+  const readVarint = (): number => {
+    let result = 0;
+    let shift = 0;
+    let b: number;
+    do {
+      b = bytes[pos++];
+      result |= (b & 0x7f) << shift;
+      shift += 7;
+    } while (b & 0x80);
+    return result >>> 0;
+  };
+  const unzigzag = (v: number): number => (v >>> 1) ^ -(v & 1);
+
+  if (bytes[0] !== 0x43 || bytes[1] !== 0x48 || bytes[2] !== 1) {
+    throw new Error('Unsupported heatmap tile');
+  }
+  pos = 3;
+  const z = readVarint();
+  const x = readVarint();
+  const y = readVarint();
+  const count = readVarint();
+  const n = Math.pow(2, z);
+
+  const points: HeatmapTilePoint[] = new Array(count);
+  let qx = 0;
+  let qy = 0;
+  for (let i = 0; i < count; i++) {
+    qx += unzigzag(readVarint());
+    qy += unzigzag(readVarint());
+    const attributes = bytes[pos++];
+    // Use the centre of the quantization cell
+    const worldX = (x + (qx + 0.5) / TILE_EXTENT) / n;
+    const worldY = (y + (qy + 0.5) / TILE_EXTENT) / n;
+    points[i] = {
+      longitude: worldX * 360 - 180,
+      latitude: (360 * Math.atan(Math.exp((180 - worldY * 360) * Math.PI / 180))) / Math.PI - 90,
+      type: TYPES[attributes >>> 4],
+      status: STATUSES[attributes & 0x0f],
+    };
+  }
+  return points;
+};
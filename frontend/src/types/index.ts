@@ -135,3 +135,73 @@ export interface PaginatedResponse<T> {
   first: boolean;
   last: boolean;
 }
+
+export interface ComplaintSearchHit {
+  score?: number;
+  complaint: Complaint;
+}
+
+export interface ComplaintSearchResponse {
+  query: string;
+  totalMatches: number;
+  results: ComplaintSearchHit[];
+}
+
+export interface BulkStatusUpdateResult {
+  status: string;
+  updated: number;
+  unchanged: number;
+  notFound: number;
+  results: {
+    complaintId: number;
+    outcome: 'UPDATED' | 'UNCHANGED' | 'NOT_FOUND';
+    previousStatus?: string | null;
+  }[];
+}
+
+export interface CursorPage<T> {
+  content: T[];
+  nextCursor?: string | null;
+  hasMore: boolean;
+  size: number;
+}
+
+export interface HeatmapGridCell {
+  latitude: number;
+  longitude: number;
+  count: number;
+  byType: Partial<Record<ComplaintType, number>>;
+  byStatus: Partial<Record<ComplaintStatus, number>>;
+}
+
+export interface HeatmapGrid {
+  bbox: string;
+  cellSize: number;
+  totalCount: number;
+  cells: HeatmapGridCell[];
+}
+
+export interface ComplaintPoint {
+  id: number;
+  latitude: number;
+  longitude: number;
+  type: ComplaintType;
+  status: ComplaintStatus;
+  distanceMeters?: number;
+}
+
+export interface MapCluster {
+  id?: number;
+  latitude: number;
+  longitude: number;
+  count: number;
+  cluster: boolean;
+}
+
+export interface TimeSeriesPoint {
+  period: string;
+  type: ComplaintType;
+  city?: string;
+  created: number;
+  resolved: number;
+}